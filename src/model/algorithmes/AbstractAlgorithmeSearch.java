@@ -3,6 +3,7 @@ package model.algorithmes;
 import java.awt.Point;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,25 @@ import model.jeu.*;
 public abstract class AbstractAlgorithmeSearch {
 	protected StateEvaluation evaluation;
 	protected Action action;
+	protected MoveOrdering moveOrdering; // Ordonnancement des coups, null si désactivé
+	protected int rootDepth; // Profondeur demandée à la racine, pour calculer le pli courant
+	protected EndgameSolver endgameSolver; // Résolution des fins de partie d'un joueur isolé, null si désactivée
+	protected boolean isolatedPlayerElimination = true; // Retire de l'arbre les adversaires isolés
+	protected long isolatedMask; // Identifiants des adversaires isolés lors de la recherche en cours
+	protected int[] isolatedFill = new int[0]; // Valeur de remplissage précalculée de chaque adversaire isolé
+	protected long nodeCount; // Nombre de noeuds visités depuis la dernière remise à zéro
+	protected ScoreBuffers scoreBuffers = new ScoreBuffers(); // Vecteurs de scores préalloués, un par profondeur
+	protected SearchCancellation cancellation; // Jeton d'interruption consulté pendant la recherche, ou null
+	protected boolean lastSearchAborted; // Indique si la dernière recherche a été interrompue
+	protected TranspositionTable transpositionTable; // Table de transposition, éventuellement partagée, ou null
+	protected long transpositionHits; // Nombre de noeuds dont la valeur a été lue dans la table
+	protected boolean symmetryCanonicalisation; // Une seule entrée de table par classe de symétrie de la grille
+	protected int[] keyTransforms = new int[0]; // Symétrie menant à la position canonique, par profondeur
+	protected OpeningBook openingBook; // Bibliothèque d'ouvertures consultée à la racine, ou null
+	protected int orderingPerturbation; // Décalage de l'ordre des coups des threads auxiliaires, 0 pour aucun
+
+	// La demande d'interruption est vérifiée tous les CANCELLATION_CHECK_MASK + 1 noeuds
+	private static final long CANCELLATION_CHECK_MASK = 15;
 
 	/**
      * Constructeur de la class Action.
@@ -26,6 +46,382 @@ public abstract class AbstractAlgorithmeSearch {
 	public AbstractAlgorithmeSearch(StateEvaluation evaluation, Action ac) {
 		this.evaluation = evaluation;
 		this.action = ac;
+		this.endgameSolver = new EndgameSolver();
+	}
+
+	/**
+     * Modifie la résolution de fin de partie utilisée quand le joueur courant est isolé des autres.
+     * 
+     * @param endgameSolver La résolution à utiliser, ou null pour toujours lancer la recherche complète.
+     */
+	public void setEndgameSolver(EndgameSolver endgameSolver) {
+		this.endgameSolver = endgameSolver;
+	}
+
+	/**
+     * Modifie la table de fin de partie consultée par la résolution des fins de partie.
+     * 
+     * @param tablebase La table, ou null pour toujours chercher.
+     */
+	public void setEndgameTablebase(EndgameTablebase tablebase) {
+		if (endgameSolver != null) {
+			endgameSolver.setTablebase(tablebase);
+		}
+	}
+
+	/**
+     * Obtient le nombre de noeuds visités par les recherches depuis la dernière remise à zéro.
+     * 
+     * @return  Le nombre de noeuds visités.
+     */
+	public long getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+     * Remet à zéro le compteur de noeuds visités.
+     */
+	public void resetNodeCount() {
+		this.nodeCount = 0;
+	}
+
+	/**
+     * Compte un noeud visité et vérifie régulièrement si la recherche doit s'arrêter.
+     * 
+     * @throws SearchAbortedException si la recherche a été interrompue ou que son échéance est dépassée.
+     */
+	protected void enterNode() {
+		if ((nodeCount++ & CANCELLATION_CHECK_MASK) == 0 && cancellation != null && cancellation.shouldStop()) {
+			throw new SearchAbortedException();
+		}
+	}
+
+	/**
+     * Modifie le jeton d'interruption consulté par les recherches de cet algorithme.
+     * 
+     * @param cancellation  Le jeton d'interruption, ou null pour des recherches non interruptibles.
+     */
+	public void setCancellation(SearchCancellation cancellation) {
+		this.cancellation = cancellation;
+	}
+
+	/**
+     * Indique si la dernière recherche a été interrompue avant d'explorer toutes les actions de la racine.
+     * 
+     * @return  true si la dernière recherche a été interrompue, sinon false.
+     */
+	public boolean wasLastSearchAborted() {
+		return lastSearchAborted;
+	}
+
+	/**
+     * Modifie la table de transposition consultée par cet algorithme. La même table peut être partagée
+     * entre plusieurs algorithmes et plusieurs threads : les clés sont salées par algorithme et évaluation.
+     * 
+     * @param transpositionTable    La table de transposition, ou null pour la désactiver.
+     */
+	public void setTranspositionTable(TranspositionTable transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	/**
+     * Obtient la table de transposition consultée par cet algorithme.
+     * 
+     * @return  La table de transposition, ou null si elle est désactivée.
+     */
+	public TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	/**
+     * Obtient le nombre de noeuds dont la valeur a été lue dans la table de transposition.
+     * 
+     * @return  Le nombre de noeuds trouvés dans la table.
+     */
+	public long getTranspositionHits() {
+		return transpositionHits;
+	}
+
+	/**
+     * Calcule le sel des clés de cet algorithme : deux algorithmes, deux évaluations ou deux générateurs
+     * de coups différents (SoundPruningAction écarte des coups qu'Action explore) ne donnent pas la même
+     * valeur à une position, ils ne doivent donc pas partager leurs entrées.
+     * 
+     * @param state L'état du jeu.
+     * @return      Le sel à combiner avec la clé de la position.
+     */
+	protected long transpositionSalt(StateGame state) {
+		return (long) getClass().getName().hashCode() * 0x9E3779B97F4A7C15L
+				^ (long) evaluation.getClass().getName().hashCode() * 0xC2B2AE3D27D4EB4FL
+				^ (long) action.getClass().getName().hashCode() * 0x165667B19E3779F9L;
+	}
+
+	/**
+     * Active ou désactive la canonicalisation des positions par symétrie de la grille : les positions
+     * symétriques partagent alors une seule entrée de la table de transposition.
+     * 
+     * @param symmetryCanonicalisation  true pour indexer la table par la clé canonique.
+     */
+	public void setSymmetryCanonicalisation(boolean symmetryCanonicalisation) {
+		this.symmetryCanonicalisation = symmetryCanonicalisation;
+	}
+
+	/**
+     * Calcule la clé d'une position pour la table de transposition. Avec la canonicalisation par symétrie,
+     * la symétrie utilisée est retenue pour la profondeur du noeud, afin de transformer les coups lus et
+     * enregistrés.
+     * 
+     * @param state         L'état du jeu.
+     * @param currentPlayer Le joueur qui doit jouer.
+     * @param depth         La profondeur restante au noeud.
+     * @return              La clé de la position, ou 0 si la table est désactivée ou que la position
+     *                      a trop de joueurs pour y être stockée.
+     */
+	protected long transpositionKey(StateGame state, Player currentPlayer, int depth) {
+		int numPlayers = state.getPlayerPosition().size();
+		if (transpositionTable == null || numPlayers > TranspositionTable.MAX_PLAYERS) {
+			return 0;
+		}
+		Player[][] grid = state.getGrid();
+		ZobristHash zobrist = ZobristHash.of(grid.length * grid[0].length, numPlayers);
+		if (!symmetryCanonicalisation) {
+			return zobrist.hash(state, currentPlayer, isolatedMask) ^ transpositionSalt(state);
+		}
+		if (keyTransforms.length <= depth) {
+			this.keyTransforms = Arrays.copyOf(keyTransforms, depth + 1);
+		}
+		return BoardSymmetry.of(grid.length, grid[0].length).canonicalHash(zobrist, state, currentPlayer, isolatedMask,
+				keyTransforms, depth) ^ transpositionSalt(state);
+	}
+
+	/**
+     * Retourne la symétrie retenue pour une profondeur.
+     * 
+     * @param depth La profondeur restante au noeud.
+     * @return      La symétrie menant à la position canonique, l'identité sans canonicalisation.
+     */
+	private int keyTransform(int depth) {
+		return symmetryCanonicalisation && depth < keyTransforms.length ? keyTransforms[depth] : BoardSymmetry.IDENTITY;
+	}
+
+	/**
+     * Cherche une position dans la table de transposition.
+     * 
+     * @param key   La clé de la position, 0 si la table est désactivée.
+     * @return      Le mot de l'entrée, ou 0 si la position n'est pas dans la table.
+     */
+	protected long probeTransposition(long key) {
+		return key != 0 ? transpositionTable.probe(key) : 0;
+	}
+
+	/**
+     * Retourne les scores d'une entrée si elle vient d'une recherche au moins aussi profonde.
+     * 
+     * @param entry         Le mot de l'entrée, ou 0.
+     * @param depth         La profondeur restante au noeud.
+     * @param numPlayers    Le nombre de joueurs.
+     * @return              Les scores dans le tampon de cette profondeur, ou null si l'entrée ne suffit pas.
+     */
+	protected int[] transpositionValues(long entry, int depth, int numPlayers) {
+		if (entry == 0 || TranspositionTable.depthOf(entry) < depth) {
+			return null;
+		}
+		transpositionHits++;
+		int[] values = scoreBuffers.get(depth, numPlayers);
+		TranspositionTable.unpackScores(entry, values, numPlayers);
+		return values;
+	}
+
+	/**
+     * Retourne le meilleur coup d'une entrée, à essayer en premier.
+     * 
+     * @param entry Le mot de l'entrée, ou 0.
+     * @param depth La profondeur restante au noeud.
+     * @return      Le coup, ou null si l'entrée n'en contient pas.
+     */
+	protected String transpositionMove(long entry, int depth) {
+		int move = entry != 0 ? TranspositionTable.moveOf(entry) : -1;
+		if (move < 0) {
+			return null;
+		}
+		// Le coup est enregistré dans le repère de la position canonique
+		return MoveOrdering.ACTIONS[BoardSymmetry.mapDirection(BoardSymmetry.inverse(keyTransform(depth)), move)];
+	}
+
+	/**
+     * Enregistre la valeur d'un noeud dans la table de transposition.
+     * 
+     * @param key           La clé de la position, 0 si la table est désactivée.
+     * @param values        Les scores du noeud.
+     * @param depth         La profondeur restante au noeud.
+     * @param actions       Les actions explorées, ou null pour une feuille.
+     * @param bestIndex     L'indice du meilleur coup dans actions, ou -1.
+     */
+	protected void storeTransposition(long key, int[] values, int depth, List<String> actions, int bestIndex) {
+		if (key == 0) {
+			return;
+		}
+		int move = actions != null && bestIndex >= 0 ? MoveOrdering.actionIndex(actions.get(bestIndex)) : -1;
+		if (move >= 0) {
+			move = BoardSymmetry.mapDirection(keyTransform(depth), move);
+		}
+		transpositionTable.store(key, TranspositionTable.pack(values, values.length, depth, move));
+	}
+
+	/**
+     * Active ou désactive le retrait des adversaires isolés de l'arbre de recherche.
+     * 
+     * @param isolatedPlayerElimination true pour ne plus faire jouer les adversaires isolés dans l'arbre.
+     */
+	public void setIsolatedPlayerElimination(boolean isolatedPlayerElimination) {
+		this.isolatedPlayerElimination = isolatedPlayerElimination;
+	}
+
+	/**
+     * Repère les adversaires isolés du joueur courant et précalcule leur valeur de remplissage : leurs
+     * coups n'ont plus d'effet sur les autres joueurs, l'arbre ne branche donc plus sur eux.
+     * 
+     * @param state         L'état à la racine de la recherche.
+     * @param separation    Les composantes de cases vides de l'état.
+     * @param currentPlayer Le joueur pour lequel la recherche est lancée.
+     */
+	protected void computeIsolatedPlayers(StateGame state, Separation separation, Player currentPlayer) {
+		this.isolatedMask = 0;
+		if (!isolatedPlayerElimination) {
+			return;
+		}
+		int numPlayers = state.getPlayerPosition().size();
+		if (isolatedFill.length < numPlayers) {
+			this.isolatedFill = new int[numPlayers];
+		}
+		for (Player player : state.getPlayerPosition().keySet()) {
+			if (!player.equals(currentPlayer) && player.getIsAlive() && player.getId() < 64
+					&& separation.isIsolated(player)) {
+				isolatedMask |= 1L << player.getId();
+				isolatedFill[player.getId()] = endgameSolver != null ? endgameSolver.longestFill(state, player)
+						: separation.reachableArea(player);
+			}
+		}
+	}
+
+	/**
+     * Vérifie si un joueur a été retiré de l'arbre de recherche en cours car il est isolé.
+     * 
+     * @param player    Le joueur.
+     * @return          true si le joueur est isolé, sinon false.
+     */
+	protected boolean isIsolatedInSearch(Player player) {
+		return isolatedMask != 0 && player.getId() < 64 && (isolatedMask & (1L << player.getId())) != 0;
+	}
+
+	/**
+     * Retourne le prochain joueur à faire jouer dans l'arbre en sautant les adversaires isolés.
+     * 
+     * @param state             L'état actuel du jeu.
+     * @param currentPlayer     Le joueur courant.
+     * @return                  Le prochain joueur non isolé, ou null si aucun joueur n'est en vie.
+     */
+	protected Player nextSearchPlayer(StateGame state, Player currentPlayer) {
+		Player next = nextPlayer(state, currentPlayer);
+		int remaining = state.getPlayerPosition().size();
+		while (next != null && isIsolatedInSearch(next) && remaining-- > 0) {
+			next = nextPlayer(state, next);
+		}
+		return next;
+	}
+
+	/**
+     * Remplace dans un vecteur de scores la valeur des adversaires isolés par leur valeur de remplissage.
+     * 
+     * @param values    Le vecteur de scores, modifié sur place.
+     * @return          Le même vecteur de scores.
+     */
+	protected int[] applyIsolatedValues(int[] values) {
+		if (isolatedMask != 0) {
+			for (int id = 0; id < values.length && id < 64; id++) {
+				if ((isolatedMask & (1L << id)) != 0) {
+					values[id] = isolatedFill[id];
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+     * Active l'ordonnancement des coups pour cet algorithme.
+     * 
+     * @param moveOrdering  L'ordonnancement à consulter, ou null pour explorer les coups dans l'ordre de génération.
+     */
+	public void setMoveOrdering(MoveOrdering moveOrdering) {
+		this.moveOrdering = moveOrdering;
+	}
+
+	/**
+     * Obtient l'ordonnancement des coups utilisé par cet algorithme.
+     * 
+     * @return  L'ordonnancement des coups, ou null s'il est désactivé.
+     */
+	public MoveOrdering getMoveOrdering() {
+		return moveOrdering;
+	}
+
+	/**
+     * Modifie la bibliothèque d'ouvertures consultée avant chaque recherche qui n'est pas plus profonde
+     * que la bibliothèque.
+     * 
+     * @param openingBook   La bibliothèque, ou null pour toujours lancer la recherche.
+     */
+	public void setOpeningBook(OpeningBook openingBook) {
+		this.openingBook = openingBook;
+	}
+
+	/**
+     * Modifie le décalage de l'ordre des coups. Les threads auxiliaires d'une recherche parallèle
+     * reçoivent chacun un décalage différent pour explorer d'abord d'autres sous-arbres que le thread
+     * principal et lui laisser leurs résultats dans la table de transposition.
+     * 
+     * @param orderingPerturbation  Le décalage, 0 pour garder l'ordre de l'ordonnancement.
+     */
+	public void setOrderingPerturbation(int orderingPerturbation) {
+		this.orderingPerturbation = orderingPerturbation;
+	}
+
+	/**
+     * Trie les actions possibles avec l'ordonnancement des coups s'il est activé.
+     * 
+     * @param state         L'état actuel du jeu.
+     * @param currentPlayer Le joueur qui doit jouer.
+     * @param actions       La liste des actions possibles, triée sur place.
+     * @param depth         La profondeur restante.
+     * @param ttMove        Le coup proposé par la table de transposition, ou null.
+     */
+	protected void orderActions(StateGame state, Player currentPlayer, List<String> actions, int depth, String ttMove) {
+		if (moveOrdering != null) {
+			moveOrdering.orderActions(state, currentPlayer, actions, rootDepth - depth, ttMove);
+		} else if (ttMove != null && actions.remove(ttMove)) {
+			// Sans ordonnancement, seul le coup de la table de transposition est essayé en premier
+			actions.add(0, ttMove);
+		}
+		if (orderingPerturbation != 0 && actions.size() > 1) {
+			// Le coup de la table reste en tête, les autres sont décalés selon le thread et le pli
+			int first = ttMove != null && actions.get(0).equals(ttMove) ? 1 : 0;
+			Collections.rotate(actions.subList(first, actions.size()), orderingPerturbation + rootDepth - depth);
+		}
+	}
+
+	/**
+     * Signale à l'ordonnancement des coups le meilleur coup trouvé à un noeud.
+     * 
+     * @param state         L'état du jeu au noeud.
+     * @param currentPlayer Le joueur qui a joué au noeud.
+     * @param actions       Les actions dans l'ordre où elles ont été explorées.
+     * @param bestIndex     L'indice du meilleur coup dans actions, ou -1 s'il n'y en a pas.
+     * @param depth         La profondeur restante au noeud.
+     */
+	protected void recordBestAction(StateGame state, Player currentPlayer, List<String> actions, int bestIndex, int depth) {
+		if (moveOrdering != null && bestIndex >= 0) {
+			moveOrdering.recordBest(state, currentPlayer, actions.get(bestIndex), bestIndex, rootDepth - depth, depth);
+		}
 	}
 
 	/**
@@ -36,7 +432,8 @@ public abstract class AbstractAlgorithmeSearch {
      * @param voronoi       objet de la class Voronoi qui permet de calculer la région de chauqe joueur
 	 * @param depth         La profondeur de recherche.
      * @param currentPlayer Le joueur courant.
-     * @return              Le tableau de scores pour chaque joueur après la recherche.
+     * @return              Le tableau de scores pour chaque joueur après la recherche. Il s'agit du tampon
+     *                      réutilisé de cette profondeur : à recopier pour le conserver après un autre appel.
      */
 	public abstract int[] algorithmeSearch(StateGame state, Action action,Voronoi voronoi ,int depth, Player currentPlayer);
 
@@ -91,28 +488,67 @@ public abstract class AbstractAlgorithmeSearch {
 		Arrays.fill(bestValues, Integer.MIN_VALUE);
 
 		String bestAction = null;
+		int bestIndex = -1;
+		this.rootDepth = depth;
+		this.lastSearchAborted = false;
 
 		if (possibleActions.isEmpty()) {
 			//si y'a aucune action possible pour le joueur donc il est déclarer mort
 			currentPlayer.setAlive(false);
 			return null;
+		}
+
+		// Position connue de la bibliothèque d'ouvertures : son coup a été calculé hors ligne, au moins aussi
+		// profondément que la recherche demandée (sinon la bibliothèque n'est pas consultée)
+		String bookAction = openingBook != null ? openingBook.lookup(state, currentPlayer, depth) : null;
+		if (bookAction != null && possibleActions.contains(bookAction)) {
+			return bookAction;
+		}
+
+		Separation separation = endgameSolver != null || isolatedPlayerElimination ? new Separation(state) : null;
+		if (endgameSolver != null && separation.isIsolated(currentPlayer)) {
+			// Le joueur est seul dans sa région : il suffit de la remplir le plus longtemps possible
+			this.isolatedMask = 0;
+			return endgameSolver.bestFillAction(state, currentPlayer);
 		} else {
+			if (separation != null) {
+				computeIsolatedPlayers(state, separation, currentPlayer);
+			}
+			if (moveOrdering != null) {
+				moveOrdering.age();
+			}
+			scoreBuffers.ensureCapacity(depth, numPlayers);
+			long key = transpositionKey(state, currentPlayer, depth);
+			orderActions(state, currentPlayer, possibleActions, depth, transpositionMove(probeTransposition(key), depth));
+
 			// Parcours des actions possibles
-			for (String possibleAction : possibleActions) {
-				StateGame nextState = state.copy();
+			try {
+				for (int i = 0; i < possibleActions.size(); i++) {
+					String possibleAction = possibleActions.get(i);
+					StateGame nextState = state.copy();
 				
-				// Applique l'action et retourne l'etat suivant
-				nextState = action.applyAction(nextState, possibleAction, currentPlayer);
-				nextState.setTeamPlayers(state.getTeamPlayers());
+					// Applique l'action et retourne l'etat suivant
+					nextState = action.applyAction(nextState, possibleAction, currentPlayer);
+					nextState.setTeamPlayers(state.getTeamPlayers());
 				
-				// Appel récursif de notre algorithme de recherche
-				int[] values = algorithmeSearch(nextState, action,voronoi ,depth - 1, nextPlayer(nextState, currentPlayer));
+					// Appel récursif de notre algorithme de recherche
+					int[] values = algorithmeSearch(nextState, action,voronoi ,depth - 1, nextSearchPlayer(nextState, currentPlayer));
 
-				// Mise à jour des meilleures valeurs si nécessaire
-				if (bestValues[currentPlayer.getId()] < values[currentPlayer.getId()]) {
-					bestValues = values;
-					bestAction = possibleAction;
+					// Mise à jour des meilleures valeurs si nécessaire
+					if (bestValues[currentPlayer.getId()] < values[currentPlayer.getId()]) {
+						System.arraycopy(values, 0, bestValues, 0, numPlayers);
+						bestAction = possibleAction;
+						bestIndex = i;
+					}
 				}
+			} catch (SearchAbortedException e) {
+				// Recherche interrompue : on garde la meilleure action trouvée jusque-là, sinon la première action possible
+				this.lastSearchAborted = true;
+				return bestAction != null ? bestAction : possibleActions.get(0);
+			}
+			recordBestAction(state, currentPlayer, possibleActions, bestIndex, depth);
+			if (bestIndex >= 0) {
+				storeTransposition(key, bestValues, depth, possibleActions, bestIndex);
 			}
 			return bestAction;
 		}
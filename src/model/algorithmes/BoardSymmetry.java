@@ -0,0 +1,179 @@
+package model.algorithmes;
+
+import java.util.concurrent.ConcurrentHashMap;
+import model.jeu.*;
+
+/**
+ * La class BoardSymmetry regroupe les positions qui se déduisent l'une de l'autre par une symétrie de la
+ * grille : les 8 symétries du carré (rotations et réflexions) pour une grille carrée, les 4 qui conservent
+ * les dimensions pour une grille rectangulaire. Les scores d'une position ne changent pas par symétrie,
+ * seuls les coups sont transformés : une table peut donc ne garder qu'une entrée par classe de symétrie,
+ * indexée par la clé canonique (la plus petite clé des positions symétriques).
+ *
+ * Une transformation est codée sur 3 bits, appliqués dans l'ordre : bit 2 transposition (grille carrée
+ * seulement), puis bit 0 miroir haut-bas et bit 1 miroir gauche-droite.
+ */
+public final class BoardSymmetry {
+
+	/** La transformation identité. */
+	public static final int IDENTITY = 0;
+
+	private static final int TRANSPOSE = 4;
+	private static final int FLIP_ROWS = 1;
+	private static final int FLIP_COLS = 2;
+
+	private static final ConcurrentHashMap<Long, BoardSymmetry> CACHE = new ConcurrentHashMap<>();
+
+	// Image de chaque direction (haut, bas, gauche, droite) par chaque transformation
+	private static final int[][] DIRECTION_MAP = new int[8][4];
+
+	static {
+		int[][] vectors = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+		for (int t = 0; t < 8; t++) {
+			for (int dir = 0; dir < 4; dir++) {
+				int dx = vectors[dir][0];
+				int dy = vectors[dir][1];
+				if ((t & TRANSPOSE) != 0) {
+					int swap = dx;
+					dx = dy;
+					dy = swap;
+				}
+				if ((t & FLIP_ROWS) != 0) {
+					dx = -dx;
+				}
+				if ((t & FLIP_COLS) != 0) {
+					dy = -dy;
+				}
+				for (int image = 0; image < 4; image++) {
+					if (vectors[image][0] == dx && vectors[image][1] == dy) {
+						DIRECTION_MAP[t][dir] = image;
+					}
+				}
+			}
+		}
+	}
+
+	private final int transformCount;
+	private final int[][] cellMaps; // cellMaps[t][case] : image de la case par la transformation t
+
+	/**
+	 * Constructeur de la class BoardSymmetry.
+	 *
+	 * @param rows Le nombre de lignes.
+	 * @param cols Le nombre de colonnes.
+	 */
+	private BoardSymmetry(int rows, int cols) {
+		this.transformCount = rows == cols ? 8 : 4;
+		this.cellMaps = new int[transformCount][rows * cols];
+		for (int t = 0; t < transformCount; t++) {
+			for (int x = 0; x < rows; x++) {
+				for (int y = 0; y < cols; y++) {
+					int nx = (t & TRANSPOSE) != 0 ? y : x;
+					int ny = (t & TRANSPOSE) != 0 ? x : y;
+					if ((t & FLIP_ROWS) != 0) {
+						nx = rows - 1 - nx;
+					}
+					if ((t & FLIP_COLS) != 0) {
+						ny = cols - 1 - ny;
+					}
+					cellMaps[t][x * cols + y] = nx * cols + ny;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retourne les symétries partagées d'une taille de grille.
+	 *
+	 * @param rows Le nombre de lignes.
+	 * @param cols Le nombre de colonnes.
+	 * @return     Les symétries de cette taille.
+	 */
+	public static BoardSymmetry of(int rows, int cols) {
+		return CACHE.computeIfAbsent((long) rows << 32 | cols, key -> new BoardSymmetry(rows, cols));
+	}
+
+	/**
+	 * Obtient le nombre de symétries de la grille.
+	 *
+	 * @return 8 pour une grille carrée, 4 sinon.
+	 */
+	public int getTransformCount() {
+		return transformCount;
+	}
+
+	/**
+	 * Obtient l'image des cases par une transformation, partagée et à ne pas modifier.
+	 *
+	 * @param transform La transformation.
+	 * @return          Le tableau donnant l'indice à plat de l'image de chaque case.
+	 */
+	public int[] cellMap(int transform) {
+		return cellMaps[transform];
+	}
+
+	/**
+	 * Calcule la clé canonique d'une position et la transformation qui y mène.
+	 *
+	 * @param zobrist      Les valeurs de hachage de la grille.
+	 * @param state        L'état du jeu.
+	 * @param toMove       Le joueur qui doit jouer, ou null.
+	 * @param isolatedMask Les identifiants des adversaires retirés de la recherche car isolés.
+	 * @param transforms   Un tableau où écrire la transformation choisie, ou null.
+	 * @param index        La case du tableau où l'écrire.
+	 * @return             La plus petite clé parmi les positions symétriques.
+	 */
+	public long canonicalHash(ZobristHash zobrist, StateGame state, Player toMove, long isolatedMask,
+			int[] transforms, int index) {
+		long best = zobrist.hash(state, toMove, isolatedMask, null);
+		int bestTransform = IDENTITY;
+		for (int t = 1; t < transformCount; t++) {
+			long key = zobrist.hash(state, toMove, isolatedMask, cellMaps[t]);
+			if (Long.compareUnsigned(key, best) < 0) {
+				best = key;
+				bestTransform = t;
+			}
+		}
+		if (transforms != null) {
+			transforms[index] = bestTransform;
+		}
+		return best;
+	}
+
+	/**
+	 * Transforme une direction.
+	 *
+	 * @param transform La transformation.
+	 * @param direction L'indice de la direction dans MoveOrdering.ACTIONS.
+	 * @return          L'indice de la direction transformée.
+	 */
+	public static int mapDirection(int transform, int direction) {
+		return DIRECTION_MAP[transform][direction];
+	}
+
+	/**
+	 * Transforme une action.
+	 *
+	 * @param transform La transformation.
+	 * @param action    L'action ("up", "down", "left" ou "right").
+	 * @return          L'action transformée, ou null si l'action n'est pas reconnue.
+	 */
+	public static String mapAction(int transform, String action) {
+		int direction = MoveOrdering.actionIndex(action);
+		return direction < 0 ? null : MoveOrdering.ACTIONS[DIRECTION_MAP[transform][direction]];
+	}
+
+	/**
+	 * Retourne la transformation inverse.
+	 *
+	 * @param transform La transformation.
+	 * @return          La transformation qui la défait.
+	 */
+	public static int inverse(int transform) {
+		// Une réflexion après une transposition équivaut à la transposition après l'autre réflexion
+		if ((transform & TRANSPOSE) != 0) {
+			return TRANSPOSE | (transform & FLIP_ROWS) << 1 | (transform & FLIP_COLS) >> 1;
+		}
+		return transform;
+	}
+}
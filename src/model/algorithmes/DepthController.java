@@ -0,0 +1,231 @@
+package model.algorithmes;
+
+import java.util.function.IntFunction;
+import model.evaluation.*;
+import model.jeu.*;
+
+/**
+ * La class DepthController choisit à chaque tour la profondeur de recherche qui respecte un temps de
+ * réponse cible par coup. La prédiction repose sur le nombre de cases vides, le nombre de joueurs
+ * vivants, le facteur de branchement effectif mesuré et le coût moyen d'un noeud mesuré.
+ */
+public class DepthController {
+
+	private static final double SMOOTHING = 0.3; // Poids d'une nouvelle mesure dans les moyennes glissantes
+	private static final double INITIAL_NANOS_PER_UNIT = 20.0; // Coût estimé avant mesure, par case vide et par joueur vivant
+
+	private final long targetNanos; // Temps de réponse cible par coup
+	private final int minDepth;
+	private final int maxDepth;
+	private boolean log; // Affiche le temps prévu et le temps réel de chaque coup
+
+	private double nanosPerUnit; // Coût moyen d'un noeud par case vide et par joueur vivant, 0 sans mesure
+	private double branching; // Facteur de branchement effectif, 0 tant qu'aucune mesure n'a été faite
+
+	private int lastDepth;
+	private int lastWork; // Cases vides multipliées par joueurs vivants lors du dernier choix
+	private long lastPredictedNanos;
+	private long lastActualNanos;
+	private long lastNodes;
+
+	/**
+	 * Constructeur de la class DepthController.
+	 *
+	 * @param targetMillis Le temps de réponse cible par coup, en millisecondes.
+	 * @param minDepth     La profondeur minimale, utilisée même si elle dépasse le temps cible.
+	 * @param maxDepth     La profondeur maximale.
+	 */
+	public DepthController(long targetMillis, int minDepth, int maxDepth) {
+		this.targetNanos = targetMillis * 1_000_000L;
+		this.minDepth = Math.max(1, minDepth);
+		this.maxDepth = Math.max(this.minDepth, maxDepth);
+	}
+
+	/**
+	 * Active ou désactive l'affichage du temps prévu et du temps réel de chaque coup.
+	 *
+	 * @param log true pour afficher les temps de chaque coup.
+	 */
+	public void setLog(boolean log) {
+		this.log = log;
+	}
+
+	/**
+	 * Choisit la profondeur du prochain coup et lance la recherche.
+	 *
+	 * @param algorithm     L'algorithme de recherche du joueur.
+	 * @param state         L'état actuel du jeu.
+	 * @param voronoi       objet de la class Voronoi qui permet de calculer la région de chaque joueur.
+	 * @param currentPlayer Le joueur qui doit jouer.
+	 * @return              La meilleure action trouvée par l'algorithme.
+	 */
+	public String getBestAction(AbstractAlgorithmeSearch algorithm, StateGame state, Voronoi voronoi, Player currentPlayer) {
+		return getBestAction(algorithm, depth -> algorithm.getBestActionForPlayer(state, voronoi, currentPlayer, depth),
+				state);
+	}
+
+	/**
+	 * Choisit la profondeur du prochain coup et lance une recherche parallèle. Le coût d'un noeud est
+	 * mesuré sur le thread principal, dont la profondeur est celle choisie.
+	 *
+	 * @param search        La recherche parallèle du joueur.
+	 * @param state         L'état actuel du jeu.
+	 * @param voronoi       objet de la class Voronoi qui permet de calculer la région de chaque joueur.
+	 * @param currentPlayer Le joueur qui doit jouer.
+	 * @return              La meilleure action trouvée par le thread principal.
+	 */
+	public String getBestAction(LazySmpSearch<?> search, StateGame state, Voronoi voronoi, Player currentPlayer) {
+		return getBestAction(search.getMainEngine(),
+				depth -> search.getBestActionForPlayer(state, voronoi, currentPlayer, depth), state);
+	}
+
+	/**
+	 * Choisit la profondeur, lance la recherche et mesure son temps et ses noeuds.
+	 *
+	 * @param algorithm L'algorithme dont les noeuds sont comptés.
+	 * @param search    Lance la recherche à la profondeur donnée.
+	 * @param state     L'état actuel du jeu.
+	 * @return          La meilleure action trouvée.
+	 */
+	private String getBestAction(AbstractAlgorithmeSearch algorithm, IntFunction<String> search, StateGame state) {
+		int depth = chooseDepth(state);
+		long nodesBefore = algorithm.getNodeCount();
+		long start = System.nanoTime();
+
+		String bestAction = search.apply(depth);
+
+		record(depth, System.nanoTime() - start, algorithm.getNodeCount() - nodesBefore);
+		if (log) {
+			System.out.println("profondeur : " + depth + " temps prévu : " + lastPredictedNanos / 1_000_000.0
+					+ " ms temps réel : " + lastActualNanos / 1_000_000.0 + " ms noeuds : " + lastNodes);
+		}
+		return bestAction;
+	}
+
+	/**
+	 * Choisit la plus grande profondeur dont le temps prévu respecte le temps cible.
+	 *
+	 * @param state L'état actuel du jeu.
+	 * @return      La profondeur choisie.
+	 */
+	public int chooseDepth(StateGame state) {
+		Player[][] grid = state.getGrid();
+		int freeCells = 0;
+		for (Player[] row : grid) {
+			for (Player cell : row) {
+				if (cell == null) {
+					freeCells++;
+				}
+			}
+		}
+		int living = 0;
+		for (Player player : state.getPlayerPosition().keySet()) {
+			if (player.getIsAlive()) {
+				living++;
+			}
+		}
+
+		// Chaque pli occupe une case : inutile de chercher plus profond que le nombre de cases vides
+		int limit = Math.max(minDepth, Math.min(maxDepth, freeCells));
+		double b = estimatedBranching(freeCells, grid.length * grid[0].length);
+		// Le coût d'un noeud est proportionnel aux cases vides et aux joueurs vivants que l'évaluation parcourt
+		int work = Math.max(1, freeCells) * Math.max(1, living);
+		double costPerNode = work * (nanosPerUnit > 0 ? nanosPerUnit : INITIAL_NANOS_PER_UNIT);
+
+		int depth = minDepth;
+		long predicted = predict(b, costPerNode, depth);
+		while (depth < limit) {
+			long next = predict(b, costPerNode, depth + 1);
+			if (next > targetNanos) {
+				break;
+			}
+			depth++;
+			predicted = next;
+		}
+		this.lastDepth = depth;
+		this.lastWork = work;
+		this.lastPredictedNanos = predicted;
+		return depth;
+	}
+
+	/**
+	 * Met à jour le coût moyen d'un noeud et le facteur de branchement avec la mesure d'un coup.
+	 *
+	 * @param depth       La profondeur utilisée.
+	 * @param actualNanos Le temps réel de la recherche.
+	 * @param nodes       Le nombre de noeuds visités.
+	 */
+	private void record(int depth, long actualNanos, long nodes) {
+		this.lastActualNanos = actualNanos;
+		this.lastNodes = nodes;
+		if (nodes <= 0) {
+			return;
+		}
+		double cost = (double) actualNanos / nodes / lastWork;
+		nanosPerUnit = nanosPerUnit > 0 ? (1 - SMOOTHING) * nanosPerUnit + SMOOTHING * cost : cost;
+
+		// Facteur de branchement effectif : la racine de noeuds d'ordre profondeur
+		double measured = Math.pow(nodes, 1.0 / depth);
+		branching = branching > 0 ? (1 - SMOOTHING) * branching + SMOOTHING * measured : measured;
+	}
+
+	/**
+	 * Estime le facteur de branchement : la mesure si elle existe, sinon trois coups par pli, réduits
+	 * à mesure que la grille se remplit.
+	 *
+	 * @param freeCells  Le nombre de cases vides.
+	 * @param totalCells Le nombre de cases de la grille.
+	 * @return           Le facteur de branchement estimé.
+	 */
+	private double estimatedBranching(int freeCells, int totalCells) {
+		if (branching > 0) {
+			return Math.max(1.0, branching);
+		}
+		return 1.0 + 2.0 * freeCells / Math.max(1, totalCells);
+	}
+
+	/**
+	 * Prédit le temps d'une recherche : somme des noeuds de chaque pli multipliée par le coût d'un noeud.
+	 *
+	 * @param b           Le facteur de branchement.
+	 * @param costPerNode Le coût d'un noeud en nanosecondes.
+	 * @param depth       La profondeur.
+	 * @return            Le temps prévu en nanosecondes.
+	 */
+	private static long predict(double b, double costPerNode, int depth) {
+		double nodes = 0;
+		double level = 1;
+		for (int i = 1; i <= depth; i++) {
+			level *= b;
+			nodes += level;
+		}
+		return (long) Math.min(Long.MAX_VALUE, nodes * costPerNode);
+	}
+
+	/**
+	 * Obtient la profondeur choisie pour le dernier coup.
+	 *
+	 * @return La profondeur.
+	 */
+	public int getLastDepth() {
+		return lastDepth;
+	}
+
+	/**
+	 * Obtient le temps prévu pour le dernier coup.
+	 *
+	 * @return Le temps prévu en nanosecondes.
+	 */
+	public long getLastPredictedNanos() {
+		return lastPredictedNanos;
+	}
+
+	/**
+	 * Obtient le temps réel du dernier coup.
+	 *
+	 * @return Le temps réel en nanosecondes.
+	 */
+	public long getLastActualNanos() {
+		return lastActualNanos;
+	}
+}
@@ -0,0 +1,242 @@
+package model.algorithmes;
+
+import java.awt.Point;
+import model.jeu.*;
+
+/**
+ * La class EndgameSolver résout la fin de partie d'un joueur isolé : il ne reste plus qu'à remplir sa
+ * poche le plus longtemps possible. La recherche est un parcours en profondeur borné par un budget de
+ * noeuds et élagué par la taille de la poche encore atteignable. Une poche qui tient dans la fenêtre
+ * d'une table de fin de partie n'est pas cherchée : sa longueur exacte est lue dans la table.
+ *
+ * Pour choisir un coup, chaque direction a son propre budget ; une direction dont la recherche épuise
+ * son budget est jugée sur la taille de la poche qu'elle ouvre plutôt que sur le chemin tronqué.
+ */
+public class EndgameSolver {
+
+	/** Budget de noeuds par défaut d'une résolution. */
+	public static final long DEFAULT_NODE_BUDGET = 200_000;
+
+	private final long nodeBudget;
+	private EndgameTablebase tablebase; // Longueurs exactes des petites poches, null si aucune
+
+	private int cols;
+	private int[] neighbours; // Table du 4-voisinage de la grille, la sentinelle est toujours bloquée
+	private boolean[] free; // Cases vides de la poche en cours de résolution, sentinelle comprise
+	private int[] stamp; // Marqueurs pour les remplissages de borne, évite de réinitialiser un tableau
+	private int stampValue;
+	private int[] queue;
+	private int[] order; // Cases voisines triées, 4 par profondeur : aucune allocation par noeud
+	private int[] exits; // Nombre de sorties des cases de order
+	private long nodes;
+	private long nodeLimit; // Valeur de nodes à laquelle la recherche en cours s'arrête
+	private boolean exhausted; // Vrai si la dernière recherche a épuisé son budget avant de conclure
+	private int best;
+	private int upperBound;
+
+	/**
+	 * Constructeur de la class EndgameSolver avec le budget de noeuds par défaut.
+	 */
+	public EndgameSolver() {
+		this(DEFAULT_NODE_BUDGET);
+	}
+
+	/**
+	 * Constructeur de la class EndgameSolver.
+	 *
+	 * @param nodeBudget Le nombre maximal de noeuds explorés par résolution, et par direction pour le
+	 *                   choix d'un coup.
+	 */
+	public EndgameSolver(long nodeBudget) {
+		this.nodeBudget = nodeBudget;
+	}
+
+	/**
+	 * Modifie la table de fin de partie consultée avant de lancer la recherche.
+	 *
+	 * @param tablebase La table, partagée et en lecture seule, ou null pour toujours chercher.
+	 */
+	public void setTablebase(EndgameTablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+
+	/**
+	 * Retourne le coup qui permet au joueur de survivre le plus longtemps dans sa poche.
+	 *
+	 * @param state  L'état actuel du jeu.
+	 * @param player Le joueur isolé.
+	 * @return       La meilleure action de remplissage, ou null si le joueur ne peut plus bouger.
+	 */
+	public String bestFillAction(StateGame state, Player player) {
+		prepare(state);
+		Point position = state.getPlayerPosition().get(player);
+		int start = position.x * cols + position.y;
+		String bestAction = null;
+		int bestLength = -1;
+
+		for (int dir = 0; dir < 4; dir++) {
+			int next = neighbours[start * 4 + dir];
+			if (!free[next]) {
+				continue;
+			}
+			free[next] = false;
+			nodeLimit = nodes + Math.min(nodeBudget, Long.MAX_VALUE - nodes);
+			int filled = fill(next, Math.max(bestLength - 1, -1));
+			// Un chemin tronqué sous-estime la poche : la direction est jugée sur sa taille
+			int length = 1 + (exhausted ? upperBound : filled);
+			free[next] = true;
+			if (length > bestLength) {
+				bestLength = length;
+				bestAction = MoveOrdering.ACTIONS[dir];
+			}
+		}
+		return bestAction;
+	}
+
+	/**
+	 * Calcule la longueur du plus long remplissage trouvé depuis la position du joueur.
+	 *
+	 * @param state  L'état actuel du jeu.
+	 * @param player Le joueur isolé.
+	 * @return       Le nombre de coups que le joueur peut encore jouer (exact si le budget suffit).
+	 */
+	public int longestFill(StateGame state, Player player) {
+		prepare(state);
+		Point position = state.getPlayerPosition().get(player);
+		nodeLimit = nodeBudget;
+		return fill(position.x * cols + position.y, -1);
+	}
+
+	/**
+	 * Obtient le nombre de noeuds explorés par la dernière résolution.
+	 *
+	 * @return Le nombre de noeuds.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Lance un parcours en profondeur depuis une case et retourne la longueur du plus long chemin trouvé.
+	 *
+	 * @param start La case de départ, déjà occupée.
+	 * @param known Une longueur déjà obtenue par ailleurs, qu'il est inutile de chercher à égaler.
+	 * @return      La longueur du plus long chemin trouvé.
+	 */
+	private int fill(int start, int known) {
+		this.exhausted = false;
+		this.best = Math.max(known, 0);
+		this.upperBound = reachable(start);
+		if (tablebase != null) {
+			// Le parcours en largeur a laissé la case de départ puis toute la poche dans la file
+			int exact = tablebase.probe(queue, upperBound + 1, cols);
+			if (exact >= 0) {
+				return exact;
+			}
+		}
+		if (upperBound <= known) {
+			return upperBound;
+		}
+		dfs(start, 0);
+		return best;
+	}
+
+	/**
+	 * Parcours en profondeur élagué par la taille de la poche atteignable.
+	 *
+	 * @param cell   La case courante.
+	 * @param length La longueur du chemin jusqu'à cette case.
+	 */
+	private void dfs(int cell, int length) {
+		if (best >= upperBound) {
+			return;
+		}
+		if (nodes++ >= nodeLimit) {
+			exhausted = true;
+			return;
+		}
+		if (length > best) {
+			best = length;
+		}
+		if (length + reachable(cell) <= best) {
+			return;
+		}
+
+		// Heuristique de Warnsdorff : d'abord la case voisine qui a le moins de sorties
+		int base = length * 4;
+		int count = 0;
+		for (int dir = 0; dir < 4; dir++) {
+			int next = neighbours[cell * 4 + dir];
+			if (free[next]) {
+				int e = 0;
+				for (int d = 0; d < 4; d++) {
+					if (free[neighbours[next * 4 + d]]) {
+						e++;
+					}
+				}
+				int j = base + count++;
+				while (j > base && exits[j - 1] > e) {
+					exits[j] = exits[j - 1];
+					order[j] = order[j - 1];
+					j--;
+				}
+				exits[j] = e;
+				order[j] = next;
+			}
+		}
+
+		for (int i = base; i < base + count; i++) {
+			int next = order[i];
+			free[next] = false;
+			dfs(next, length + 1);
+			free[next] = true;
+		}
+	}
+
+	/**
+	 * Compte les cases vides atteignables depuis une case : borne supérieure du remplissage.
+	 *
+	 * @param cell La case de départ.
+	 * @return     Le nombre de cases vides atteignables.
+	 */
+	private int reachable(int cell) {
+		stampValue++;
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = cell;
+		stamp[cell] = stampValue;
+		while (head < tail) {
+			int current = queue[head++];
+			for (int dir = 0; dir < 4; dir++) {
+				int next = neighbours[current * 4 + dir];
+				if (free[next] && stamp[next] != stampValue) {
+					stamp[next] = stampValue;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return tail - 1;
+	}
+
+	/**
+	 * Prépare les tableaux de travail pour la grille de l'état.
+	 *
+	 * @param state L'état du jeu.
+	 */
+	private void prepare(StateGame state) {
+		Player[][] grid = state.getGrid();
+		GridTopology topology = GridTopology.of(grid);
+		int cells = topology.getCells();
+		this.cols = topology.getCols();
+		this.neighbours = topology.neighbours4();
+		this.nodes = 0;
+		if (free == null || free.length != cells + 1) {
+			this.stamp = new int[cells];
+			this.queue = new int[cells];
+			this.order = new int[(cells + 1) * 4]; // Un chemin compte au plus une case par case vide
+			this.exits = new int[(cells + 1) * 4];
+			this.stampValue = 0;
+		}
+		this.free = topology.freeCells(grid, free);
+	}
+}
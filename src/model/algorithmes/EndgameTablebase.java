@@ -0,0 +1,285 @@
+package model.algorithmes;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import model.jeu.*;
+
+/**
+ * La class EndgameTablebase donne la longueur exacte du plus long remplissage d'une poche qui tient dans
+ * une fenêtre de rows x cols cases (par exemple 4 x 4) : pour chaque ensemble de cases vides et chaque
+ * position de la tête, le nombre de coups que le joueur isolé peut encore jouer. La table est calculée
+ * hors ligne par analyse rétrograde, couche par couche selon le nombre de cases vides (une couche ne
+ * dépend que de la précédente, ses positions sont donc calculées en parallèle), puis écrite en valeurs
+ * de quelques bits et projetée en mémoire à la lecture. Elle sert à jouer parfaitement les poches isolées
+ * sans recherche, et d'oracle pour vérifier EndgameSolver.
+ *
+ * Format du fichier (gros-boutiste) : un en-tête de HEADER_BYTES octets (signature, version, lignes,
+ * colonnes, bits par valeur), puis les valeurs rangées bit à bit (bit de poids faible d'abord), à
+ * l'indice tête * 2^(cases - 1) + ensemble des cases vides privé du bit de la tête.
+ */
+public class EndgameTablebase {
+
+	/** Propriété système donnant le chemin du fichier de la table de fin de partie. */
+	public static final String FILE_PROPERTY = "tron.tablebase";
+
+	/** Signature du fichier. */
+	public static final int MAGIC = 0x54525442; // "TRTB"
+	/** Version du format. */
+	public static final int VERSION = 1;
+	/** Taille de l'en-tête en octets. */
+	public static final int HEADER_BYTES = 32;
+	/** Nombre maximal de cases de la fenêtre, pour que la génération tienne en mémoire. */
+	public static final int MAX_CELLS = 20;
+
+	private final MappedByteBuffer values;
+	private final int rows;
+	private final int cols;
+	private final int bits;
+	private final int valueMask;
+
+	/**
+	 * Constructeur de la class EndgameTablebase : projette le fichier en mémoire et vérifie son en-tête.
+	 *
+	 * @param file Le fichier de la table.
+	 * @throws IOException si le fichier ne peut pas être lu ou n'est pas une table de fin de partie.
+	 */
+	public EndgameTablebase(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				// Un MappedByteBuffer est limité à 2 Go
+				throw new IOException("Fichier de table de fin de partie de plus de 2 Go : " + file);
+			}
+			this.values = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (values.capacity() < HEADER_BYTES || values.getInt(0) != MAGIC || values.getInt(4) != VERSION) {
+			throw new IOException("Fichier de table de fin de partie invalide : " + file);
+		}
+		this.rows = values.getInt(8);
+		this.cols = values.getInt(12);
+		this.bits = values.getInt(16);
+		this.valueMask = (1 << bits) - 1;
+		if (rows <= 0 || cols <= 0 || rows * cols > MAX_CELLS || bits != bitsFor(rows * cols)
+				|| values.capacity() != HEADER_BYTES + packedBytes(rows * cols)) {
+			throw new IOException("Fichier de table de fin de partie tronqué : " + file);
+		}
+	}
+
+	/**
+	 * Ouvre la table de fin de partie donnée par la propriété système tron.tablebase.
+	 *
+	 * @return La table, ou null si la propriété n'est pas donnée ou que le fichier est illisible.
+	 */
+	public static EndgameTablebase fromSystemProperty() {
+		String file = System.getProperty(FILE_PROPERTY);
+		if (file == null || file.isEmpty()) {
+			return null;
+		}
+		try {
+			return new EndgameTablebase(Path.of(file));
+		} catch (IOException | IllegalArgumentException e) {
+			System.out.println("Table de fin de partie ignorée : " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Cherche la longueur du plus long remplissage d'une poche. La poche est ramenée dans la fenêtre de
+	 * la table par translation, et par transposition si elle n'y tient que couchée.
+	 *
+	 * @param cells    Les cases, numérotées à plat dans la grille : la tête en premier, puis toutes les
+	 *                 cases vides de la poche.
+	 * @param count    Le nombre de cases du tableau à lire.
+	 * @param gridCols Le nombre de colonnes de la grille.
+	 * @return         Le nombre de coups que le joueur peut encore jouer, ou -1 si la poche ne tient pas
+	 *                 dans la fenêtre.
+	 */
+	public int probe(int[] cells, int count, int gridCols) {
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = -1;
+		int maxY = -1;
+		for (int i = 0; i < count; i++) {
+			int x = cells[i] / gridCols;
+			int y = cells[i] % gridCols;
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+			minY = Math.min(minY, y);
+			maxY = Math.max(maxY, y);
+		}
+		int height = maxX - minX + 1;
+		int width = maxY - minY + 1;
+		boolean transposed;
+		if (height <= rows && width <= cols) {
+			transposed = false;
+		} else if (width <= rows && height <= cols) {
+			transposed = true;
+		} else {
+			return -1;
+		}
+
+		int head = 0;
+		int mask = 0;
+		for (int i = 0; i < count; i++) {
+			int x = cells[i] / gridCols - minX;
+			int y = cells[i] % gridCols - minY;
+			int cell = transposed ? y * cols + x : x * cols + y;
+			if (i == 0) {
+				head = cell;
+			} else {
+				mask |= 1 << cell;
+			}
+		}
+		return value(index(head, mask, rows * cols));
+	}
+
+	/**
+	 * Lit une valeur de la table.
+	 *
+	 * @param index L'indice de la position.
+	 * @return      La longueur du plus long remplissage.
+	 */
+	private int value(long index) {
+		long bit = index * bits;
+		int offset = (int) (HEADER_BYTES + (bit >>> 3));
+		// Une valeur fait au plus 5 bits : elle tient dans les deux octets qui la contiennent
+		int word = (values.get(offset) & 0xFF) | (values.get(offset + 1) & 0xFF) << 8;
+		return word >>> (int) (bit & 7) & valueMask;
+	}
+
+	/**
+	 * Calcule et écrit la table d'une fenêtre.
+	 *
+	 * @param out  Le flux de sortie.
+	 * @param rows Le nombre de lignes de la fenêtre.
+	 * @param cols Le nombre de colonnes de la fenêtre.
+	 * @param pool Le pool de threads qui calcule chaque couche en parallèle.
+	 * @throws IOException si l'écriture échoue.
+	 * @throws InterruptedException si le calcul est interrompu.
+	 */
+	public static void write(DataOutputStream out, int rows, int cols, ForkJoinPool pool)
+			throws IOException, InterruptedException {
+		int cells = rows * cols;
+		if (rows <= 0 || cols <= 0 || cells < 2 || cells > MAX_CELLS) {
+			throw new IllegalArgumentException("La fenêtre doit compter entre 2 et " + MAX_CELLS + " cases.");
+		}
+		byte[] table = generate(rows, cols, pool);
+
+		int bits = bitsFor(cells);
+		byte[] packed = new byte[(int) packedBytes(cells)];
+		for (int index = 0; index < table.length; index++) {
+			long bit = (long) index * bits;
+			int offset = (int) (bit >>> 3);
+			int word = table[index] << (int) (bit & 7);
+			packed[offset] |= (byte) word;
+			packed[offset + 1] |= (byte) (word >>> 8);
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(bits);
+		out.write(header.array());
+		out.write(packed);
+	}
+
+	/**
+	 * Analyse rétrograde : une position sans case vide voisine de la tête vaut 0, et toute autre position
+	 * vaut 1 + le maximum des positions obtenues en avançant la tête sur une case vide voisine, qui ont une
+	 * case vide de moins. Les couches sont donc calculées dans l'ordre croissant du nombre de cases vides.
+	 *
+	 * @param rows Le nombre de lignes de la fenêtre.
+	 * @param cols Le nombre de colonnes de la fenêtre.
+	 * @param pool Le pool de threads.
+	 * @return     Une valeur par octet, rangée par indice de position.
+	 * @throws InterruptedException si le calcul est interrompu.
+	 */
+	private static byte[] generate(int rows, int cols, ForkJoinPool pool) throws InterruptedException {
+		int cells = rows * cols;
+		int[] neighbours = GridTopology.of(rows, cols).neighbours4();
+		byte[] table = new byte[cells << (cells - 1)];
+		for (int layer = 1; layer < cells; layer++) {
+			int emptyCells = layer;
+			try {
+				// Chaque position de la couche est écrite par un seul thread et ne lit que la couche précédente
+				pool.submit(() -> IntStream.range(0, 1 << cells).parallel()
+						.filter(mask -> Integer.bitCount(mask) == emptyCells)
+						.forEach(mask -> {
+							for (int head = 0; head < cells; head++) {
+								if ((mask >>> head & 1) != 0) {
+									continue;
+								}
+								int best = 0;
+								for (int dir = 0; dir < GridTopology.N4; dir++) {
+									int next = neighbours[head * GridTopology.N4 + dir];
+									if (next < cells && (mask >>> next & 1) != 0) {
+										best = Math.max(best, 1 + table[index(next, mask & ~(1 << next), cells)]);
+									}
+								}
+								table[index(head, mask, cells)] = (byte) best;
+							}
+						})).get();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Échec du calcul de la table de fin de partie", e.getCause());
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Calcule l'indice d'une position : l'ensemble des cases vides ne contient jamais la tête, son bit est
+	 * retiré pour diviser la table par deux.
+	 *
+	 * @param head  La case de la tête.
+	 * @param mask  L'ensemble des cases vides.
+	 * @param cells Le nombre de cases de la fenêtre.
+	 * @return      L'indice de la position.
+	 */
+	private static int index(int head, int mask, int cells) {
+		int compact = (mask >>> (head + 1)) << head | (mask & ((1 << head) - 1));
+		return head << (cells - 1) | compact;
+	}
+
+	/**
+	 * Calcule le nombre de bits d'une valeur : un remplissage compte au plus cases - 1 coups.
+	 *
+	 * @param cells Le nombre de cases de la fenêtre.
+	 * @return      Le nombre de bits par valeur.
+	 */
+	private static int bitsFor(int cells) {
+		return Integer.SIZE - Integer.numberOfLeadingZeros(cells - 1);
+	}
+
+	/**
+	 * Calcule la taille des valeurs rangées bit à bit, avec un octet de marge pour lire deux octets.
+	 *
+	 * @param cells Le nombre de cases de la fenêtre.
+	 * @return      Le nombre d'octets.
+	 */
+	private static long packedBytes(int cells) {
+		return (((long) cells << (cells - 1)) * bitsFor(cells) + 7) / 8 + 1;
+	}
+
+	/**
+	 * Obtient le nombre de lignes de la fenêtre.
+	 *
+	 * @return Le nombre de lignes.
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Obtient le nombre de colonnes de la fenêtre.
+	 *
+	 * @return Le nombre de colonnes.
+	 */
+	public int getCols() {
+		return cols;
+	}
+}
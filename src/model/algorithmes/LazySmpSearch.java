@@ -0,0 +1,220 @@
+package model.algorithmes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import model.evaluation.*;
+import model.jeu.*;
+
+/**
+ * La class LazySmpSearch parallélise une recherche selon le schéma Lazy SMP : tous les threads cherchent
+ * la même racine, chacun avec son propre algorithme, et ne communiquent que par une table de transposition
+ * partagée. Les threads auxiliaires explorent les coups dans un autre ordre et, pour la moitié d'entre eux,
+ * un pli plus profond : le thread principal trouve alors dans la table des sous-arbres déjà évalués.
+ * Seul le résultat du thread principal est retourné ; les auxiliaires sont interrompus dès qu'il a fini.
+ * Avec un seul thread, la recherche est exactement celle de l'algorithme principal.
+ *
+ * Main, MainSos et MainInter lisent le nombre de threads dans la propriété système tron.search.threads ;
+ * un siège de tournoi le donne après une barre oblique (maxn:5/4, voir SeatConfig).
+ *
+ * @param <E> Le type des algorithmes de recherche.
+ */
+public class LazySmpSearch<E extends AbstractAlgorithmeSearch> {
+
+	/** Propriété système donnant le nombre de threads de recherche de chaque moteur. */
+	public static final String THREADS_PROPERTY = "tron.search.threads";
+	/** Taille de la table créée quand aucune n'est donnée (-Dtron.tt.mb) mais que plusieurs threads cherchent. */
+	public static final long DEFAULT_TABLE_MEGABYTES = 64;
+
+	private final AbstractAlgorithmeSearch[] engines; // engines[0] est l'algorithme du thread principal
+	private final SearchCancellation[] helperCancellations; // Jeton d'interruption de chaque auxiliaire
+	private final TranspositionTable transpositionTable;
+	private final ExecutorService helpers; // Threads auxiliaires, null s'il n'y en a pas
+
+	/**
+	 * Constructeur de la class LazySmpSearch.
+	 *
+	 * @param factory            Crée un algorithme par thread, le premier étant celui du thread principal.
+	 *                           Chaque algorithme doit être configuré comme le principal (table de fin de
+	 *                           partie, bibliothèque d'ouvertures, canonicalisation par symétrie, générateur
+	 *                           de coups) : un auxiliaire configuré autrement remplit la table de valeurs que
+	 *                           le principal n'aurait pas trouvées, ou sous des clés qu'il ne lira jamais.
+	 *                           La table et l'interruption des auxiliaires sont fixées ici. Les algorithmes
+	 *                           ne doivent pas partager d'objets à état (ordonnancement des coups,
+	 *                           générateur de coups avec compteurs).
+	 * @param threads            Le nombre total de threads, le thread appelant compris.
+	 * @param transpositionTable La table de transposition partagée par tous les threads, null possible
+	 *                           avec un seul thread.
+	 */
+	public LazySmpSearch(Supplier<? extends E> factory, int threads, TranspositionTable transpositionTable) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Il faut au moins un thread de recherche.");
+		}
+		if (transpositionTable == null && threads > 1) {
+			throw new IllegalArgumentException("Lazy SMP a besoin d'une table de transposition partagée.");
+		}
+		this.transpositionTable = transpositionTable;
+		this.engines = new AbstractAlgorithmeSearch[threads];
+		this.helperCancellations = new SearchCancellation[threads];
+		for (int i = 0; i < threads; i++) {
+			engines[i] = factory.get();
+			engines[i].setTranspositionTable(transpositionTable);
+			if (i > 0) {
+				helperCancellations[i] = new SearchCancellation();
+				engines[i].setCancellation(helperCancellations[i]);
+				engines[i].setOrderingPerturbation(i);
+			}
+		}
+		this.helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+			Thread thread = new Thread(runnable, "lazy-smp");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+	}
+
+	/**
+	 * Lit le nombre de threads de recherche dans la propriété système tron.search.threads.
+	 *
+	 * @return Le nombre de threads, 1 si la propriété n'est pas donnée.
+	 * @throws IllegalArgumentException si le nombre de threads n'est pas positif.
+	 */
+	public static int threadsFromSystemProperty() {
+		int threads = Integer.getInteger(THREADS_PROPERTY, 1);
+		if (threads < 1) {
+			throw new IllegalArgumentException("Il faut au moins un thread de recherche (" + THREADS_PROPERTY + ").");
+		}
+		return threads;
+	}
+
+	/**
+	 * Choisit la table à partager entre les threads : la table donnée, ou une table de
+	 * DEFAULT_TABLE_MEGABYTES mégaoctets si plusieurs threads cherchent sans table.
+	 *
+	 * @param threads            Le nombre de threads de recherche.
+	 * @param transpositionTable La table configurée, ou null.
+	 * @return                   La table, null seulement pour un seul thread sans table.
+	 */
+	public static TranspositionTable tableFor(int threads, TranspositionTable transpositionTable) {
+		if (transpositionTable == null && threads > 1) {
+			return new OffHeapTranspositionTable(DEFAULT_TABLE_MEGABYTES, false);
+		}
+		return transpositionTable;
+	}
+
+	/**
+	 * Obtient l'algorithme du thread principal, pour le configurer (interruption, ordonnancement...).
+	 *
+	 * @return L'algorithme du thread principal.
+	 */
+	@SuppressWarnings("unchecked")
+	public E getMainEngine() {
+		return (E) engines[0];
+	}
+
+	/**
+	 * Obtient le nombre de threads de recherche.
+	 *
+	 * @return Le nombre de threads, le thread appelant compris.
+	 */
+	public int getThreads() {
+		return engines.length;
+	}
+
+	/**
+	 * Obtient la table de transposition partagée.
+	 *
+	 * @return La table de transposition.
+	 */
+	public TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	/**
+	 * Lance la recherche parallèle et retourne la meilleure action du thread principal.
+	 *
+	 * @param state         L'état actuel du jeu, lu par tous les threads sans être modifié.
+	 * @param voronoi       objet de la class Voronoi qui permet de calculer la région de chaque joueur.
+	 * @param currentPlayer Le joueur qui doit jouer.
+	 * @param depth         La profondeur de recherche du thread principal.
+	 * @return              La meilleure action trouvée par le thread principal.
+	 */
+	public String getBestActionForPlayer(StateGame state, Voronoi voronoi, Player currentPlayer, int depth) {
+		List<Future<?>> running = new ArrayList<>(engines.length - 1);
+		for (int i = 1; i < engines.length; i++) {
+			AbstractAlgorithmeSearch helper = engines[i];
+			int helperDepth = depth + (i & 1); // Profondeurs décalées : un auxiliaire sur deux cherche un pli plus loin
+			helperCancellations[i].reset();
+			running.add(helpers.submit(() -> helper.getBestActionForPlayer(state, voronoi, currentPlayer, helperDepth)));
+		}
+
+		try {
+			return engines[0].getBestActionForPlayer(state, voronoi, currentPlayer, depth);
+		} finally {
+			for (int i = 1; i < engines.length; i++) {
+				helperCancellations[i].cancel();
+			}
+			// Les auxiliaires s'arrêtent en quelques noeuds : on les attend pour pouvoir réutiliser leurs algorithmes
+			for (Future<?> future : running) {
+				awaitQuietly(future);
+			}
+		}
+	}
+
+	/**
+	 * Obtient le nombre total de noeuds visités par tous les threads depuis la dernière remise à zéro.
+	 *
+	 * @return Le nombre de noeuds visités.
+	 */
+	public long getNodeCount() {
+		long nodes = 0;
+		for (AbstractAlgorithmeSearch engine : engines) {
+			nodes += engine.getNodeCount();
+		}
+		return nodes;
+	}
+
+	/**
+	 * Remet à zéro le compteur de noeuds de tous les threads.
+	 */
+	public void resetNodeCount() {
+		for (AbstractAlgorithmeSearch engine : engines) {
+			engine.resetNodeCount();
+		}
+	}
+
+	/**
+	 * Arrête les threads auxiliaires. La recherche ne doit plus être utilisée ensuite.
+	 */
+	public void shutdown() {
+		if (helpers != null) {
+			helpers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Attend la fin d'un thread auxiliaire en ignorant son résultat.
+	 *
+	 * @param future La tâche du thread auxiliaire.
+	 */
+	private static void awaitQuietly(Future<?> future) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				future.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException e) {
+				// L'échec d'un auxiliaire ne change pas le résultat du thread principal
+				break;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package model.algorithmes;
 
 import java.awt.Point;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import model.jeu.*;
@@ -28,40 +29,62 @@ public class MaxNAlgorithme extends AbstractAlgorithmeSearch {
      * @param voronoi       objet de la class Voronoi qui permet de calculer la région de chauqe joueur
 	 * @param depth         La profondeur de la recherche.
      * @param currentPlayer Le joueur courant.
-     * @return              Les valeurs évaluées pour chaque joueur.
+     * @return              Les valeurs évaluées pour chaque joueur, dans le tampon réutilisé de cette profondeur.
      */
 	@Override
 	public int[] algorithmeSearch(StateGame state, Action action,Voronoi voronoi ,int depth, Player currentPlayer) {
 		
+		enterNode();
+
+		// Position déjà évaluée à une profondeur suffisante : sa valeur est dans la table de transposition
+		long key = transpositionKey(state, currentPlayer, depth);
+		long entry = probeTransposition(key);
+		int[] cached = transpositionValues(entry, depth, state.getPlayerPosition().size());
+		if (cached != null) {
+			return cached;
+		}
+
 		// Etat terminal ou profondeur atteinte : retourne l'évaluation de l'état
 		if (isTerminal(state) || depth == 0) {
 			voronoi.assignVoronoiRegions(state);
-			return evaluation.evaluate(state);
+			int[] leafValue = scoreBuffers.get(depth, state.getPlayerPosition().size());
+			evaluation.evaluate(state, leafValue);
+			storeTransposition(key, applyIsolatedValues(leafValue), depth, null, -1);
+			return leafValue;
 		}
 
 		Map<Player, Point> playerPositions = state.getPlayerPosition();
 		List<String> possibleActions = action.actionsPossible(state, currentPlayer);
 		int numPlayers = playerPositions.size();
-		int[] bestValue = new int[numPlayers];
+		int[] bestValue = scoreBuffers.get(depth, numPlayers);
+		Arrays.fill(bestValue, 0);
+		int bestIndex = -1;
+		int orderingIndex = -1; // Premier des meilleurs coups : c'est lui que l'ordonnancement doit retenir
+		orderActions(state, currentPlayer, possibleActions, depth, transpositionMove(entry, depth));
 
 		//Parcours des actions possibles
-		for (String possibleAction : possibleActions) {
+		for (int a = 0; a < possibleActions.size(); a++) {
+			String possibleAction = possibleActions.get(a);
 			StateGame nextState = state.copy();
 
 			//Applique l'action 
 			nextState = action.applyAction(nextState, possibleAction, currentPlayer);
 			
 			// Appel récursif pour évaluer l'état suivant
-			int[] value = algorithmeSearch(nextState, action,voronoi ,depth - 1, nextPlayer(nextState, currentPlayer));
+			int[] value = algorithmeSearch(nextState, action,voronoi ,depth - 1, nextSearchPlayer(nextState, currentPlayer));
 
 			// Mise à jour des meilleures valeurs si nécessaire
 			if (bestValue[currentPlayer.getId()] <= value[currentPlayer.getId()]) {
-				for (int i = 0; i < numPlayers; i++) {
-					bestValue[i] = value[i];
+				if (orderingIndex < 0 || bestValue[currentPlayer.getId()] < value[currentPlayer.getId()]) {
+					orderingIndex = a;
 				}
+				System.arraycopy(value, 0, bestValue, 0, numPlayers);
+				bestIndex = a;
 			}
 
 		}
+		recordBestAction(state, currentPlayer, possibleActions, orderingIndex, depth);
+		storeTransposition(key, bestValue, depth, possibleActions, bestIndex);
 		return bestValue;
 	}
 }
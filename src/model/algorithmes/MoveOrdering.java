@@ -0,0 +1,227 @@
+package model.algorithmes;
+
+import java.awt.Point;
+import java.util.List;
+import model.jeu.*;
+
+/**
+ * La class MoveOrdering ordonne les actions avant leur exploration par les algorithmes de recherche.
+ * Elle combine le coup de la table de transposition, les coups "killer" de chaque pli et une table
+ * d'historique par joueur, et compte combien de fois le premier coup exploré s'est révélé le meilleur.
+ */
+public class MoveOrdering {
+
+	/** Les actions dans l'ordre de génération de Action.actionsPossible. */
+	public static final String[] ACTIONS = { "up", "down", "left", "right" };
+
+	private static final int TT_MOVE_SCORE = Integer.MAX_VALUE;
+	private static final int KILLER_1_SCORE = Integer.MAX_VALUE - 1;
+	private static final int KILLER_2_SCORE = Integer.MAX_VALUE - 2;
+
+	private int[][] history; // Table d'historique : [id du joueur][case * 4 + direction]
+	private int historyCells; // Nombre de cases de la grille couverte par la table d'historique
+	private String[][] killers; // Deux coups killer par pli : [pli][0 ou 1]
+
+	private long orderedNodes; // Nombre de noeuds où un meilleur coup a été enregistré
+	private long firstMoveBest; // Nombre de noeuds où le premier coup exploré était le meilleur
+
+	/**
+	 * Constructeur de la class MoveOrdering.
+	 */
+	public MoveOrdering() {
+		this.history = new int[0][0];
+		this.killers = new String[0][2];
+	}
+
+	/**
+	 * Retourne l'indice d'une action dans le tableau ACTIONS.
+	 *
+	 * @param action L'action.
+	 * @return       L'indice de l'action, ou -1 si l'action n'est pas reconnue.
+	 */
+	public static int actionIndex(String action) {
+		for (int i = 0; i < ACTIONS.length; i++) {
+			if (ACTIONS[i].equals(action)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Trie les actions possibles de la plus prometteuse à la moins prometteuse : le coup de la table de
+	 * transposition d'abord, puis les coups killer du pli, puis les autres selon la table d'historique.
+	 *
+	 * @param state   L'état actuel du jeu.
+	 * @param player  Le joueur qui doit jouer.
+	 * @param actions La liste des actions possibles, triée sur place.
+	 * @param ply     Le pli courant (0 à la racine).
+	 * @param ttMove  Le coup proposé par la table de transposition, ou null.
+	 */
+	public void orderActions(StateGame state, Player player, List<String> actions, int ply, String ttMove) {
+		int size = actions.size();
+		if (size < 2) {
+			return;
+		}
+		ensureCapacity(state, player, ply);
+		String[] killersPly = killers[ply];
+		int[] playerHistory = history[player.getId()];
+		int cell = cellIndex(state, player);
+
+		int[] scores = new int[size];
+		for (int i = 0; i < size; i++) {
+			String a = actions.get(i);
+			if (a.equals(ttMove)) {
+				scores[i] = TT_MOVE_SCORE;
+			} else if (a.equals(killersPly[0])) {
+				scores[i] = KILLER_1_SCORE;
+			} else if (a.equals(killersPly[1])) {
+				scores[i] = KILLER_2_SCORE;
+			} else {
+				scores[i] = playerHistory[cell * 4 + actionIndex(a)];
+			}
+		}
+
+		// Tri par insertion stable : au plus quatre actions
+		for (int i = 1; i < size; i++) {
+			int score = scores[i];
+			String a = actions.get(i);
+			int j = i - 1;
+			while (j >= 0 && scores[j] < score) {
+				scores[j + 1] = scores[j];
+				actions.set(j + 1, actions.get(j));
+				j--;
+			}
+			scores[j + 1] = score;
+			actions.set(j + 1, a);
+		}
+	}
+
+	/**
+	 * Enregistre le meilleur coup trouvé à un noeud : met à jour la table d'historique, les coups killer
+	 * du pli et les compteurs de qualité de l'ordonnancement.
+	 *
+	 * @param state      L'état du jeu au noeud.
+	 * @param player     Le joueur qui a joué au noeud.
+	 * @param bestAction Le meilleur coup trouvé.
+	 * @param bestIndex  La position du meilleur coup dans l'ordre d'exploration.
+	 * @param ply        Le pli du noeud.
+	 * @param depth      La profondeur restante au noeud.
+	 */
+	public void recordBest(StateGame state, Player player, String bestAction, int bestIndex, int ply, int depth) {
+		int dir = actionIndex(bestAction);
+		if (dir < 0) {
+			return;
+		}
+		ensureCapacity(state, player, ply);
+		orderedNodes++;
+		if (bestIndex == 0) {
+			firstMoveBest++;
+		}
+
+		int[] playerHistory = history[player.getId()];
+		int index = cellIndex(state, player) * 4 + dir;
+		playerHistory[index] += depth * depth;
+		if (playerHistory[index] > KILLER_2_SCORE / 2) {
+			age();
+		}
+
+		String[] killersPly = killers[ply];
+		if (!bestAction.equals(killersPly[0])) {
+			killersPly[1] = killersPly[0];
+			killersPly[0] = bestAction;
+		}
+	}
+
+	/**
+	 * Divise par deux la table d'historique, pour que les recherches récentes pèsent plus que les anciennes.
+	 */
+	public void age() {
+		for (int[] playerHistory : history) {
+			for (int i = 0; i < playerHistory.length; i++) {
+				playerHistory[i] >>= 1;
+			}
+		}
+	}
+
+	/**
+	 * Remet à zéro les tables d'historique, les coups killer et les compteurs.
+	 */
+	public void clear() {
+		this.history = new int[0][0];
+		this.historyCells = 0;
+		this.killers = new String[0][2];
+		resetStatistics();
+	}
+
+	/**
+	 * Remet à zéro les compteurs de qualité de l'ordonnancement.
+	 */
+	public void resetStatistics() {
+		this.orderedNodes = 0;
+		this.firstMoveBest = 0;
+	}
+
+	/**
+	 * Obtient le nombre de noeuds pour lesquels un meilleur coup a été enregistré.
+	 *
+	 * @return Le nombre de noeuds.
+	 */
+	public long getOrderedNodes() {
+		return orderedNodes;
+	}
+
+	/**
+	 * Obtient le nombre de noeuds pour lesquels le premier coup exploré était le meilleur.
+	 *
+	 * @return Le nombre de noeuds.
+	 */
+	public long getFirstMoveBest() {
+		return firstMoveBest;
+	}
+
+	/**
+	 * Obtient la proportion de noeuds où le premier coup exploré était le meilleur.
+	 *
+	 * @return La proportion entre 0 et 1 (0 si aucun noeud n'a été enregistré).
+	 */
+	public double getFirstMoveBestRate() {
+		return orderedNodes == 0 ? 0.0 : (double) firstMoveBest / orderedNodes;
+	}
+
+	/**
+	 * Calcule l'indice de la case occupée par un joueur.
+	 *
+	 * @param state  L'état du jeu.
+	 * @param player Le joueur.
+	 * @return       L'indice de la case (ligne * nombre de colonnes + colonne).
+	 */
+	private int cellIndex(StateGame state, Player player) {
+		Point position = state.getPlayerPosition().get(player);
+		return position.x * state.getGrid()[0].length + position.y;
+	}
+
+	/**
+	 * Agrandit les tables si la grille, le nombre de joueurs ou le pli dépassent leur taille actuelle.
+	 *
+	 * @param state  L'état du jeu.
+	 * @param player Le joueur concerné.
+	 * @param ply    Le pli concerné.
+	 */
+	private void ensureCapacity(StateGame state, Player player, int ply) {
+		int cells = state.getGrid().length * state.getGrid()[0].length;
+		int players = Math.max(state.getPlayerPosition().size(), player.getId() + 1);
+		if (cells != historyCells || history.length < players) {
+			this.history = new int[players][cells * 4];
+			this.historyCells = cells;
+		}
+		if (killers.length <= ply) {
+			String[][] newKillers = new String[ply + 1][2];
+			System.arraycopy(killers, 0, newKillers, 0, killers.length);
+			for (int i = killers.length; i <= ply; i++) {
+				newKillers[i] = new String[2];
+			}
+			this.killers = newKillers;
+		}
+	}
+}
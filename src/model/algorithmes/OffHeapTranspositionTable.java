@@ -0,0 +1,153 @@
+package model.algorithmes;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
+/**
+ * La class OffHeapTranspositionTable est une table de transposition hors du tas Java, découpée en blocs
+ * de ByteBuffer directs : sa taille peut atteindre plusieurs gigaoctets sans peser sur le ramasse-miettes.
+ * Les accès ne prennent aucun verrou : chaque entrée est écrite sous la forme (clé ^ mot, mot), et une
+ * lecture n'est acceptée que si le XOR des deux valeurs redonne la clé. Une écriture concurrente qui
+ * entrelace deux entrées est ainsi vue comme une absence, jamais comme une entrée corrompue.
+ * Chaque case de la table contient deux entrées : la première est remplacée en priorité par une
+ * recherche au moins aussi profonde, la seconde est toujours remplacée.
+ */
+public class OffHeapTranspositionTable implements TranspositionTable {
+
+	/** Propriété système donnant la taille de la table en mégaoctets. */
+	public static final String SIZE_PROPERTY = "tron.tt.mb";
+	/** Propriété système demandant de toucher toutes les pages de la table à sa création. */
+	public static final String PRETOUCH_PROPERTY = "tron.tt.pretouch";
+	/** Propriété système demandant une seule entrée par classe de symétrie de la grille. */
+	public static final String SYMMETRY_PROPERTY = "tron.tt.symmetry";
+
+	private static final int ENTRY_BYTES = 16; // Clé ^ mot, puis mot
+	private static final int BUCKET_BYTES = 2 * ENTRY_BYTES;
+	private static final int BUCKET_SHIFT = 5;
+	private static final int CHUNK_SHIFT = 30; // Blocs de 1 Go, un ByteBuffer est limité à 2 Go
+	private static final int TOUCH_BLOCK = 1 << 20; // Taille des tranches remises à zéro en parallèle
+	private static final byte[] ZEROS = new byte[1 << 16];
+
+	// Accès atomiques aux mots de 64 bits alignés d'un ByteBuffer
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+	private final ByteBuffer[] chunks;
+	private final long bucketMask;
+	private final int bucketsPerChunkShift;
+
+	/**
+	 * Constructeur de la class OffHeapTranspositionTable.
+	 *
+	 * @param megabytes La taille de la table en mégaoctets, arrondie à la puissance de deux inférieure.
+	 * @param preTouch  true pour remettre à zéro toutes les pages en parallèle dès la création, pour que
+	 *                  le premier coup ne paie pas les défauts de page.
+	 */
+	public OffHeapTranspositionTable(long megabytes, boolean preTouch) {
+		if (megabytes <= 0) {
+			throw new IllegalArgumentException("La taille de la table de transposition doit être positive.");
+		}
+		long buckets = Long.highestOneBit((megabytes << 20) / BUCKET_BYTES);
+		long bytes = buckets * BUCKET_BYTES;
+		int chunkCount = (int) ((bytes + (1L << CHUNK_SHIFT) - 1) >>> CHUNK_SHIFT);
+		this.chunks = new ByteBuffer[chunkCount];
+		for (int i = 0; i < chunkCount; i++) {
+			int size = (int) Math.min(1L << CHUNK_SHIFT, bytes - ((long) i << CHUNK_SHIFT));
+			chunks[i] = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+		}
+		this.bucketMask = buckets - 1;
+		this.bucketsPerChunkShift = CHUNK_SHIFT - BUCKET_SHIFT;
+		if (preTouch) {
+			clear();
+		}
+	}
+
+	/**
+	 * Crée la table de transposition décrite par les propriétés système tron.tt.mb et tron.tt.pretouch.
+	 *
+	 * @return La table, ou null si aucune taille n'est donnée.
+	 */
+	public static OffHeapTranspositionTable fromSystemProperties() {
+		long megabytes = Long.getLong(SIZE_PROPERTY, 0L);
+		if (megabytes <= 0) {
+			return null;
+		}
+		return new OffHeapTranspositionTable(megabytes, Boolean.getBoolean(PRETOUCH_PROPERTY));
+	}
+
+	@Override
+	public long probe(long key) {
+		long bucket = key & bucketMask;
+		ByteBuffer chunk = chunks[(int) (bucket >>> bucketsPerChunkShift)];
+		int offset = (int) (bucket << BUCKET_SHIFT) & ((1 << CHUNK_SHIFT) - 1);
+		for (int slot = 0; slot < 2; slot++) {
+			int entry = offset + slot * ENTRY_BYTES;
+			long check = (long) LONGS.getOpaque(chunk, entry);
+			long data = (long) LONGS.getOpaque(chunk, entry + 8);
+			if (data != 0 && (check ^ data) == key) {
+				return data;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public void store(long key, long data) {
+		if (data == 0) {
+			return;
+		}
+		long bucket = key & bucketMask;
+		ByteBuffer chunk = chunks[(int) (bucket >>> bucketsPerChunkShift)];
+		int offset = (int) (bucket << BUCKET_SHIFT) & ((1 << CHUNK_SHIFT) - 1);
+
+		// Première entrée : même position, entrée vide ou recherche moins profonde ; sinon la seconde
+		long check = (long) LONGS.getOpaque(chunk, offset);
+		long current = (long) LONGS.getOpaque(chunk, offset + 8);
+		int entry = current == 0 || (check ^ current) == key
+				|| TranspositionTable.depthOf(current) <= TranspositionTable.depthOf(data) ? offset : offset + ENTRY_BYTES;
+
+		LONGS.setOpaque(chunk, entry, key ^ data);
+		LONGS.setOpaque(chunk, entry + 8, data);
+	}
+
+	@Override
+	public void clear() {
+		long bytes = capacity() / 2 * BUCKET_BYTES;
+		int blocks = (int) ((bytes + TOUCH_BLOCK - 1) / TOUCH_BLOCK);
+		IntStream.range(0, blocks).parallel().forEach(block -> {
+			long start = (long) block * TOUCH_BLOCK;
+			ByteBuffer chunk = chunks[(int) (start >>> CHUNK_SHIFT)].duplicate();
+			int offset = (int) (start & ((1L << CHUNK_SHIFT) - 1));
+			int end = (int) Math.min(chunk.capacity(), (long) offset + TOUCH_BLOCK);
+			for (int position = offset; position < end; position += ZEROS.length) {
+				chunk.position(position);
+				chunk.put(ZEROS, 0, Math.min(ZEROS.length, end - position));
+			}
+		});
+	}
+
+	@Override
+	public long capacity() {
+		return (bucketMask + 1) * 2;
+	}
+
+	/**
+	 * Estime le taux de remplissage de la table sur ses premières cases.
+	 *
+	 * @return Le nombre d'entrées occupées pour mille.
+	 */
+	public int usagePermill() {
+		int sample = (int) Math.min(500, bucketMask + 1);
+		int used = 0;
+		for (int bucket = 0; bucket < sample; bucket++) {
+			for (int slot = 0; slot < 2; slot++) {
+				if ((long) LONGS.getOpaque(chunks[0], bucket * BUCKET_BYTES + slot * ENTRY_BYTES + 8) != 0) {
+					used++;
+				}
+			}
+		}
+		return used * 1000 / (2 * sample);
+	}
+}
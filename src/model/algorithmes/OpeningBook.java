@@ -0,0 +1,197 @@
+package model.algorithmes;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import model.jeu.*;
+
+/**
+ * La class OpeningBook est une bibliothèque d'ouvertures précalculée pour une taille de grille et un
+ * nombre de joueurs. Le fichier est projeté en mémoire : la recherche d'une position est une recherche
+ * dichotomique dans le fichier, sans rien charger dans le tas.
+ *
+ * Format du fichier (gros-boutiste) : un en-tête de HEADER_BYTES octets (signature, version, lignes,
+ * colonnes, joueurs, profondeur de recherche, nombre d'entrées), puis les entrées triées par clé non
+ * signée, chacune formée de la clé canonique de la position (8 octets) et du coup dans le repère
+ * canonique (1 octet, indice dans MoveOrdering.ACTIONS).
+ */
+public class OpeningBook {
+
+	/** Propriété système donnant le chemin du fichier de la bibliothèque d'ouvertures. */
+	public static final String FILE_PROPERTY = "tron.book";
+
+	/** Signature du fichier. */
+	public static final int MAGIC = 0x5452424B; // "TRBK"
+	/** Version du format. */
+	public static final int VERSION = 1;
+	/** Taille de l'en-tête en octets. */
+	public static final int HEADER_BYTES = 32;
+	/** Taille d'une entrée en octets. */
+	public static final int ENTRY_BYTES = 9;
+
+	private final MappedByteBuffer entries;
+	private final int rows;
+	private final int cols;
+	private final int numPlayers;
+	private final int depth;
+	private final long count;
+
+	/**
+	 * Constructeur de la class OpeningBook : projette le fichier en mémoire et vérifie son en-tête.
+	 *
+	 * @param file Le fichier de la bibliothèque.
+	 * @throws IOException si le fichier ne peut pas être lu ou n'est pas une bibliothèque d'ouvertures.
+	 */
+	public OpeningBook(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				// Un MappedByteBuffer est limité à 2 Go
+				throw new IOException("Fichier de bibliothèque d'ouvertures de plus de 2 Go : " + file);
+			}
+			this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (entries.capacity() < HEADER_BYTES || entries.getInt(0) != MAGIC || entries.getInt(4) != VERSION) {
+			throw new IOException("Fichier de bibliothèque d'ouvertures invalide : " + file);
+		}
+		this.rows = entries.getInt(8);
+		this.cols = entries.getInt(12);
+		this.numPlayers = entries.getInt(16);
+		this.depth = entries.getInt(20);
+		this.count = entries.getLong(24);
+		if (HEADER_BYTES + count * ENTRY_BYTES != entries.capacity()) {
+			throw new IOException("Fichier de bibliothèque d'ouvertures tronqué : " + file);
+		}
+	}
+
+	/**
+	 * Ouvre la bibliothèque d'ouvertures donnée par la propriété système tron.book.
+	 *
+	 * @return La bibliothèque, ou null si la propriété n'est pas donnée ou que le fichier est illisible,
+	 *         invalide ou trop grand pour être projeté.
+	 */
+	public static OpeningBook fromSystemProperty() {
+		String file = System.getProperty(FILE_PROPERTY);
+		if (file == null || file.isEmpty()) {
+			return null;
+		}
+		try {
+			return new OpeningBook(Path.of(file));
+		} catch (IOException | IllegalArgumentException e) {
+			System.out.println("Bibliothèque d'ouvertures ignorée : " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Calcule la clé d'une position de la bibliothèque : la clé canonique sous les symétries de la grille,
+	 * sans dépendre du dernier joueur qui a joué.
+	 *
+	 * @param state     L'état du jeu.
+	 * @param toMove    Le joueur qui doit jouer.
+	 * @param transform Un tableau d'une case où écrire la symétrie menant à la position canonique.
+	 * @return          La clé de la position.
+	 */
+	public static long positionKey(StateGame state, Player toMove, int[] transform) {
+		Player[][] grid = state.getGrid();
+		StateGame position = new StateGame(grid, state.getPlayerPosition(), null);
+		ZobristHash zobrist = ZobristHash.of(grid.length * grid[0].length, state.getPlayerPosition().size());
+		return BoardSymmetry.of(grid.length, grid[0].length).canonicalHash(zobrist, position, toMove, 0, transform, 0);
+	}
+
+	/**
+	 * Cherche le coup de la bibliothèque pour une position. Une bibliothèque calculée moins profondément
+	 * que la recherche demandée n'est pas consultée : son coup serait moins bon que celui de la recherche.
+	 *
+	 * @param state    L'état du jeu.
+	 * @param toMove   Le joueur qui doit jouer.
+	 * @param minDepth La profondeur de la recherche que le coup de la bibliothèque remplacerait.
+	 * @return         Le coup à jouer, ou null si la position n'est pas dans la bibliothèque ou que la
+	 *                 bibliothèque est moins profonde que minDepth.
+	 */
+	public String lookup(StateGame state, Player toMove, int minDepth) {
+		Player[][] grid = state.getGrid();
+		if (depth < minDepth || grid.length != rows || grid[0].length != cols || state.getPlayerPosition().size() != numPlayers) {
+			return null;
+		}
+		int[] transform = new int[1];
+		long key = positionKey(state, toMove, transform);
+
+		long low = 0;
+		long high = count - 1;
+		while (low <= high) {
+			long middle = (low + high) >>> 1;
+			int offset = (int) (HEADER_BYTES + middle * ENTRY_BYTES);
+			int comparison = Long.compareUnsigned(entries.getLong(offset), key);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				// Le coup est stocké dans le repère canonique : on le ramène dans celui de la position
+				int move = entries.get(offset + 8);
+				return MoveOrdering.ACTIONS[BoardSymmetry.mapDirection(BoardSymmetry.inverse(transform[0]), move)];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Écrit une bibliothèque d'ouvertures.
+	 *
+	 * @param out        Le flux de sortie.
+	 * @param rows       Le nombre de lignes de la grille.
+	 * @param cols       Le nombre de colonnes de la grille.
+	 * @param numPlayers Le nombre de joueurs.
+	 * @param depth      La profondeur de recherche utilisée pour calculer les coups.
+	 * @param book       Les coups (indices dans MoveOrdering.ACTIONS, repère canonique) par clé canonique.
+	 * @throws IOException si l'écriture échoue.
+	 */
+	public static void write(DataOutputStream out, int rows, int cols, int numPlayers, int depth, Map<Long, Integer> book)
+			throws IOException {
+		long[] keys = new long[book.size()];
+		int i = 0;
+		for (long key : book.keySet()) {
+			keys[i++] = key;
+		}
+		// Tri non signé : on décale le bit de signe pour trier avec l'ordre signé
+		for (int k = 0; k < keys.length; k++) {
+			keys[k] ^= Long.MIN_VALUE;
+		}
+		Arrays.sort(keys);
+		for (int k = 0; k < keys.length; k++) {
+			keys[k] ^= Long.MIN_VALUE;
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(numPlayers).putInt(depth).putLong(keys.length);
+		out.write(header.array());
+		for (long key : keys) {
+			out.writeLong(key);
+			out.writeByte(book.get(key));
+		}
+	}
+
+	/**
+	 * Obtient le nombre de positions de la bibliothèque.
+	 *
+	 * @return Le nombre d'entrées.
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * Obtient la profondeur de recherche avec laquelle la bibliothèque a été calculée.
+	 *
+	 * @return La profondeur.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+}
@@ -30,53 +30,67 @@ public class ParanoidAlgorithm extends AbstractAlgorithmeSearch{
      * @param voronoi       objet de la class Voronoi qui permet de calculer la région de chauqe joueur.
      * @param depth         La profondeur de la recherche.
      * @param currentPlayer Le joueur actuel pour lequel l'algorithme est appliqué.
-     * @return              Un tableau d'entiers représentant les scores pour chaque joueur.
+     * @return              Un tableau d'entiers représentant les scores pour chaque joueur, dans le tampon réutilisé de cette profondeur.
      */
     @Override
     public int[] algorithmeSearch(StateGame state, Action action,Voronoi voronoi ,int depth, Player currentPlayer ) {
         
+        enterNode();
+
+        // Position déjà évaluée à une profondeur suffisante : sa valeur est dans la table de transposition
+        long key = transpositionKey(state, currentPlayer, depth);
+        long entry = probeTransposition(key);
+        int[] cached = transpositionValues(entry, depth, state.getPlayerPosition().size());
+        if (cached != null) {
+            return cached;
+        }
+
         // Etat terminal ou profondeur atteinte : retourne l'évaluation de l'état
         if (isTerminal(state) || depth == 0) {
             voronoi.assignVoronoiRegions(state);
-            return evaluation.evaluate(state);
+            int[] leafValue = scoreBuffers.get(depth, state.getPlayerPosition().size());
+            evaluation.evaluate(state, leafValue);
+            storeTransposition(key, applyIsolatedValues(leafValue), depth, null, -1);
+            return leafValue;
         }
 
         Map<Player, Point> playerPositions = state.getPlayerPosition();
         List<String> possibleActions = action.actionsPossible(state, currentPlayer);
         int numPlayers = playerPositions.size();
-        int[] bestValuesMaxPlayer = new int[numPlayers];
-        int[] bestValuesMinPlayer = new int[numPlayers];
+        boolean maxPlayer = currentPlayer.equals(state.getCurrentPlayer());
 
-        Arrays.fill(bestValuesMaxPlayer, Integer.MIN_VALUE);
-        Arrays.fill(bestValuesMinPlayer, Integer.MAX_VALUE);
+        // On maximise quand c'est le joueur max et on minimise quand c'est le joueur adversaire
+        int[] bestValues = scoreBuffers.get(depth, numPlayers);
+        Arrays.fill(bestValues, maxPlayer ? Integer.MIN_VALUE : Integer.MAX_VALUE);
+        int bestIndex = -1;
+        orderActions(state, currentPlayer, possibleActions, depth, transpositionMove(entry, depth));
 
         //Parcours des actions possibles
-        for (String possibleAction : possibleActions) {
+        for (int a = 0; a < possibleActions.size(); a++) {
+            String possibleAction = possibleActions.get(a);
             StateGame nextState = state.copy();
 
             //Applique l'action
             nextState = action.applyAction(nextState, possibleAction, currentPlayer);
 
-            int[] value = algorithmeSearch(nextState, action,voronoi ,depth - 1, nextPlayer(nextState, currentPlayer));
+            int[] value = algorithmeSearch(nextState, action,voronoi ,depth - 1, nextSearchPlayer(nextState, currentPlayer));
             
             // Mise à jour des meilleures valeurs si nécessaire
-            if (currentPlayer.equals(state.getCurrentPlayer())) {
-                if (bestValuesMaxPlayer[currentPlayer.getId()] < value[currentPlayer.getId()]) {
-                    bestValuesMaxPlayer = Arrays.copyOf(value, value.length);
+            if (maxPlayer) {
+                if (bestValues[currentPlayer.getId()] < value[currentPlayer.getId()]) {
+                    System.arraycopy(value, 0, bestValues, 0, numPlayers);
+                    bestIndex = a;
                 }
             } else {
-                if (bestValuesMinPlayer[currentPlayer.getId()] > value[currentPlayer.getId()]) {
-                    bestValuesMinPlayer = Arrays.copyOf(value, value.length);
+                if (bestValues[currentPlayer.getId()] > value[currentPlayer.getId()]) {
+                    System.arraycopy(value, 0, bestValues, 0, numPlayers);
+                    bestIndex = a;
                 }
             }
         }
-
-        // On maximise quand c'est le joueur max et on minimise quand c'est le joueur adversaire
-        if (currentPlayer.equals(state.getCurrentPlayer())) {
-            return bestValuesMaxPlayer;
-        }else{
-            return bestValuesMinPlayer;
-        }
+        recordBestAction(state, currentPlayer, possibleActions, bestIndex, depth);
+        storeTransposition(key, bestValues, depth, possibleActions, bestIndex);
+        return bestValues;
 
     }
     
@@ -1,6 +1,7 @@
 package model.algorithmes;
 
 import java.awt.Point;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -12,6 +13,14 @@ import model.evaluation.*;
  * Elle hérite de la class AbstractAlgorithmeSearch.
  */
 public class SOSAlgorithm extends AbstractAlgorithmeSearch{
+
+	private SocialOrientation socialOrientation; // Orientation sociale compilée pour la partie en cours
+	private Map<Player, Set<Player>> compiledTeams; // Équipes à partir desquelles elle a été compilée
+	private boolean fixedOrientation; // Orientation fournie explicitement, à ne pas recompiler
+	private TeamVoronoi teamVoronoi; // Voronoi par équipe en un seul parcours, null si désactivé
+	private int[] teamOf; // Équipe de chaque joueur pour le Voronoi par équipe
+	private int[] territory; // Territoire de chaque équipe, réutilisé d'une feuille à l'autre
+	private int[] teamAdjustment; // Valeurs des coéquipiers isolés moins le nombre de coéquipiers morts
 	
 	/**
      * Constructeur de la classe SOSAlgorithm.
@@ -23,57 +32,94 @@ public class SOSAlgorithm extends AbstractAlgorithmeSearch{
 	}
 	
 	/**
-     * Génère une matrice de relation entre les joueurs basée sur leurs liens (soit dans la meme equipe ou pas).
-     * @param players Un dictionaire associant chaque joueur à un ensemble de joueurs qui sont dans son equipes.
-     * @return La matrice des liens entre les joueurs.
+     * Fixe une orientation sociale pondérée à utiliser à la place de celle déduite des équipes.
+     * @param socialOrientation L'orientation sociale compilée, ou null pour la déduire des équipes de l'état.
      */
-	public int[][] generateSocialRangeMatrix(Map<Player, Set<Player>> players) {
-	    int numPlayers = players.size();
-	    int[][] matrix = new int[numPlayers][numPlayers];
-	        
-	    // Parcourir tous les joueurs et leurs liens sociaux
-	    for (Player player1 : players.keySet()) {
-	        for (Player player2 : players.keySet()) {
-	            if (players.get(player1).contains(player2)) {
-	                matrix[player1.getId()][player2.getId()] = 1; 
-	            } else {
-	                matrix[player1.getId()][player2.getId()] = 0; 
-	            }
-	        }
-	    }   
-	    return matrix;
+	public void setSocialOrientation(SocialOrientation socialOrientation) {
+		this.socialOrientation = socialOrientation;
+		this.compiledTeams = null;
+		this.fixedOrientation = socialOrientation != null;
+	}
+
+	/**
+     * Active ou désactive l'évaluation des feuilles par le Voronoi par équipe : les coéquipiers partagent
+     * leur territoire et la valeur d'équipe est obtenue en un seul parcours, sans passer par l'évaluation
+     * par joueur ni par la matrice d'orientation sociale. Comme dans l'évaluation par joueur, un coéquipier
+     * mort ne rapporte pas de territoire et retire un point, et un coéquipier isolé compte pour sa valeur
+     * de remplissage.
+     * @param enabled true pour utiliser le Voronoi par équipe.
+     */
+	public void setTeamVoronoi(boolean enabled) {
+		this.teamVoronoi = enabled ? new TeamVoronoi() : null;
 	}
-	   
-	 /**
-     * Effectue la multiplication d'une matrice par un vecteur.
-     * @param matrix La matrice à multiplier.
-     * @param vector Le vecteur à multiplier.
-     * @return Le résultat de la multiplication.
-     */  	
-	int[] multiplierMatrice(int[][] matrix, int[] vector) {
-		if(matrix.length == 0){
-			System.out.println("matrice vide");
-		}
-		int m = matrix.length;
-		int n = matrix[0].length;
-		if (n != vector.length) {
-			System.out.println("La taille de la matrice et du vecteur n'est pas compatible pour une multiplication.");
-			return null;
-		}
 
-		int[] result = new int[m];
+	/**
+     * Sale aussi les clés par l'orientation sociale et le mode d'évaluation des feuilles, qui changent
+     * la valeur d'une même position.
+     * @param state L'état du jeu.
+     * @return Le sel à combiner avec la clé de la position.
+     */
+	@Override
+	protected long transpositionSalt(StateGame state) {
+		return super.transpositionSalt(state) ^ getSocialOrientation(state).getFingerprint() * 0xFF51AFD7ED558CCDL
+				^ (teamVoronoi != null ? 0x4CF5AD432745937FL : 0);
+	}
 
-		for (int i = 0; i < m; i++) {
-			int sum = 0;
-			for (int j = 0; j < n; j++) {
-				sum += matrix[i][j] * vector[j];
+	/**
+     * Évalue une feuille avec le Voronoi par équipe.
+     * @param state L'état de la feuille.
+     * @param values Le vecteur à remplir avec la valeur d'équipe de chaque joueur.
+     * @return Le vecteur values.
+     */
+	private int[] evaluateTeams(StateGame state, int[] values) {
+		SocialOrientation social = getSocialOrientation(state);
+		int numPlayers = social.getNumPlayers();
+		int teamCount = social.getTeamCount();
+		if (teamOf == null || teamOf.length != numPlayers) {
+			this.teamOf = new int[numPlayers];
+		}
+		if (territory == null || territory.length != teamCount) {
+			this.territory = new int[teamCount];
+			this.teamAdjustment = new int[teamCount];
+		}
+		Arrays.fill(teamAdjustment, 0);
+		long alive = social.aliveMask();
+		for (int i = 0; i < numPlayers; i++) {
+			int team = social.getTeamOf(i);
+			if (i < 64 && (isolatedMask & (1L << i)) != 0) {
+				// Adversaire isolé : sa poche est comptée par sa valeur de remplissage, pas par le parcours
+				teamOf[i] = -1;
+				teamAdjustment[team] += isolatedFill[i];
+			} else {
+				teamOf[i] = team;
+				if ((alive & (1L << i)) == 0) {
+					teamAdjustment[team]--; // Chaque coéquipier mort compte -1, comme dans l'évaluation par joueur
+				}
 			}
-			result[i] = sum;
 		}
+		teamVoronoi.teamRegionSizes(state, teamOf, territory);
 
-		return result;
+		for (int i = 0; i < numPlayers && i < values.length; i++) {
+			int team = social.getTeamOf(i);
+			values[i] = territory[team] + teamAdjustment[team];
+		}
+		return values;
+	}
+
+	/**
+     * Retourne l'orientation sociale compilée pour les équipes de l'état, en ne la recompilant que
+     * lorsque la répartition en équipes change.
+     * @param state L'état actuel du jeu.
+     * @return L'orientation sociale compilée.
+     */
+	public SocialOrientation getSocialOrientation(StateGame state) {
+		if (!fixedOrientation && (socialOrientation == null || compiledTeams != state.getTeamPlayers())) {
+			this.compiledTeams = state.getTeamPlayers();
+			this.socialOrientation = SocialOrientation.compile(compiledTeams);
+		}
+		return socialOrientation;
 	}
-    
+
 	/**
      * Méthode principale de l'algorithme de recherche SOS.
      * @param state 		L'état actuel du jeu.
@@ -81,23 +127,46 @@ public class SOSAlgorithm extends AbstractAlgorithmeSearch{
      * @param voronoi       objet de la class Voronoi qui permet de calculer la région de chauqe joueur.
      * @param depth			La profondeur de recherche.
      * @param currentPlayer Le joueur courant.
-     * @return 				Le tableau qui contient le meilleure score pour le joueur courrant
+     * @return 				Le tableau qui contient le meilleure score pour le joueur courrant, dans le tampon réutilisé de cette profondeur
      */
 	@Override
 	public int[] algorithmeSearch(StateGame state , Action action, Voronoi voronoi, int depth , Player currentPlayer) {
+		enterNode();
+
+		// Position déjà évaluée à une profondeur suffisante : sa valeur est dans la table de transposition
+		long key = transpositionKey(state, currentPlayer, depth);
+		long entry = probeTransposition(key);
+		int[] cached = transpositionValues(entry, depth, state.getPlayerPosition().size());
+		if (cached != null) {
+			return cached;
+		}
+
 	    // Etat terminal ou profondeur atteinte : retourne l'évaluation de l'état actuel
 		if (isTerminalSos(state) || depth == 0) {
-			voronoi.assignVoronoiRegions(state);
-			return this.multiplierMatrice(this.generateSocialRangeMatrix(state.getTeamPlayers()),evaluation.evaluate(state));
+			int[] leafValue = scoreBuffers.get(depth, state.getPlayerPosition().size());
+			if (teamVoronoi != null) {
+				evaluateTeams(state, leafValue);
+			} else {
+				voronoi.assignVoronoiRegions(state);
+				evaluation.evaluate(state, leafValue);
+				getSocialOrientation(state).transformInPlace(applyIsolatedValues(leafValue));
+			}
+			storeTransposition(key, leafValue, depth, null, -1);
+			return leafValue;
 		}
 
 		Map<Player, Point> playerPositions = state.getPlayerPosition();
 		List<String> possibleActions = action.actionsPossible(state, currentPlayer);
 		int numPlayers = playerPositions.size();
-		int[] bestValue = new int[numPlayers];
+		int[] bestValue = scoreBuffers.get(depth, numPlayers);
+		Arrays.fill(bestValue, 0);
+		int bestIndex = -1;
+		int orderingIndex = -1; // Premier des meilleurs coups : c'est lui que l'ordonnancement doit retenir
+		orderActions(state, currentPlayer, possibleActions, depth, transpositionMove(entry, depth));
 
 		//Parcours des actions possibles
-		for (String possibleAction : possibleActions) {
+		for (int a = 0; a < possibleActions.size(); a++) {
+			String possibleAction = possibleActions.get(a);
 			StateGame nextState = state.copy();
 
 			//Applique l'action 
@@ -105,16 +174,20 @@ public class SOSAlgorithm extends AbstractAlgorithmeSearch{
 			nextState.setTeamPlayers(state.getTeamPlayers());
 			
 			// Appel récursif pour évaluer l'état suivant
-			int[] value = algorithmeSearch(nextState, action , voronoi,depth - 1, nextPlayer(nextState, currentPlayer));
+			int[] value = algorithmeSearch(nextState, action , voronoi,depth - 1, nextSearchPlayer(nextState, currentPlayer));
 
 			// Mise à jour des meilleures valeurs si nécessaire
 			if (bestValue[currentPlayer.getId()] <= value[currentPlayer.getId()]) {
-				for (int i = 0; i < numPlayers; i++) {
-					bestValue[i] = value[i];
+				if (orderingIndex < 0 || bestValue[currentPlayer.getId()] < value[currentPlayer.getId()]) {
+					orderingIndex = a;
 				}
+				System.arraycopy(value, 0, bestValue, 0, numPlayers);
+				bestIndex = a;
 			}
 
 		}
+		recordBestAction(state, currentPlayer, possibleActions, orderingIndex, depth);
+		storeTransposition(key, bestValue, depth, possibleActions, bestIndex);
 		return bestValue;
 	}
 
@@ -124,22 +197,7 @@ public class SOSAlgorithm extends AbstractAlgorithmeSearch{
      * @return True si l'état est terminal, False sinon.
      */
 	public boolean isTerminalSos(StateGame state) {
-		Map<Player, Set<Player>> players = state.getTeamPlayers();
-		
-		for (Set<Player> team : players.values()) {
-			boolean allPlayersDead = true;
-			for (Player player : team) {
-				if (player.getIsAlive()) {
-					allPlayersDead = false;
-					break; 
-				}
-			}
-			if (allPlayersDead) {
-				return true;
-			}
-		}
-		
-		return false;
+		return getSocialOrientation(state).isTerminal();
 	}
 			
 }
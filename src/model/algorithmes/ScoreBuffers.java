@@ -0,0 +1,48 @@
+package model.algorithmes;
+
+/**
+ * La class ScoreBuffers fournit les vecteurs de scores préalloués d'une recherche : un vecteur par
+ * profondeur restante. Un noeud écrit son résultat dans le vecteur de sa profondeur, son parent le
+ * recopie dans le sien ; aucun vecteur n'est alloué pendant la récursion une fois les tampons dimensionnés.
+ * Une instance n'est utilisée que par un seul thread, comme l'algorithme qui la possède.
+ */
+public class ScoreBuffers {
+
+	private int[][] buffers = new int[0][0]; // buffers[profondeur] : vecteur de scores
+	private int numPlayers;
+
+	/**
+	 * Retourne le vecteur de scores associé à une profondeur, en agrandissant les tampons si nécessaire.
+	 *
+	 * @param depth      La profondeur restante du noeud.
+	 * @param numPlayers Le nombre de joueurs.
+	 * @return           Le vecteur de scores de cette profondeur (contenu non initialisé).
+	 */
+	public int[] get(int depth, int numPlayers) {
+		if (depth >= buffers.length || numPlayers != this.numPlayers) {
+			ensureCapacity(depth, numPlayers);
+		}
+		return buffers[depth];
+	}
+
+	/**
+	 * Dimensionne les tampons pour une profondeur maximale et un nombre de joueurs.
+	 *
+	 * @param maxDepth   La profondeur maximale.
+	 * @param numPlayers Le nombre de joueurs.
+	 */
+	public void ensureCapacity(int maxDepth, int numPlayers) {
+		if (numPlayers != this.numPlayers) {
+			this.buffers = new int[0][0];
+			this.numPlayers = numPlayers;
+		}
+		if (maxDepth >= buffers.length) {
+			int[][] newBuffers = new int[maxDepth + 1][];
+			System.arraycopy(buffers, 0, newBuffers, 0, buffers.length);
+			for (int i = buffers.length; i <= maxDepth; i++) {
+				newBuffers[i] = new int[numPlayers];
+			}
+			this.buffers = newBuffers;
+		}
+	}
+}
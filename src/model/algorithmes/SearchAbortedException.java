@@ -0,0 +1,17 @@
+package model.algorithmes;
+
+/**
+ * Exception levée à l'intérieur d'un algorithme de recherche pour remonter jusqu'à la racine quand la
+ * recherche est interrompue ou que son échéance est dépassée.
+ */
+public class SearchAbortedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructeur de la class SearchAbortedException.
+	 */
+	public SearchAbortedException() {
+		super("Recherche interrompue", null, false, false);
+	}
+}
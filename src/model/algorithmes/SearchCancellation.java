@@ -0,0 +1,63 @@
+package model.algorithmes;
+
+/**
+ * La class SearchCancellation permet d'interrompre une recherche en cours depuis un autre thread, soit
+ * à la demande, soit à l'expiration d'une échéance. Les algorithmes la consultent régulièrement, tous
+ * les quelques noeuds.
+ */
+public class SearchCancellation {
+
+	private volatile boolean cancelled; // Interruption demandée
+	private volatile long deadlineNanos; // Échéance en temps System.nanoTime()
+	private volatile boolean hasDeadline; // Indique si une échéance est fixée
+
+	/**
+	 * Demande l'interruption des recherches qui utilisent ce jeton.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	/**
+	 * Retire la demande d'interruption et l'échéance, pour réutiliser le jeton.
+	 */
+	public void reset() {
+		this.cancelled = false;
+		this.hasDeadline = false;
+	}
+
+	/**
+	 * Fixe une échéance après laquelle les recherches s'arrêtent d'elles-mêmes.
+	 *
+	 * @param millis Le temps accordé à partir de maintenant, en millisecondes.
+	 */
+	public void setDeadline(long millis) {
+		this.deadlineNanos = System.nanoTime() + millis * 1_000_000L;
+		this.hasDeadline = true;
+	}
+
+	/**
+	 * Retire l'échéance.
+	 */
+	public void clearDeadline() {
+		this.hasDeadline = false;
+	}
+
+	/**
+	 * Vérifie si l'interruption a été demandée.
+	 *
+	 * @return true si cancel a été appelé depuis le dernier reset, sinon false.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Vérifie si une recherche doit s'arrêter : interruption demandée ou échéance dépassée.
+	 *
+	 * @return true si la recherche doit s'arrêter, sinon false.
+	 */
+	public boolean shouldStop() {
+		return cancelled || (hasDeadline && System.nanoTime() - deadlineNanos >= 0);
+	}
+}
@@ -0,0 +1,194 @@
+package model.algorithmes;
+
+import java.util.Map;
+import java.util.Set;
+import model.jeu.*;
+
+/**
+ * La class SocialOrientation est la forme compilée de la matrice d'orientation sociale utilisée par SOS.
+ * Elle est construite une fois par partie : la matrice est stockée à plat dans un tableau d'entiers
+ * (les poids peuvent être quelconques, pas seulement 0 ou 1), la transformation des scores se fait sur
+ * place sans allocation, et chaque équipe, donnée à part des poids, est représentée par un masque de
+ * bits de ses joueurs.
+ */
+public class SocialOrientation {
+
+	private final int numPlayers;
+	private final int[] weights; // weights[i * numPlayers + j] : poids du score du joueur j pour le joueur i
+	private final Player[] players; // Joueurs indexés par identifiant
+	private final long[] teamMasks; // Masque des joueurs de chaque équipe
+	private final int[] teamOf; // Équipe de chaque joueur
+	private final int[] scratch; // Copie des scores pendant la transformation
+	private final long fingerprint; // Empreinte des poids, pour distinguer deux orientations
+
+	/**
+	 * Constructeur de la class SocialOrientation à partir d'une matrice de poids et d'une répartition en
+	 * équipes. Les équipes sont données à part : un poids non nul ne fait pas d'un joueur un coéquipier
+	 * (une orientation pondérée peut tenir compte, un peu, du score d'un adversaire), et un poids nul
+	 * n'exclut pas un coéquipier.
+	 *
+	 * @param matrix      La matrice d'orientation sociale : matrix[i][j] est le poids du score de j pour i,
+	 *                    indexée par identifiant de joueur.
+	 * @param teamPlayers Map associant chaque joueur à l'ensemble des joueurs de son équipe (lui compris).
+	 */
+	public SocialOrientation(int[][] matrix, Map<Player, Set<Player>> teamPlayers) {
+		this.numPlayers = teamPlayers.size();
+		if (numPlayers > 64) {
+			throw new IllegalArgumentException("SocialOrientation est limitée à 64 joueurs.");
+		}
+		this.players = new Player[numPlayers];
+		for (Player player : teamPlayers.keySet()) {
+			players[player.getId()] = player;
+		}
+		this.weights = new int[numPlayers * numPlayers];
+		this.scratch = new int[numPlayers];
+		this.teamOf = new int[numPlayers];
+		for (int i = 0; i < numPlayers; i++) {
+			for (int j = 0; j < numPlayers; j++) {
+				weights[i * numPlayers + j] = matrix[i][j];
+			}
+		}
+
+		// Les joueurs qui ont le même ensemble de coéquipiers forment une équipe
+		long[] masks = new long[numPlayers];
+		int teams = 0;
+		for (int i = 0; i < numPlayers; i++) {
+			long mask = 1L << i;
+			for (Player teammate : teamPlayers.get(players[i])) {
+				mask |= 1L << teammate.getId();
+			}
+			int team = 0;
+			while (team < teams && masks[team] != mask) {
+				team++;
+			}
+			if (team == teams) {
+				masks[teams++] = mask;
+			}
+			teamOf[i] = team;
+		}
+		this.teamMasks = new long[teams];
+		System.arraycopy(masks, 0, teamMasks, 0, teams);
+
+		long hash = numPlayers;
+		for (int weight : weights) {
+			hash = hash * 0x100000001B3L ^ weight;
+		}
+		for (long mask : teamMasks) {
+			hash = hash * 0x100000001B3L ^ mask;
+		}
+		this.fingerprint = hash;
+	}
+
+	/**
+	 * Compile la matrice d'orientation sociale 0/1 d'une répartition en équipes.
+	 *
+	 * @param teamPlayers Map associant chaque joueur à l'ensemble des joueurs de son équipe (lui compris).
+	 * @return            L'orientation sociale compilée.
+	 */
+	public static SocialOrientation compile(Map<Player, Set<Player>> teamPlayers) {
+		int numPlayers = teamPlayers.size();
+		int[][] matrix = new int[numPlayers][numPlayers];
+		for (Map.Entry<Player, Set<Player>> entry : teamPlayers.entrySet()) {
+			for (Player teammate : entry.getValue()) {
+				matrix[entry.getKey().getId()][teammate.getId()] = 1;
+			}
+		}
+		return new SocialOrientation(matrix, teamPlayers);
+	}
+
+	/**
+	 * Remplace sur place le vecteur de scores par son produit avec la matrice d'orientation sociale.
+	 *
+	 * @param scores Le vecteur de scores indexé par identifiant de joueur.
+	 */
+	public void transformInPlace(int[] scores) {
+		int n = Math.min(numPlayers, scores.length);
+		System.arraycopy(scores, 0, scratch, 0, n);
+		for (int i = 0; i < n; i++) {
+			int sum = 0;
+			int row = i * numPlayers;
+			for (int j = 0; j < n; j++) {
+				sum += weights[row + j] * scratch[j];
+			}
+			scores[i] = sum;
+		}
+	}
+
+	/**
+	 * Calcule le masque des joueurs encore en vie.
+	 *
+	 * @return Le masque de bits des identifiants des joueurs vivants.
+	 */
+	public long aliveMask() {
+		long mask = 0;
+		for (int i = 0; i < numPlayers; i++) {
+			if (players[i].getIsAlive()) {
+				mask |= 1L << i;
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Vérifie si une équipe a perdu tous ses joueurs.
+	 *
+	 * @return true si au moins une équipe n'a plus de joueur vivant, sinon false.
+	 */
+	public boolean isTerminal() {
+		long alive = aliveMask();
+		for (long team : teamMasks) {
+			if ((alive & team) == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Obtient l'empreinte des poids et des équipes : deux orientations de même empreinte transforment les
+	 * scores et reconnaissent les fins de partie de la même façon, à une collision près.
+	 *
+	 * @return L'empreinte de la matrice d'orientation sociale.
+	 */
+	public long getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Obtient le nombre de joueurs couverts par l'orientation sociale.
+	 *
+	 * @return Le nombre de joueurs.
+	 */
+	public int getNumPlayers() {
+		return numPlayers;
+	}
+
+	/**
+	 * Obtient le nombre d'équipes distinctes.
+	 *
+	 * @return Le nombre d'équipes.
+	 */
+	public int getTeamCount() {
+		return teamMasks.length;
+	}
+
+	/**
+	 * Obtient l'équipe d'un joueur.
+	 *
+	 * @param playerId L'identifiant du joueur.
+	 * @return         L'indice de son équipe.
+	 */
+	public int getTeamOf(int playerId) {
+		return teamOf[playerId];
+	}
+
+	/**
+	 * Obtient le masque des joueurs d'une équipe.
+	 *
+	 * @param team L'indice de l'équipe.
+	 * @return     Le masque de bits des identifiants de ses joueurs.
+	 */
+	public long getTeamMask(int team) {
+		return teamMasks[team];
+	}
+}
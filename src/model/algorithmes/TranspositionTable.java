@@ -0,0 +1,106 @@
+package model.algorithmes;
+
+/**
+ * Interface d'une table de transposition partagée par les algorithmes de recherche. Une entrée est un
+ * mot de 64 bits : les scores de quatre joueurs au plus (14 bits signés chacun), la profondeur restante
+ * de la recherche qui les a produits et le meilleur coup trouvé. Un mot nul signifie qu'il n'y a pas
+ * d'entrée : la profondeur est stockée plus un, un mot valide n'est donc jamais nul.
+ */
+public interface TranspositionTable {
+
+	/** Nombre maximal de joueurs dont les scores tiennent dans une entrée. */
+	int MAX_PLAYERS = 4;
+	/** Profondeur maximale stockable. */
+	int MAX_DEPTH = 30;
+	/** Plus petit score stockable. */
+	int MIN_SCORE = -(1 << 13);
+	/** Plus grand score stockable. */
+	int MAX_SCORE = (1 << 13) - 1;
+
+	/**
+	 * Cherche l'entrée d'une position.
+	 *
+	 * @param key La clé de la position.
+	 * @return    Le mot de l'entrée, ou 0 si la position n'est pas dans la table.
+	 */
+	long probe(long key);
+
+	/**
+	 * Enregistre l'entrée d'une position, en remplaçant éventuellement une autre entrée.
+	 *
+	 * @param key  La clé de la position.
+	 * @param data Le mot de l'entrée, obtenu avec pack.
+	 */
+	void store(long key, long data);
+
+	/**
+	 * Vide la table.
+	 */
+	void clear();
+
+	/**
+	 * Obtient le nombre d'entrées de la table.
+	 *
+	 * @return Le nombre d'entrées.
+	 */
+	long capacity();
+
+	/**
+	 * Construit le mot d'une entrée.
+	 *
+	 * @param scores     Les scores de chaque joueur.
+	 * @param numPlayers Le nombre de joueurs.
+	 * @param depth      La profondeur restante de la recherche qui a produit les scores.
+	 * @param move       L'indice du meilleur coup dans MoveOrdering.ACTIONS, ou -1 s'il n'y en a pas.
+	 * @return           Le mot de l'entrée, ou 0 si elle n'est pas stockable (trop de joueurs, score
+	 *                   ou profondeur hors limites).
+	 */
+	static long pack(int[] scores, int numPlayers, int depth, int move) {
+		if (numPlayers > MAX_PLAYERS || depth < 0 || depth > MAX_DEPTH) {
+			return 0;
+		}
+		long data = 0;
+		for (int i = 0; i < numPlayers; i++) {
+			int score = scores[i];
+			if (score < MIN_SCORE || score > MAX_SCORE) {
+				return 0;
+			}
+			data |= (score & 0x3FFFL) << (14 * i);
+		}
+		return data | (long) (depth + 1) << 56 | (long) (move + 1) << 61;
+	}
+
+	/**
+	 * Obtient la profondeur d'une entrée.
+	 *
+	 * @param data Le mot de l'entrée.
+	 * @return     La profondeur restante de la recherche qui a produit l'entrée.
+	 */
+	static int depthOf(long data) {
+		return (int) (data >>> 56 & 0x1F) - 1;
+	}
+
+	/**
+	 * Obtient le meilleur coup d'une entrée.
+	 *
+	 * @param data Le mot de l'entrée.
+	 * @return     L'indice du coup dans MoveOrdering.ACTIONS, ou -1 s'il n'y en a pas.
+	 */
+	static int moveOf(long data) {
+		return (int) (data >>> 61) - 1;
+	}
+
+	/**
+	 * Recopie les scores d'une entrée.
+	 *
+	 * @param data       Le mot de l'entrée.
+	 * @param scores     Le tableau à remplir.
+	 * @param numPlayers Le nombre de joueurs.
+	 */
+	static void unpackScores(long data, int[] scores, int numPlayers) {
+		for (int i = 0; i < numPlayers; i++) {
+			// Décalage à gauche puis arithmétique à droite pour étendre le signe des 14 bits
+			scores[i] = (int) (data << (50 - 14 * i) >> 50);
+		}
+	}
+}
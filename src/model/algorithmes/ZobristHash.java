@@ -0,0 +1,138 @@
+package model.algorithmes;
+
+import java.awt.Point;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import model.jeu.*;
+
+/**
+ * La class ZobristHash calcule la clé d'une position pour la table de transposition : le XOR de valeurs
+ * aléatoires associées au propriétaire de chaque case occupée, à la tête de chaque joueur, au joueur qui
+ * doit jouer, au dernier joueur qui a joué, aux joueurs morts et aux adversaires isolés. Les valeurs sont
+ * tirées d'une graine fixe, une clé est donc la même d'une exécution à l'autre.
+ */
+public final class ZobristHash {
+
+	private static final long SEED = 0x5DEECE66DL;
+	private static final ConcurrentHashMap<Long, ZobristHash> CACHE = new ConcurrentHashMap<>();
+
+	private final int slots; // Un emplacement par joueur, plus un pour tout autre occupant (mur, obstacle)
+	private final long[] owner; // owner[case * slots + emplacement]
+	private final long[] head; // head[case * slots + emplacement]
+	private final long[] toMove;
+	private final long[] lastMover;
+	private final long[] dead;
+	private final long[] isolated;
+
+	/**
+	 * Constructeur de la class ZobristHash.
+	 *
+	 * @param cells      Le nombre de cases de la grille.
+	 * @param numPlayers Le nombre de joueurs.
+	 */
+	private ZobristHash(int cells, int numPlayers) {
+		SplittableRandom random = new SplittableRandom(SEED ^ ((long) cells << 8) ^ numPlayers);
+		this.slots = numPlayers + 1;
+		this.owner = randomKeys(random, cells * slots);
+		this.head = randomKeys(random, cells * slots);
+		this.toMove = randomKeys(random, slots);
+		this.lastMover = randomKeys(random, slots);
+		this.dead = randomKeys(random, slots);
+		this.isolated = randomKeys(random, slots);
+	}
+
+	/**
+	 * Retourne les valeurs partagées d'une taille de grille et d'un nombre de joueurs.
+	 *
+	 * @param cells      Le nombre de cases de la grille.
+	 * @param numPlayers Le nombre de joueurs.
+	 * @return           Les valeurs de hachage.
+	 */
+	public static ZobristHash of(int cells, int numPlayers) {
+		return CACHE.computeIfAbsent((long) cells << 32 | numPlayers, key -> new ZobristHash(cells, numPlayers));
+	}
+
+	/**
+	 * Calcule la clé d'une position.
+	 *
+	 * @param state        L'état du jeu.
+	 * @param toMovePlayer Le joueur qui doit jouer, ou null.
+	 * @param isolatedMask Les identifiants des adversaires retirés de la recherche car isolés.
+	 * @return             La clé de la position.
+	 */
+	public long hash(StateGame state, Player toMovePlayer, long isolatedMask) {
+		return hash(state, toMovePlayer, isolatedMask, null);
+	}
+
+	/**
+	 * Calcule la clé de l'image d'une position par une symétrie de la grille, sans construire cette image.
+	 *
+	 * @param state        L'état du jeu.
+	 * @param toMovePlayer Le joueur qui doit jouer, ou null.
+	 * @param isolatedMask Les identifiants des adversaires retirés de la recherche car isolés.
+	 * @param cellMap      L'image de chaque case par la symétrie (voir BoardSymmetry), ou null pour l'identité.
+	 * @return             La clé de la position transformée.
+	 */
+	public long hash(StateGame state, Player toMovePlayer, long isolatedMask, int[] cellMap) {
+		Player[][] grid = state.getGrid();
+		long key = 0;
+		int cell = 0;
+		for (Player[] row : grid) {
+			for (Player occupant : row) {
+				if (occupant != null) {
+					key ^= owner[(cellMap != null ? cellMap[cell] : cell) * slots + slot(occupant)];
+				}
+				cell++;
+			}
+		}
+		for (Map.Entry<Player, Point> entry : state.getPlayerPosition().entrySet()) {
+			Player player = entry.getKey();
+			Point position = entry.getValue();
+			int id = player.getId();
+			int slot = slot(player);
+			int headCell = position.x * grid[0].length + position.y;
+			key ^= head[(cellMap != null ? cellMap[headCell] : headCell) * slots + slot];
+			if (!player.getIsAlive()) {
+				key ^= dead[slot];
+			}
+			if (id >= 0 && id < 64 && (isolatedMask & (1L << id)) != 0) {
+				key ^= isolated[slot];
+			}
+		}
+		if (toMovePlayer != null) {
+			key ^= toMove[slot(toMovePlayer)];
+		}
+		if (state.getCurrentPlayer() != null) {
+			key ^= lastMover[slot(state.getCurrentPlayer())];
+		}
+		return key;
+	}
+
+	/**
+	 * Retourne l'emplacement d'un occupant : son identifiant si c'est un joueur de la partie, sinon
+	 * l'emplacement commun des autres occupants.
+	 *
+	 * @param occupant L'occupant d'une case.
+	 * @return         L'emplacement de ses valeurs.
+	 */
+	private int slot(Player occupant) {
+		int id = occupant.getId();
+		return id >= 0 && id < slots - 1 ? id : slots - 1;
+	}
+
+	/**
+	 * Tire un tableau de valeurs aléatoires.
+	 *
+	 * @param random Le générateur.
+	 * @param size   Le nombre de valeurs.
+	 * @return       Les valeurs.
+	 */
+	private static long[] randomKeys(SplittableRandom random, int size) {
+		long[] keys = new long[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = random.nextLong();
+		}
+		return keys;
+	}
+}
@@ -30,8 +30,20 @@ public class BasicStateEvaluation implements StateEvaluation {
      */
     @Override
     public int[] evaluate(StateGame state) {
+		int[] scoresPlayer = new int[state.getPlayerPosition().size()];
+		evaluate(state, scoresPlayer);
+		return scoresPlayer;
+    }
+
+	/**
+     * Évalue l'état actuel du jeu et écrit les scores des joueurs dans un tableau fourni.
+     * 
+     * @param state        L'état actuel du jeu à évaluer.
+     * @param scoresPlayer Le tableau à remplir avec le score de chaque joueur.
+     */
+    @Override
+    public void evaluate(StateGame state, int[] scoresPlayer) {
         Map<Player, Point> playerPositions = state.getPlayerPosition();
-		int[] scoresPlayer = new int[playerPositions.size()];
 
 		for (Player player : playerPositions.keySet()) {
 			int distanceOpnnetScore = this.scores.distanceToOpponentPlayerScore(state, player);
@@ -46,6 +58,5 @@ public class BasicStateEvaluation implements StateEvaluation {
 				scoresPlayer[player.getId()] = -1;
 			} 
 		}
-		return scoresPlayer;
     }
 }
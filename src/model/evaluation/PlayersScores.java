@@ -59,21 +59,16 @@ public class PlayersScores {
      */
 	public int totalEmptySurroundingScore(StateGame state, Player currentPlayer) {
 		int emptyCount = 0;
-		int taille = state.getGrid().length;
+		Player[][] grid = state.getGrid();
+		int taille = grid.length;
+		GridTopology topology = GridTopology.of(grid);
+		int[] neighbours = topology.neighbours8();
 		Point currentPosition = state.getPlayerPosition().get(currentPlayer);
+		int base = topology.index(currentPosition.x, currentPosition.y) * GridTopology.N8;
 	
-		// Définition des directions à explorer
-		int[][] directions = { 
-			{ -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, // Horizontales et verticales
-			{ -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } // Diagonales
-		};
-	
-		// Parcours des directions
-		for (int[] direction : directions) {
-			int x = currentPosition.x + direction[0];
-			int y = currentPosition.y + direction[1];
-			// Vérifier si la cellule adjacente est valide et vide
-			if (isValidCell(state, x, y) && state.getGrid()[x][y] == null) {
+		// Parcours des huit voisins, la sentinelle (hors de la grille) n'est jamais vide
+		for (int d = 0; d < GridTopology.N8; d++) {
+			if (topology.isFree(grid, neighbours[base + d])) {
 				emptyCount++;
 			}
 		}
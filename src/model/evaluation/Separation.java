@@ -0,0 +1,178 @@
+package model.evaluation;
+
+import java.awt.Point;
+import java.util.Map;
+import model.jeu.*;
+
+/**
+ * La class Separation découpe les cases vides de la grille en composantes connexes, en un seul
+ * remplissage par état, et permet de savoir quels joueurs sont isolés des autres.
+ */
+public class Separation {
+
+    private final StateGame state;
+    private final GridTopology topology;
+    private final int[] labels; // Composante de chaque case vide, -1 pour une case occupée ou la sentinelle
+    private final int[] componentSizes; // Taille de chaque composante
+
+    /**
+     * Constructeur de la class Separation : étiquette toutes les composantes de cases vides de l'état.
+     *
+     * @param state L'état du jeu à analyser.
+     */
+    public Separation(StateGame state) {
+        this.state = state;
+        Player[][] grid = state.getGrid();
+        this.topology = GridTopology.of(grid);
+        int cells = topology.getCells();
+        int[] neighbours = topology.neighbours4();
+        this.labels = new int[cells + 1]; // La sentinelle reste étiquetée comme une case occupée
+
+        int[] queue = new int[cells];
+        int[] sizes = new int[cells];
+        int components = 0;
+
+        boolean[] free = topology.freeCells(grid, null);
+        for (int i = 0; i <= cells; i++) {
+            labels[i] = free[i] ? Integer.MAX_VALUE : -1;
+        }
+
+        // Parcours en largeur depuis chaque case vide non encore étiquetée
+        for (int start = 0; start < cells; start++) {
+            if (labels[start] != Integer.MAX_VALUE) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            labels[start] = components;
+            while (head < tail) {
+                int base = queue[head++] * GridTopology.N4;
+                for (int dir = 0; dir < GridTopology.N4; dir++) {
+                    int next = neighbours[base + dir];
+                    if (labels[next] == Integer.MAX_VALUE) {
+                        labels[next] = components;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            sizes[components++] = tail;
+        }
+
+        this.componentSizes = new int[components];
+        System.arraycopy(sizes, 0, componentSizes, 0, components);
+    }
+
+    /**
+     * Retourne la composante d'une case.
+     *
+     * @param x La ligne de la case.
+     * @param y La colonne de la case.
+     * @return  L'identifiant de la composante, ou -1 si la case est occupée.
+     */
+    public int componentOf(int x, int y) {
+        return labels[topology.index(x, y)];
+    }
+
+    /**
+     * Retourne la taille d'une composante.
+     *
+     * @param component L'identifiant de la composante.
+     * @return          Le nombre de cases vides de la composante.
+     */
+    public int componentSize(int component) {
+        return componentSizes[component];
+    }
+
+    /**
+     * Retourne le nombre de composantes de cases vides.
+     *
+     * @return Le nombre de composantes.
+     */
+    public int componentCount() {
+        return componentSizes.length;
+    }
+
+    /**
+     * Retourne les composantes voisines de la position d'un joueur, c'est-à-dire celles où il peut entrer.
+     *
+     * @param player Le joueur.
+     * @return       Les identifiants des composantes voisines, sans doublon (au plus quatre).
+     */
+    public int[] componentsTouchedBy(Player player) {
+        Point position = state.getPlayerPosition().get(player);
+        int[] neighbours = topology.neighbours4();
+        int base = topology.index(position.x, position.y) * GridTopology.N4;
+        int[] found = new int[4];
+        int count = 0;
+        for (int dir = 0; dir < GridTopology.N4; dir++) {
+            int component = labels[neighbours[base + dir]];
+            if (component < 0) {
+                continue;
+            }
+            boolean known = false;
+            for (int i = 0; i < count; i++) {
+                known |= found[i] == component;
+            }
+            if (!known) {
+                found[count++] = component;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(found, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Calcule le nombre de cases vides qu'un joueur peut encore atteindre.
+     *
+     * @param player Le joueur.
+     * @return       La somme des tailles des composantes voisines du joueur.
+     */
+    public int reachableArea(Player player) {
+        int area = 0;
+        for (int component : componentsTouchedBy(player)) {
+            area += componentSizes[component];
+        }
+        return area;
+    }
+
+    /**
+     * Vérifie si un joueur est isolé : aucune des composantes où il peut entrer n'est accessible
+     * à un autre joueur vivant.
+     *
+     * @param player Le joueur.
+     * @return       true si le joueur est isolé des autres joueurs vivants, sinon false.
+     */
+    public boolean isIsolated(Player player) {
+        int[] own = componentsTouchedBy(player);
+        for (Map.Entry<Player, Point> entry : state.getPlayerPosition().entrySet()) {
+            Player other = entry.getKey();
+            if (other.equals(player) || !other.getIsAlive()) {
+                continue;
+            }
+            for (int component : componentsTouchedBy(other)) {
+                for (int mine : own) {
+                    if (mine == component) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Vérifie si tous les joueurs vivants sont isolés les uns des autres.
+     *
+     * @return true si la partie se réduit à des remplissages indépendants, sinon false.
+     */
+    public boolean isSeparated() {
+        for (Player player : state.getPlayerPosition().keySet()) {
+            if (player.getIsAlive() && !isIsolated(player)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
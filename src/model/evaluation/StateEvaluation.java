@@ -12,4 +12,16 @@ public interface StateEvaluation {
      * @return Un tableau d'entiers représentant les scores des joueurs.
      */
     int[] evaluate(StateGame state);
+
+    /**
+     * Évalue l'état actuel du jeu et écrit les scores des joueurs dans un tableau fourni, pour éviter
+     * d'allouer un tableau par noeud de recherche.
+     * 
+     * @param state  L'état actuel du jeu à évaluer.
+     * @param scores Le tableau à remplir, indexé par identifiant de joueur.
+     */
+    default void evaluate(StateGame state, int[] scores) {
+        int[] result = evaluate(state);
+        System.arraycopy(result, 0, scores, 0, result.length);
+    }
 }
@@ -0,0 +1,152 @@
+package model.evaluation;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Map;
+import model.jeu.*;
+
+/**
+ * La class TeamVoronoi calcule les régions de Voronoi par équipe en un seul parcours en largeur : toutes
+ * les positions des joueurs sont des sources, étiquetées par leur équipe. Une case appartient à l'équipe
+ * qui l'atteint seule en premier ; les coéquipiers se partagent donc les cases à égale distance, et seules
+ * les égalités entre équipes différentes restent neutres. Un joueur mort est une source neutre : les
+ * cases qu'il atteint en premier ne comptent pour personne, comme la région d'un joueur mort dans
+ * l'évaluation par joueur, dont le score est remplacé par -1.
+ */
+public class TeamVoronoi {
+
+    private static final int NEUTRAL = -2; // Case atteinte à la même distance par plusieurs étiquettes
+    private static final int UNREACHED = -1;
+
+    private int[] labels = new int[0]; // Étiquette de chaque case lors du dernier parcours
+    private int[] distances = new int[0];
+    private int[] queue = new int[0];
+    private boolean[] free; // Cases vides, sentinelle comprise
+
+    /**
+     * Calcule la taille du territoire de chaque équipe : les cases vides qu'elle atteint seule en premier,
+     * plus les positions de ses joueurs vivants.
+     *
+     * @param state     L'état actuel du jeu.
+     * @param teamOf    L'équipe de chaque joueur, indexée par identifiant ; une équipe négative fait du
+     *                  joueur une source neutre, comme un joueur mort.
+     * @param teamCount Le nombre d'équipes.
+     * @return          La taille du territoire de chaque équipe.
+     */
+    public int[] teamRegionSizes(StateGame state, int[] teamOf, int teamCount) {
+        int[] sizes = new int[teamCount];
+        sweep(state, teamOf, sizes);
+        return sizes;
+    }
+
+    /**
+     * Calcule la taille du territoire de chaque équipe dans un tableau fourni, sans allocation.
+     *
+     * @param state  L'état actuel du jeu.
+     * @param teamOf L'équipe de chaque joueur, indexée par identifiant ; une équipe négative fait du
+     *               joueur une source neutre, comme un joueur mort.
+     * @param sizes  Le tableau à remplir, de la taille du nombre d'équipes.
+     */
+    public void teamRegionSizes(StateGame state, int[] teamOf, int[] sizes) {
+        Arrays.fill(sizes, 0);
+        sweep(state, teamOf, sizes);
+    }
+
+    /**
+     * Calcule la répartition par joueur : la taille de la région de Voronoi de chaque joueur, sa position
+     * comprise, 0 pour un joueur mort. À utiliser à la demande, le calcul par équipe n'en a pas besoin.
+     *
+     * @param state L'état actuel du jeu.
+     * @return      La taille de la région de chaque joueur, indexée par identifiant.
+     */
+    public int[] playerRegionSizes(StateGame state) {
+        int numPlayers = state.getPlayerPosition().size();
+        int[] identity = new int[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            identity[i] = i;
+        }
+        int[] sizes = new int[numPlayers];
+        sweep(state, identity, sizes);
+        return sizes;
+    }
+
+    /**
+     * Parcours en largeur multi-sources : chaque position de joueur est une source étiquetée, neutre pour
+     * un joueur mort ou d'étiquette négative ; une case atteinte au même niveau par deux étiquettes
+     * différentes devient neutre et propage sa neutralité.
+     *
+     * @param state   L'état du jeu.
+     * @param labelOf L'étiquette de chaque joueur, indexée par identifiant.
+     * @param sizes   Le nombre de cases de chaque étiquette, rempli par le parcours.
+     */
+    private void sweep(StateGame state, int[] labelOf, int[] sizes) {
+        Player[][] grid = state.getGrid();
+        GridTopology topology = GridTopology.of(grid);
+        int cells = topology.getCells();
+        int[] neighbours = topology.neighbours4();
+        if (labels.length != cells) {
+            this.labels = new int[cells];
+            this.distances = new int[cells];
+            this.queue = new int[cells];
+        }
+        Arrays.fill(labels, UNREACHED);
+        this.free = topology.freeCells(grid, free);
+
+        int head = 0;
+        int tail = 0;
+        for (Map.Entry<Player, Point> entry : state.getPlayerPosition().entrySet()) {
+            Player player = entry.getKey();
+            Point position = entry.getValue();
+            int label = player.getIsAlive() ? labelOf[player.getId()] : NEUTRAL;
+            int cell = topology.index(position.x, position.y);
+            if (label >= 0) {
+                sizes[label]++; // La position du joueur appartient à sa propre région
+            } else {
+                label = NEUTRAL; // Les cases atteintes d'abord depuis cette position ne comptent pour personne
+            }
+            labels[cell] = label;
+            distances[cell] = 0;
+            queue[tail++] = cell;
+        }
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int label = labels[cell];
+            int next = distances[cell] + 1;
+            int base = cell * GridTopology.N4;
+            for (int dir = 0; dir < GridTopology.N4; dir++) {
+                int neighbour = neighbours[base + dir];
+                if (free[neighbour]) {
+                    tail = visit(neighbour, label, next, tail, sizes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Propage une étiquette vers une case voisine vide.
+     *
+     * @param cell     La case voisine.
+     * @param label    L'étiquette propagée.
+     * @param distance La distance de la case voisine depuis la source.
+     * @param tail     La fin de la file.
+     * @param sizes    Le nombre de cases de chaque étiquette.
+     * @return         La nouvelle fin de la file.
+     */
+    private int visit(int cell, int label, int distance, int tail, int[] sizes) {
+        int current = labels[cell];
+        if (current == UNREACHED) {
+            labels[cell] = label;
+            distances[cell] = distance;
+            if (label >= 0) {
+                sizes[label]++;
+            }
+            queue[tail++] = cell;
+        } else if (distances[cell] == distance && current != label && current != NEUTRAL) {
+            // Égalité entre deux étiquettes différentes : la case ne compte pour personne
+            sizes[current]--;
+            labels[cell] = NEUTRAL;
+        }
+        return tail;
+    }
+}
@@ -1,10 +1,8 @@
 package model.evaluation;
 
-import java.util.LinkedList;
-import java.util.Queue;
 import java.awt.Point;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Map;
 import model.jeu.*;
 /**
  * La class Voronoi représente un système de calcul de régions de Voronoi pour chaque joueur sur la grille de jeu.
@@ -13,103 +11,112 @@ public class Voronoi {
 
    /**
      * Assigner des régions de Voronoi à chaque joueur sur la grille de jeu.
-     * 
+     * Les distances de chaque joueur sont calculées une seule fois, par un parcours en largeur sur la
+     * topologie de la grille, puis comparées case par case.
+     *
      * @param state L'état actuel du jeu.
      */
     public void assignVoronoiRegions(StateGame state) {
-        // Parcours de chaque case du plateau de jeu
-        for (int row = 0; row < state.getGrid().length; row++) {
-            for (int col = 0; col < state.getGrid()[0].length; col++) {
-                double minDistance = Double.MAX_VALUE;
-                int regionOwner = -1;
-                List<Player> minDistancePlayers = new ArrayList<>(); // Liste des joueurs avec la distance minimale
+        Player[][] grid = state.getGrid();
+        GridTopology topology = GridTopology.of(grid);
+        int cells = topology.getCells();
+        boolean[] free = topology.freeCells(grid, null);
+        int[] queue = new int[cells];
 
-                // Calcul de la distance entre la case actuelle et chaque joueur
-                if (state.getGrid()[row][col] == null) {
-                    for (Player player : state.getPlayerPosition().keySet()) {
-                        int[][] distances = dijkstra(state, player);
-                        double distance = distances[row][col];
-                        if (distance < minDistance) {
-                            minDistance = distance;
-                            minDistancePlayers.clear(); // Réinitialiser la liste s'il y a une nouvelle distance
-                                                        // minimale
-                            minDistancePlayers.add(player);
-                        } else if (distance == minDistance) {
-                            minDistancePlayers.add(player); // Ajouter le joueur si sa distance est égale à la distance
-                                                            // minimale
-                        }
-                    }
-
-                    // Vérifier s'il y a plusieurs joueurs à égale distance
-                    if (minDistancePlayers.size() == 1) {
-                        regionOwner = minDistancePlayers.get(0).getId(); // Un seul joueur avec la distance minimale,
-                                                                         // donc attribuer la région
-                    } else {
-                        // Plusieurs joueurs avec la même distance, ne pas attribuer de région
-                        regionOwner = -1;
-                    }
+        Map<Player, Point> positions = state.getPlayerPosition();
+        int numPlayers = positions.size();
+        int[] ids = new int[numPlayers];
+        int[][] distances = new int[numPlayers][];
+        int p = 0;
+        for (Map.Entry<Player, Point> entry : positions.entrySet()) {
+            ids[p] = entry.getKey().getId();
+            distances[p++] = distances(topology, free, entry.getValue(), queue);
+        }
 
-                    // Attribue à la case le propriétaire de la région de Voronoi (ou -1 si aucun
-                    // joueur n'est clairement le plus proche)
-                    state.setRegionOwner(row, col, regionOwner);
+        boolean hasEmptyCell = false;
+        for (int cell = 0; cell < cells; cell++) {
+            if (!free[cell]) {
+                continue;
+            }
+            hasEmptyCell = true;
 
-                    // Parcours de chaque joueur pour attribuer sa propre position à sa région
-                    for (Player player : state.getPlayerPosition().keySet()) {
-                        Point playerPosition = state.getPlayerPosition().get(player);
-                        state.setRegionOwner(playerPosition.x, playerPosition.y, player.getId());
-                    }
+            // Un seul joueur à la distance minimale : il est propriétaire de la case, sinon personne
+            long minDistance = Long.MAX_VALUE;
+            int regionOwner = -1;
+            int minDistancePlayers = 0;
+            for (int i = 0; i < numPlayers; i++) {
+                int distance = distances[i][cell];
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    regionOwner = ids[i];
+                    minDistancePlayers = 1;
+                } else if (distance == minDistance) {
+                    minDistancePlayers++;
                 }
             }
+            state.setRegionOwner(topology.row(cell), topology.col(cell), minDistancePlayers == 1 ? regionOwner : -1);
+        }
+
+        // La position de chaque joueur appartient à sa propre région
+        if (hasEmptyCell) {
+            for (Map.Entry<Player, Point> entry : positions.entrySet()) {
+                Point playerPosition = entry.getValue();
+                state.setRegionOwner(playerPosition.x, playerPosition.y, entry.getKey().getId());
+            }
         }
     }
 
     /**
      * Calculer les distances de Dijkstra à partir de la position d'un joueur sur la grille de jeu.
-     * 
+     *
      * @param state  L'état actuel du jeu.
      * @param player Le joueur dont on calcule les distances.
      * @return       Une matrice contenant les distances de Dijkstra depuis la position du joueur.
      */
     public int[][] dijkstra(StateGame state, Player player) {
-        int[][] distances = new int[state.getGrid().length][state.getGrid()[0].length]; // Initialisation de la matrice
-                                                                                        // des distances
-
-        int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } }; // Déplacements correspondant à haut, bas,
-                                                                           // gauche, droite
-        Player[][] currentGrid = state.getGrid();
+        Player[][] grid = state.getGrid();
+        GridTopology topology = GridTopology.of(grid);
+        int[] flat = distances(topology, topology.freeCells(grid, null), state.getPlayerPosition().get(player),
+                new int[topology.getCells()]);
 
-        Point currentPosition = state.getPlayerPosition().get(player);
-        int row = currentPosition.x;
-        int col = currentPosition.y;
-
-        // Initialisation des distances à l'infini pour toutes les cases
-        for (int i = 0; i < distances.length; i++) {
-            for (int j = 0; j < distances[0].length; j++) {
-                distances[i][j] = Integer.MAX_VALUE;
-            }
+        int[][] distances = new int[topology.getRows()][];
+        for (int row = 0; row < distances.length; row++) {
+            distances[row] = Arrays.copyOfRange(flat, row * topology.getCols(), (row + 1) * topology.getCols());
         }
-        distances[row][col] = 0;
-
-        // File d'attente pour le parcours en largeur
-        Queue<Point> queue = new LinkedList<>();
-        queue.add(new Point(row, col));
+        return distances;
+    }
 
-        while (!queue.isEmpty()) {
-            Point current = queue.poll();
-            int x = current.x;
-            int y = current.y;
-            int distance = distances[x][y];
+    /**
+     * Parcours en largeur depuis une position : toutes les cases ont le même coût, la distance de
+     * Dijkstra est donc la distance du parcours en largeur.
+     *
+     * @param topology La topologie de la grille.
+     * @param free     Les cases vides, sentinelle comprise.
+     * @param source   La position de départ.
+     * @param queue    Une file de travail d'au moins getCells() cases.
+     * @return         La distance de chaque case à plat, Integer.MAX_VALUE si elle n'est pas atteignable.
+     */
+    private static int[] distances(GridTopology topology, boolean[] free, Point source, int[] queue) {
+        int[] neighbours = topology.neighbours4();
+        int[] distances = new int[topology.getCells() + 1];
+        Arrays.fill(distances, Integer.MAX_VALUE);
 
-            for (int[] direction : directions) {
-                int newX = x + direction[0];
-                int newY = y + direction[1];
+        int start = topology.index(source.x, source.y);
+        distances[start] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
 
-                // Vérification si la case voisine est valide et non bloquée par un mur ou un
-                // autre joueur
-                if (Action.isValidPosition(newX, newY, currentGrid) && distances[newX][newY] == Integer.MAX_VALUE) {
-                    // Mise à jour de la distance si elle est plus courte
-                    distances[newX][newY] = distance + 1;
-                    queue.add(new Point(newX, newY));
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = distances[cell] + 1;
+            int base = cell * GridTopology.N4;
+            for (int dir = 0; dir < GridTopology.N4; dir++) {
+                int neighbour = neighbours[base + dir];
+                // La case voisine doit être vide (la sentinelle ne l'est jamais) et pas encore atteinte
+                if (free[neighbour] && distances[neighbour] == Integer.MAX_VALUE) {
+                    distances[neighbour] = next;
+                    queue[tail++] = neighbour;
                 }
             }
         }
@@ -1,6 +1,6 @@
 package model.evaluation;
 
-import java.awt.Point;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import model.jeu.*;
@@ -17,21 +17,35 @@ public class VoronoiStateEvaluation implements StateEvaluation {
      */
     @Override
     public int[] evaluate(StateGame state) {
-        Map<Integer, Integer> regionSizes = calculateRegionSizes(state);
         int[] scoresPlayer = new int[state.getPlayerPosition().size()];
-        for (Player player : state.getPlayerPosition().keySet()) {
-            Point playerPosition = state.getPlayerPosition().get(player);
-            int regionOwner = state.getRegionOwner(playerPosition.x, playerPosition.y);
-            int regionSize = regionSizes.getOrDefault(regionOwner, 0);
+        evaluate(state, scoresPlayer);
+        return scoresPlayer;
+    }
 
+    /**
+     * Évalue l'état actuel du jeu dans un tableau fourni : la position d'un joueur appartient toujours à sa
+     * propre région, le score d'un joueur vivant est donc le nombre de cases dont il est propriétaire.
+     * 
+     * @param state  L'état actuel du jeu.
+     * @param scores Le tableau à remplir avec le score de chaque joueur.
+     */
+    @Override
+    public void evaluate(StateGame state, int[] scores) {
+        int numPlayers = state.getPlayerPosition().size();
+        Arrays.fill(scores, 0, numPlayers, 0);
+        for (int row = 0; row < state.getGrid().length; row++) {
+            for (int col = 0; col < state.getGrid()[0].length; col++) {
+                int regionOwner = state.getRegionOwner(row, col);
+                if (regionOwner >= 0 && regionOwner < numPlayers) {
+                    scores[regionOwner]++;
+                }
+            }
+        }
+        for (Player player : state.getPlayerPosition().keySet()) {
             if (!player.getIsAlive()) {
-                scoresPlayer[player.getId()] = -1;
-            }else{
-                scoresPlayer[player.getId()] = regionSize;
+                scores[player.getId()] = -1;
             }
-            
         }
-        return scoresPlayer;
     }
 
     /**
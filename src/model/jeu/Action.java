@@ -6,13 +6,46 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * La class Action permet la manipulation des actions dans le jeu.
  */
 public class Action {
 
+	private static final String[] DIRECTIONS = { "up", "down", "left", "right" };
+
+	private GameListener listener = GameListener.NONE; // Reçoit les coups appliqués par applyActions
+	private SplittableRandom random = new SplittableRandom(); // Hasard de getRandomAction
+
+	/**
+     * Modifie l'écouteur qui reçoit les coups appliqués et refusés.
+     * 
+     * @param listener L'écouteur, ou GameListener.NONE pour ne rien signaler.
+     */
+	public void setListener(GameListener listener) {
+		this.listener = listener != null ? listener : GameListener.NONE;
+	}
+
+	/**
+     * Modifie le générateur utilisé par getRandomAction, pour rejouer une partie à l'identique. Le
+     * générateur n'est pas partagé entre threads : chaque partie a son objet Action.
+     * 
+     * @param random Le générateur.
+     */
+	public void setRandom(SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+     * Obtient l'écouteur qui reçoit les coups appliqués et refusés.
+     * 
+     * @return L'écouteur.
+     */
+	public GameListener getListener() {
+		return listener;
+	}
+
 	/**
      * Vérifie si une position est valide sur la grille.
      * 
@@ -33,22 +66,18 @@ public class Action {
      * @return              La liste des actions possibles pour le joueur.
      */
 	public List<String> actionsPossible(StateGame state, Player currentPlayer) {
-		List<String> actions = new ArrayList<>();
+		List<String> actions = new ArrayList<>(4);
 		Player[][] currentGrid = state.getGrid();
-		Map<Player, Point> currentPlayerPositions = state.getPlayerPosition();
-		Point currentPosition = currentPlayerPositions.get(currentPlayer);
-
-		if (isValidPosition(currentPosition.x - 1, currentPosition.y, currentGrid)) {
-			actions.add("up");
-		}
-		if (isValidPosition(currentPosition.x + 1, currentPosition.y, currentGrid)) {
-			actions.add("down");
-		}
-		if (isValidPosition(currentPosition.x, currentPosition.y - 1, currentGrid)) {
-			actions.add("left");
-		}
-		if (isValidPosition(currentPosition.x, currentPosition.y + 1, currentGrid)) {
-			actions.add("right");
+		Point currentPosition = state.getPlayerPosition().get(currentPlayer);
+		GridTopology topology = GridTopology.of(currentGrid);
+		int[] neighbours = topology.neighbours4();
+		int base = topology.index(currentPosition.x, currentPosition.y) * GridTopology.N4;
+
+		// Les voisins sont dans l'ordre haut, bas, gauche, droite : celui des actions
+		for (int dir = 0; dir < GridTopology.N4; dir++) {
+			if (topology.isFree(currentGrid, neighbours[base + dir])) {
+				actions.add(DIRECTIONS[dir]);
+			}
 		}
 		return actions;
 	}
@@ -88,7 +117,7 @@ public class Action {
 			newPosition.y += 1;
 			break;
 		default:
-			System.out.println("Action non reconnue.");
+			listener.onInvalidMove(state, currentPlayer, action);
 			return state; // Retourner l'etat d'origine si l'action est invalide
 		}
 
@@ -97,7 +126,7 @@ public class Action {
 			newGrid[currentPosition.x][currentPosition.y] = currentPlayer;
 			newGrid[newPosition.x][newPosition.y] = currentPlayer;
 		} else {
-			System.out.println("Action non applicable. Position invalide.");
+			listener.onInvalidMove(state, currentPlayer, action);
 		}
 
 		// Mettre à jour les positions des joueurs dans une nouvelle carte
@@ -116,7 +145,6 @@ public class Action {
 	 */
 	public StateGame applyActions(StateGame state, Map<Player, String> playerActions) {
 		StateGame nextState = state.copy(); // Copie de l'état actuel du jeu
-		Action action = new Action(); // Initialisation de l'objet Action
 		
 		// Parcours de la map des actions de chaque joueur
 		for (Map.Entry<Player, String> entry : playerActions.entrySet()) {
@@ -124,10 +152,10 @@ public class Action {
 			String ch = entry.getValue(); // Action à appliquer
 			
 			// Vérification si l'action est non nulle et applicable
-			if (ch != null && action.isApplicableAction(nextState, ch, player)) {
+			if (ch != null && isApplicableAction(nextState, ch, player)) {
 				// Application de l'action et mise à jour de l'état du jeu
-				System.out.println("joueur : "+player+" action : "+ch);
-				nextState = action.applyAction(nextState, ch, player);
+				nextState = applyAction(nextState, ch, player);
+				listener.onMoveApplied(nextState, player, ch);
 			}
 		}
 		return nextState; // Retourne l'état du jeu mis à jour
@@ -169,17 +197,43 @@ public class Action {
      * @return              L'action choisie aléatoirement, ou null si aucune action possible.
      */
 	public String getRandomAction(StateGame state, Player currentPlayer) {
-		List<String> possibleActions = actionsPossible(state, currentPlayer);
+		return getRandomAction(state, currentPlayer, random);
+	}
 
-		// Sélectionner une action aléatoire parmi les actions possible
-		if (!possibleActions.isEmpty()) {
-			Random random = new Random();
-			int randomIndex = random.nextInt(possibleActions.size());
-			return possibleActions.get(randomIndex);
-		} else {
+	/**
+     * Retourne une action aléatoire pour un joueur, tirée avec le générateur donné, sans allouer.
+     * 
+     * @param state         L'état actuel du jeu.
+     * @param currentPlayer Le joueur pour lequel l'action est choisie aléatoirement.
+     * @param random        Le générateur.
+     * @return              L'action choisie aléatoirement, ou null si aucune action possible.
+     */
+	public String getRandomAction(StateGame state, Player currentPlayer, SplittableRandom random) {
+		Player[][] currentGrid = state.getGrid();
+		Point currentPosition = state.getPlayerPosition().get(currentPlayer);
+		GridTopology topology = GridTopology.of(currentGrid);
+		int[] neighbours = topology.neighbours4();
+		int base = topology.index(currentPosition.x, currentPosition.y) * GridTopology.N4;
+
+		int count = 0;
+		for (int dir = 0; dir < GridTopology.N4; dir++) {
+			if (topology.isFree(currentGrid, neighbours[base + dir])) {
+				count++;
+			}
+		}
+		if (count == 0) {
 			// Aucune action applicable, retourner null
 			currentPlayer.setAlive(false);
 			return null;
 		}
+
+		// Sélectionner une action aléatoire parmi les actions possibles, dans l'ordre de actionsPossible
+		int pick = random.nextInt(count);
+		for (int dir = 0; dir < GridTopology.N4; dir++) {
+			if (topology.isFree(currentGrid, neighbours[base + dir]) && pick-- == 0) {
+				return DIRECTIONS[dir];
+			}
+		}
+		return null;
 	}
 }
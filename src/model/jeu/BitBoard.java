@@ -0,0 +1,157 @@
+package model.jeu;
+
+/**
+ * La class BitBoard représente un ensemble de cases de la grille sous forme de bits. Chaque ligne est
+ * suivie d'une colonne de garde toujours vide, ce qui permet de propager un remplissage par simples
+ * décalages de mots sans déborder d'une ligne sur la suivante.
+ */
+public class BitBoard {
+
+    private final int rows; // Nombre de lignes de la grille
+    private final int cols; // Nombre de colonnes de la grille
+    private final int stride; // Nombre de bits par ligne, colonne de garde comprise
+    private final long[] bits; // Les bits de l'ensemble, la case (x, y) est le bit x * stride + y
+
+    /**
+     * Constructeur de la class BitBoard : crée un ensemble vide.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param cols Le nombre de colonnes de la grille.
+     */
+    public BitBoard(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = cols + 1;
+        this.bits = new long[(rows * stride + 63) / 64];
+    }
+
+    /**
+     * Crée l'ensemble des cases vides d'une grille.
+     *
+     * @param grid La grille du jeu.
+     * @return     L'ensemble des cases vides.
+     */
+    public static BitBoard freeCells(Player[][] grid) {
+        BitBoard board = new BitBoard(grid.length, grid[0].length);
+        for (int x = 0; x < grid.length; x++) {
+            for (int y = 0; y < grid[0].length; y++) {
+                if (grid[x][y] == null) {
+                    board.set(x, y);
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Ajoute une case à l'ensemble.
+     *
+     * @param x La ligne de la case.
+     * @param y La colonne de la case.
+     */
+    public void set(int x, int y) {
+        int bit = x * stride + y;
+        bits[bit >>> 6] |= 1L << bit;
+    }
+
+    /**
+     * Retire une case de l'ensemble.
+     *
+     * @param x La ligne de la case.
+     * @param y La colonne de la case.
+     */
+    public void clear(int x, int y) {
+        int bit = x * stride + y;
+        bits[bit >>> 6] &= ~(1L << bit);
+    }
+
+    /**
+     * Vérifie si une case appartient à l'ensemble.
+     *
+     * @param x La ligne de la case.
+     * @param y La colonne de la case.
+     * @return  true si la case appartient à l'ensemble, sinon false.
+     */
+    public boolean get(int x, int y) {
+        if (x < 0 || x >= rows || y < 0 || y >= cols) {
+            return false;
+        }
+        int bit = x * stride + y;
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Compte les cases de l'ensemble.
+     *
+     * @return Le nombre de cases.
+     */
+    public int count() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Remplit la région de l'ensemble connexe (4-voisinage) à une case de départ.
+     *
+     * @param x La ligne de la case de départ.
+     * @param y La colonne de la case de départ.
+     * @return  La région atteinte, vide si la case de départ n'appartient pas à l'ensemble.
+     */
+    public BitBoard fill(int x, int y) {
+        BitBoard region = new BitBoard(rows, cols);
+        if (!get(x, y)) {
+            return region;
+        }
+        region.set(x, y);
+        long[] r = region.bits;
+        long[] next = new long[r.length];
+
+        boolean changed = true;
+        while (changed) {
+            System.arraycopy(r, 0, next, 0, r.length);
+            orShifted(r, 1, next);
+            orShifted(r, -1, next);
+            orShifted(r, stride, next);
+            orShifted(r, -stride, next);
+
+            changed = false;
+            for (int i = 0; i < r.length; i++) {
+                long word = next[i] & bits[i];
+                changed |= word != r[i];
+                r[i] = word;
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Ajoute à un ensemble de bits une copie décalée d'un autre.
+     *
+     * @param src   Les bits à décaler.
+     * @param shift Le décalage, positif vers les bits de poids fort.
+     * @param dst   Les bits auxquels ajouter le résultat.
+     */
+    private static void orShifted(long[] src, int shift, long[] dst) {
+        int n = src.length;
+        int words = Math.abs(shift) >>> 6;
+        int offset = Math.abs(shift) & 63;
+        for (int i = 0; i < n; i++) {
+            long word;
+            if (shift > 0) {
+                int j = i - words;
+                long low = j >= 0 ? src[j] : 0;
+                long carry = j - 1 >= 0 ? src[j - 1] : 0;
+                word = offset == 0 ? low : (low << offset) | (carry >>> (64 - offset));
+            } else {
+                int j = i + words;
+                long high = j < n ? src[j] : 0;
+                long carry = j + 1 < n ? src[j + 1] : 0;
+                word = offset == 0 ? high : (high >>> offset) | (carry << (64 - offset));
+            }
+            dst[i] |= word;
+        }
+    }
+}
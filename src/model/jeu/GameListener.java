@@ -0,0 +1,73 @@
+package model.jeu;
+
+/**
+ * L'interface GameListener reçoit les événements d'une partie : début de partie, coup appliqué, coup
+ * refusé, joueur éliminé, fin de tour et fin de partie. Toutes les méthodes ne font rien par défaut :
+ * avec NONE, l'appel est monomorphe et vide, le compilateur à la volée le supprime, et une partie sans
+ * affichage ne paie rien. L'affichage dans la console est un écouteur parmi d'autres.
+ *
+ * Un même écouteur peut être partagé par des parties jouées en même temps : il doit alors supporter les
+ * appels concurrents.
+ */
+public interface GameListener {
+
+    /** L'écouteur qui ignore tous les événements. */
+    GameListener NONE = new GameListener() {
+    };
+
+    /**
+     * Appelée au début de la partie.
+     *
+     * @param state L'état initial du jeu.
+     */
+    default void onGameStart(StateGame state) {
+    }
+
+    /**
+     * Appelée quand le coup d'un joueur a été appliqué.
+     *
+     * @param state  L'état du jeu après le coup.
+     * @param player Le joueur qui a joué.
+     * @param action L'action jouée.
+     */
+    default void onMoveApplied(StateGame state, Player player, String action) {
+    }
+
+    /**
+     * Appelée quand un coup ne peut pas être appliqué : action inconnue ou case de destination occupée.
+     *
+     * @param state  L'état du jeu.
+     * @param player Le joueur.
+     * @param action L'action refusée.
+     */
+    default void onInvalidMove(StateGame state, Player player, String action) {
+    }
+
+    /**
+     * Appelée quand un joueur est éliminé.
+     *
+     * @param state  L'état du jeu.
+     * @param player Le joueur éliminé.
+     */
+    default void onPlayerEliminated(StateGame state, Player player) {
+    }
+
+    /**
+     * Appelée à la fin de chaque tour, quand les coups de tous les joueurs ont été appliqués.
+     *
+     * @param state L'état du jeu à la fin du tour.
+     * @param turn  Le numéro du tour, à partir de 1.
+     */
+    default void onTurnEnd(StateGame state, int turn) {
+    }
+
+    /**
+     * Appelée à la fin de la partie.
+     *
+     * @param state  L'état final du jeu.
+     * @param winner Le joueur gagnant, ou null s'il n'y a pas un gagnant seul (partie nulle, ou victoire
+     *               de plusieurs coéquipiers).
+     */
+    default void onGameEnd(StateGame state, Player winner) {
+    }
+}
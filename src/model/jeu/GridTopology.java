@@ -0,0 +1,210 @@
+package model.jeu;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * La class GridTopology décrit le voisinage des cases d'une grille d'une taille donnée. Les cases sont
+ * numérotées à plat (ligne * nombre de colonnes + colonne) et les tables de voisins (4 et 8 voisins) sont
+ * calculées une fois par taille de grille, puis partagées entre tous les états et tous les threads.
+ * Un voisin hors de la grille est remplacé par la case sentinelle, d'indice getCells() : il suffit que
+ * les tableaux indexés par case aient une case de plus, toujours bloquée, pour ne jamais tester les bords.
+ */
+public final class GridTopology {
+
+    /** Nombre de voisins dans le 4-voisinage : haut, bas, gauche, droite (l'ordre des actions). */
+    public static final int N4 = 4;
+    /** Nombre de voisins dans le 8-voisinage : le 4-voisinage puis les diagonales. */
+    public static final int N8 = 8;
+
+    private static final ConcurrentHashMap<Long, GridTopology> CACHE = new ConcurrentHashMap<>();
+
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final int[] rowOf; // Ligne de chaque case
+    private final int[] colOf; // Colonne de chaque case
+    private final int[] neighbours4; // neighbours4[case * 4 + direction]
+    private final int[] neighbours8; // neighbours8[case * 8 + direction]
+
+    /**
+     * Constructeur de la class GridTopology.
+     *
+     * @param rows Le nombre de lignes.
+     * @param cols Le nombre de colonnes.
+     */
+    private GridTopology(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = rows * cols;
+        this.rowOf = new int[cells];
+        this.colOf = new int[cells];
+        this.neighbours4 = new int[(cells + 1) * N4];
+        this.neighbours8 = new int[(cells + 1) * N8];
+
+        int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, // Horizontales et verticales
+                { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } }; // Diagonales
+
+        for (int cell = 0; cell < cells; cell++) {
+            rowOf[cell] = cell / cols;
+            colOf[cell] = cell % cols;
+            for (int d = 0; d < N8; d++) {
+                int x = rowOf[cell] + directions[d][0];
+                int y = colOf[cell] + directions[d][1];
+                int neighbour = x >= 0 && x < rows && y >= 0 && y < cols ? x * cols + y : cells;
+                neighbours8[cell * N8 + d] = neighbour;
+                if (d < N4) {
+                    neighbours4[cell * N4 + d] = neighbour;
+                }
+            }
+        }
+
+        // Les voisins de la sentinelle sont la sentinelle
+        for (int d = 0; d < N8; d++) {
+            neighbours8[cells * N8 + d] = cells;
+            if (d < N4) {
+                neighbours4[cells * N4 + d] = cells;
+            }
+        }
+    }
+
+    /**
+     * Retourne la topologie partagée d'une taille de grille.
+     *
+     * @param rows Le nombre de lignes.
+     * @param cols Le nombre de colonnes.
+     * @return     La topologie de cette taille.
+     */
+    public static GridTopology of(int rows, int cols) {
+        return CACHE.computeIfAbsent(((long) rows << 32) | cols, key -> new GridTopology(rows, cols));
+    }
+
+    /**
+     * Retourne la topologie partagée de la grille d'un état.
+     *
+     * @param grid La grille du jeu.
+     * @return     La topologie de la grille.
+     */
+    public static GridTopology of(Player[][] grid) {
+        return of(grid.length, grid[0].length);
+    }
+
+    /**
+     * Obtient le nombre de lignes.
+     *
+     * @return Le nombre de lignes.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Obtient le nombre de colonnes.
+     *
+     * @return Le nombre de colonnes.
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Obtient le nombre de cases, qui est aussi l'indice de la case sentinelle.
+     *
+     * @return Le nombre de cases.
+     */
+    public int getCells() {
+        return cells;
+    }
+
+    /**
+     * Calcule l'indice à plat d'une case.
+     *
+     * @param x La ligne.
+     * @param y La colonne.
+     * @return  L'indice de la case.
+     */
+    public int index(int x, int y) {
+        return x * cols + y;
+    }
+
+    /**
+     * Obtient la ligne d'une case.
+     *
+     * @param cell L'indice de la case (pas la sentinelle).
+     * @return     La ligne.
+     */
+    public int row(int cell) {
+        return rowOf[cell];
+    }
+
+    /**
+     * Obtient la colonne d'une case.
+     *
+     * @param cell L'indice de la case (pas la sentinelle).
+     * @return     La colonne.
+     */
+    public int col(int cell) {
+        return colOf[cell];
+    }
+
+    /**
+     * Obtient un voisin dans le 4-voisinage.
+     *
+     * @param cell      L'indice de la case.
+     * @param direction La direction : 0 haut, 1 bas, 2 gauche, 3 droite.
+     * @return          L'indice du voisin, ou la sentinelle s'il sort de la grille.
+     */
+    public int neighbour4(int cell, int direction) {
+        return neighbours4[cell * N4 + direction];
+    }
+
+    /**
+     * Obtient la table à plat du 4-voisinage, partagée et à ne pas modifier.
+     *
+     * @return La table : le voisin de la case c dans la direction d est à l'indice c * 4 + d.
+     */
+    public int[] neighbours4() {
+        return neighbours4;
+    }
+
+    /**
+     * Obtient la table à plat du 8-voisinage, partagée et à ne pas modifier.
+     *
+     * @return La table : le voisin de la case c dans la direction d est à l'indice c * 8 + d.
+     */
+    public int[] neighbours8() {
+        return neighbours8;
+    }
+
+    /**
+     * Vérifie si une case est vide, sans construire le tableau des cases vides.
+     *
+     * @param grid La grille du jeu.
+     * @param cell L'indice de la case, éventuellement la sentinelle.
+     * @return     true si la case est dans la grille et vide, sinon false.
+     */
+    public boolean isFree(Player[][] grid, int cell) {
+        return cell != cells && grid[rowOf[cell]][colOf[cell]] == null;
+    }
+
+    /**
+     * Construit le tableau des cases vides d'une grille, sentinelle comprise (toujours bloquée).
+     *
+     * @param grid La grille du jeu.
+     * @param free Un tableau de getCells() + 1 cases à remplir, ou null pour en allouer un.
+     * @return     Le tableau des cases vides.
+     */
+    public boolean[] freeCells(Player[][] grid, boolean[] free) {
+        if (free == null || free.length != cells + 1) {
+            free = new boolean[cells + 1];
+        }
+        int cell = 0;
+        for (int x = 0; x < rows; x++) {
+            Player[] row = grid[x];
+            for (int y = 0; y < cols; y++) {
+                free[cell++] = row[y] == null;
+            }
+        }
+        free[cells] = false;
+        return free;
+    }
+}
@@ -0,0 +1,72 @@
+package model.jeu;
+
+import java.util.SplittableRandom;
+
+/**
+ * La class RandomSource fournit le hasard des parties à partir d'une seule graine : chaque partie reçoit
+ * un générateur SplittableRandom qui ne dépend que de la graine et du numéro de la partie, et chaque
+ * joueur aléatoire reçoit un générateur séparé de celui de sa partie. Les parties peuvent ainsi être
+ * jouées dans n'importe quel ordre, sur n'importe quel nombre de threads, sans partager d'état, et un
+ * tournoi se rejoue à l'identique avec la même graine.
+ */
+public final class RandomSource {
+
+    /** Propriété système donnant la graine des parties. */
+    public static final String SEED_PROPERTY = "tron.seed";
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L; // Pas de la suite de Weyl de SplittableRandom
+
+    private final long seed;
+
+    /**
+     * Constructeur de la class RandomSource.
+     *
+     * @param seed La graine.
+     */
+    public RandomSource(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Crée la source de hasard de la propriété système tron.seed, ou d'une graine tirée au hasard si la
+     * propriété n'est pas donnée (getSeed permet alors de rejouer la partie).
+     *
+     * @return La source de hasard.
+     */
+    public static RandomSource fromSystemProperty() {
+        Long seed = Long.getLong(SEED_PROPERTY);
+        return new RandomSource(seed != null ? seed : new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Obtient la graine.
+     *
+     * @return La graine.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Crée le générateur d'une partie, indépendant de ceux des autres parties.
+     *
+     * @param game Le numéro de la partie.
+     * @return     Le générateur de la partie.
+     */
+    public SplittableRandom forGame(long game) {
+        return new SplittableRandom(mix(seed + (game + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Mélange les bits d'une valeur (fonction de finalisation de SplitMix64), pour que des parties de
+     * numéros voisins aient des graines sans rapport.
+     *
+     * @param z La valeur.
+     * @return  La valeur mélangée.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
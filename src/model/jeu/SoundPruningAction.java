@@ -0,0 +1,145 @@
+package model.jeu;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * La class SoundPruningAction est un générateur de coups qui écarte les coups dominés : un coup qui
+ * mène vers une région privée de cases vides (qu'aucune tête d'un autre joueur vivant ne borde)
+ * strictement plus petite qu'une autre région privée accessible (cul-de-sac, poche d'une case, petite
+ * poche fermée) n'est pas proposé aux algorithmes de recherche. Une région partagée avec un adversaire
+ * n'écarte jamais rien et n'est jamais écartée : y entrer peut être le coup gagnant même si elle est
+ * plus petite, ou plus risqué même si elle est plus grande.
+ *
+ * La règle reste une heuristique : la surface d'une région privée borne le nombre de coups que le joueur
+ * pourra y jouer, sans lui être toujours égale (une région en chambres ne se remplit pas entièrement).
+ * La taille des régions est obtenue par un remplissage sur BitBoard.
+ */
+public class SoundPruningAction extends Action {
+
+	private long generatedMoves; // Nombre de coups générés avant élagage
+	private long prunedMoves; // Nombre de coups écartés, donc de sous-arbres non explorés
+
+	/**
+     * Retourne la liste des actions possibles pour un joueur, sans les coups dominés sur la surface
+     * atteignable.
+     *
+     * @param state         L'état actuel du jeu.
+     * @param currentPlayer Le joueur pour lequel les actions sont évaluées.
+     * @return              La liste des actions non dominées pour le joueur.
+     */
+	@Override
+	public List<String> actionsPossible(StateGame state, Player currentPlayer) {
+		List<String> actions = super.actionsPossible(state, currentPlayer);
+		generatedMoves += actions.size();
+		if (actions.size() < 2) {
+			return actions;
+		}
+
+		Point position = state.getPlayerPosition().get(currentPlayer);
+		BitBoard free = BitBoard.freeCells(state.getGrid());
+		BitBoard[] regions = new BitBoard[actions.size()];
+		int[] areas = new int[actions.size()];
+		boolean[] shared = new boolean[actions.size()];
+		int maxPrivateArea = 0;
+
+		for (int i = 0; i < actions.size(); i++) {
+			Point destination = destination(position, actions.get(i));
+
+			// Deux coups qui entrent dans la même région ont la même surface : un seul remplissage suffit
+			for (int j = 0; j < i && regions[i] == null; j++) {
+				if (regions[j].get(destination.x, destination.y)) {
+					regions[i] = regions[j];
+					areas[i] = areas[j];
+					shared[i] = shared[j];
+				}
+			}
+			if (regions[i] == null) {
+				regions[i] = free.fill(destination.x, destination.y);
+				areas[i] = regions[i].count();
+				shared[i] = reachedByOpponent(state, currentPlayer, regions[i]);
+			}
+			if (!shared[i]) {
+				maxPrivateArea = Math.max(maxPrivateArea, areas[i]);
+			}
+		}
+
+		for (int i = actions.size() - 1; i >= 0; i--) {
+			if (!shared[i] && areas[i] < maxPrivateArea) {
+				actions.remove(i);
+				prunedMoves++;
+			}
+		}
+		return actions;
+	}
+
+	/**
+     * Obtient le nombre de coups générés avant élagage.
+     *
+     * @return  Le nombre de coups générés.
+     */
+	public long getGeneratedMoves() {
+		return generatedMoves;
+	}
+
+	/**
+     * Obtient le nombre de coups écartés : chacun est un sous-arbre que les algorithmes n'explorent pas.
+     *
+     * @return  Le nombre de coups écartés.
+     */
+	public long getPrunedMoves() {
+		return prunedMoves;
+	}
+
+	/**
+     * Remet à zéro les compteurs de coups générés et écartés.
+     */
+	public void resetStatistics() {
+		this.generatedMoves = 0;
+		this.prunedMoves = 0;
+	}
+
+	/**
+     * Vérifie si un autre joueur vivant peut entrer dans une région : sa tête touche l'une de ses cases.
+     *
+     * @param state         L'état actuel du jeu.
+     * @param currentPlayer Le joueur qui cherche ses coups.
+     * @param region        La région.
+     * @return              true si la région est partagée avec un adversaire, false si elle est privée.
+     */
+	private static boolean reachedByOpponent(StateGame state, Player currentPlayer, BitBoard region) {
+		for (Map.Entry<Player, Point> entry : state.getPlayerPosition().entrySet()) {
+			Player other = entry.getKey();
+			Point head = entry.getValue();
+			if (other == currentPlayer || !other.getIsAlive()) {
+				continue;
+			}
+			if (region.get(head.x - 1, head.y) || region.get(head.x + 1, head.y)
+					|| region.get(head.x, head.y - 1) || region.get(head.x, head.y + 1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+     * Calcule la case atteinte par une action.
+     *
+     * @param position  La position du joueur.
+     * @param action    L'action.
+     * @return          La case d'arrivée.
+     */
+	private static Point destination(Point position, String action) {
+		switch (action) {
+		case "up":
+			return new Point(position.x - 1, position.y);
+		case "down":
+			return new Point(position.x + 1, position.y);
+		case "left":
+			return new Point(position.x, position.y - 1);
+		default:
+			return new Point(position.x, position.y + 1);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package model.jeu;
 
 import java.awt.Point;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -13,7 +14,7 @@ public class StateGame {
     private Player[][] grid; // Matrice représentant la grille du jeu
     private Map<Player, Point> playerPosition; // Map associant chaque joueur à sa position sur la grille
     private Player currentPlayer; // Joueur actuel dans l'état
-    private Map<Point, Integer> regionOwners; // Structure de données pour stocker les propriétaires de région
+    private int[] regionOwners; // Propriétaire de région de chaque case à plat, alloué à la première affectation
     public Map<Player, Set<Player>> teamPlayers;// map qui permet de stocker chaque joueur avec ces co-équipiers
 
     /**
@@ -27,7 +28,6 @@ public class StateGame {
         this.grid = grille;
         this.playerPosition = playerPos;
         this.currentPlayer = currentPlayer;
-        this.regionOwners = new HashMap<>(); // Initialisation de la structure de données
         this.teamPlayers = new HashMap<>(); // Initialisation du map pour représenter les équipes
     }
 
@@ -39,7 +39,11 @@ public class StateGame {
      * @param regionOwner  L'identifiant du joueur propriétaire de la région.
      */
     public void setRegionOwner(int row, int col, int regionOwner) {
-        regionOwners.put(new Point(row, col), regionOwner);
+        if (regionOwners == null) {
+            regionOwners = new int[grid.length * grid[0].length];
+            Arrays.fill(regionOwners, -1);
+        }
+        regionOwners[row * grid[0].length + col] = regionOwner;
     }
 
     /**
@@ -50,7 +54,7 @@ public class StateGame {
      * @return L'identifiant du joueur propriétaire de la région de la case spécifiée, ou -1 si la case n'a pas de propriétaire défini.
      */
     public int getRegionOwner(int row, int col) {
-        return regionOwners.getOrDefault(new Point(row, col), -1);
+        return regionOwners == null ? -1 : regionOwners[row * grid[0].length + col];
     }
 
 
@@ -119,18 +123,16 @@ public class StateGame {
     }
 
     /**
-     * Affiche la grille du jeu.
+     * Affiche la grille du jeu, construite en entier puis écrite en un seul appel.
      */
     public void showGrid() {
+        StringBuilder frame = new StringBuilder(this.grid.length * (this.grid[0].length * 3 + 1));
         for (int row = 0; row < this.grid.length; row++) {
-            for (int col = 0; col < this.grid.length; col++) {
-                if (this.grid[row][col] != null) {
-                    System.out.print(" " + this.grid[row][col].getSymbole() + " ");
-                } else {
-                    System.out.print(" . ");
-                }
+            for (int col = 0; col < this.grid[row].length; col++) {
+                frame.append(' ').append(this.grid[row][col] != null ? this.grid[row][col].getSymbole() : '.').append(' ');
             }
-            System.out.println(); // Saut de ligne après chaque ligne de la grille
+            frame.append('\n'); // Saut de ligne après chaque ligne de la grille
         }
+        System.out.print(frame);
     }
 }
@@ -16,8 +16,10 @@ import model.evaluation.StateEvaluation;
 import model.evaluation.Voronoi;
 import model.evaluation.VoronoiStateEvaluation;
 import model.jeu.Action;
+import model.jeu.GameListener;
 import model.jeu.Player;
 import model.jeu.StateGame;
+import vue.ConsoleGameListener;
 
 public class DemoParametrable {
     public static void main(String[] args) {
@@ -307,10 +309,12 @@ public class DemoParametrable {
         // Initialisation de l'état de jeu initial
         StateGame initialState = new StateGame(grid, sortedMapPlayers, currentPlayer);
         initialState.setTeamPlayers(teamPlayers);
-        initialState.showGrid();
+        GameListener listener = new ConsoleGameListener();
+        listener.onGameStart(initialState);
 
         // Initialisation des algorithmes
         Action action = new Action();
+        action.setListener(listener);
         Voronoi voronoi = new Voronoi();
         StateEvaluation voronoiEvaluation = new VoronoiStateEvaluation();
         MaxNAlgorithme maxn = new MaxNAlgorithme(voronoiEvaluation, action);
@@ -318,6 +322,7 @@ public class DemoParametrable {
         SOSAlgorithm sos = new SOSAlgorithm(voronoiEvaluation, action);
 
         // Boucle principale du jeu
+        int turn = 0;
         while (true) {
             if (mode == 1) {
                 if (maxn.isTerminal(initialState)) {
@@ -367,7 +372,7 @@ public class DemoParametrable {
             // Application des actions de chaque joueur et affichage de la grille de jeu
             initialState = action.applyActions(initialState, playerActions);
             initialState.setTeamPlayers(teamPlayers);
-            initialState.showGrid();
+            listener.onTurnEnd(initialState, ++turn);
         }
 
         // Affichage du joueur gagnant ou indication d'une partie nulle
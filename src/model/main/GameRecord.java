@@ -0,0 +1,280 @@
+package model.main;
+
+import java.util.Arrays;
+
+/**
+ * La class GameRecord est l'enregistrement compact d'une partie de GameSimulation : la graine et le numéro
+ * de la partie (RandomSource.forGame), la grille, le siège et la case de départ de chaque joueur, puis les
+ * coups joués à 2 bits par coup (indice dans MoveOrdering.ACTIONS), et enfin le résultat : le nombre de
+ * tours, le tour où chaque joueur a été éliminé et les joueurs gagnants.
+ *
+ * Les coups sont rangés tour par tour et, dans un tour, par identifiant de joueur croissant, comme
+ * GameSimulation les applique. Un joueur éliminé au tour d joue aux tours 0 à d - 1 et plus ensuite (son
+ * dernier coup, refusé ou absent, n'est pas enregistré) : le tour d'élimination suffit à savoir quel
+ * joueur a joué chaque coup. Un coup dont la case a été prise plus tôt dans le même tour est enregistré
+ * mais sans effet : le rejouer avec Action.applyActions l'ignore de la même façon.
+ */
+public final class GameRecord {
+
+    private final long seed;
+    private final long game;
+    private final int rows;
+    private final int cols;
+    private final int[] seats; // Siège de chaque joueur, par identifiant
+    private final int[] startCells; // Case de départ de chaque joueur, numérotée à plat
+    private final byte[] moves; // 4 coups par octet, bits de poids faible d'abord
+    private final int moveCount;
+    private final int rounds;
+    private final int[] eliminationRounds; // Tour d'élimination de chaque joueur, rounds s'il a survécu
+    private final long winnerMask; // Joueurs gagnants (eux-mêmes ou leur équipe a survécu)
+
+    /**
+     * Constructeur de la class GameRecord.
+     *
+     * @param seed              La graine du tournoi.
+     * @param game              Le numéro de la partie.
+     * @param rows              Le nombre de lignes de la grille.
+     * @param cols              Le nombre de colonnes de la grille.
+     * @param seats             Le siège de chaque joueur.
+     * @param startCells        La case de départ de chaque joueur.
+     * @param moves             Les coups, 4 par octet.
+     * @param moveCount         Le nombre de coups.
+     * @param rounds            Le nombre de tours.
+     * @param eliminationRounds Le tour d'élimination de chaque joueur.
+     * @param winnerMask        Les identifiants des joueurs gagnants.
+     */
+    public GameRecord(long seed, long game, int rows, int cols, int[] seats, int[] startCells, byte[] moves,
+            int moveCount, int rounds, int[] eliminationRounds, long winnerMask) {
+        this.seed = seed;
+        this.game = game;
+        this.rows = rows;
+        this.cols = cols;
+        this.seats = seats;
+        this.startCells = startCells;
+        this.moves = moves;
+        this.moveCount = moveCount;
+        this.rounds = rounds;
+        this.eliminationRounds = eliminationRounds;
+        this.winnerMask = winnerMask;
+    }
+
+    /**
+     * Obtient la graine du tournoi.
+     *
+     * @return La graine.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Obtient le numéro de la partie dans le tournoi.
+     *
+     * @return Le numéro de la partie.
+     */
+    public long getGame() {
+        return game;
+    }
+
+    /**
+     * Obtient le nombre de lignes de la grille.
+     *
+     * @return Le nombre de lignes.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Obtient le nombre de colonnes de la grille.
+     *
+     * @return Le nombre de colonnes.
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Obtient le nombre de joueurs.
+     *
+     * @return Le nombre de joueurs.
+     */
+    public int getNumPlayers() {
+        return seats.length;
+    }
+
+    /**
+     * Obtient le siège d'un joueur.
+     *
+     * @param player L'identifiant du joueur.
+     * @return       Le siège.
+     */
+    public int getSeat(int player) {
+        return seats[player];
+    }
+
+    /**
+     * Obtient la case de départ d'un joueur.
+     *
+     * @param player L'identifiant du joueur.
+     * @return       La case, numérotée à plat (ligne * colonnes + colonne).
+     */
+    public int getStartCell(int player) {
+        return startCells[player];
+    }
+
+    /**
+     * Obtient le nombre de coups joués.
+     *
+     * @return Le nombre de coups.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Obtient un coup.
+     *
+     * @param index L'indice du coup dans la partie.
+     * @return      L'indice de la direction dans MoveOrdering.ACTIONS.
+     */
+    public int getMove(int index) {
+        return moves[index >>> 2] >>> ((index & 3) << 1) & 3;
+    }
+
+    /**
+     * Obtient le nombre de tours joués.
+     *
+     * @return Le nombre de tours.
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Obtient le tour où un joueur a été éliminé.
+     *
+     * @param player L'identifiant du joueur.
+     * @return       Le tour, ou getRounds() si le joueur a survécu.
+     */
+    public int getEliminationRound(int player) {
+        return eliminationRounds[player];
+    }
+
+    /**
+     * Vérifie si un joueur a gagné, seul ou avec son équipe.
+     *
+     * @param player L'identifiant du joueur.
+     * @return       true si le joueur a gagné.
+     */
+    public boolean isWinner(int player) {
+        return (winnerMask >>> player & 1) != 0;
+    }
+
+    /**
+     * Obtient les joueurs gagnants.
+     *
+     * @return Le masque des identifiants des joueurs gagnants.
+     */
+    public long getWinnerMask() {
+        return winnerMask;
+    }
+
+    byte[] packedMoves() {
+        return moves;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameRecord)) {
+            return false;
+        }
+        GameRecord record = (GameRecord) other;
+        return seed == record.seed && game == record.game && rows == record.rows && cols == record.cols
+                && moveCount == record.moveCount && rounds == record.rounds && winnerMask == record.winnerMask
+                && Arrays.equals(seats, record.seats) && Arrays.equals(startCells, record.startCells)
+                && Arrays.equals(eliminationRounds, record.eliminationRounds)
+                && Arrays.equals(moves, 0, (moveCount + 3) >>> 2, record.moves, 0, (moveCount + 3) >>> 2);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(seed * 31 + game) * 31 + moveCount;
+    }
+
+    /**
+     * Construit l'enregistrement d'une partie pendant qu'elle est jouée.
+     */
+    public static final class Builder {
+
+        private final int rows;
+        private final int cols;
+        private final int[] seats;
+        private final int[] startCells;
+        private final int[] eliminationRounds;
+        private byte[] moves = new byte[16];
+        private int moveCount;
+
+        /**
+         * Constructeur du Builder.
+         *
+         * @param rows       Le nombre de lignes de la grille.
+         * @param cols       Le nombre de colonnes de la grille.
+         * @param seats      Le siège de chaque joueur.
+         * @param startCells La case de départ de chaque joueur.
+         */
+        public Builder(int rows, int cols, int[] seats, int[] startCells) {
+            this.rows = rows;
+            this.cols = cols;
+            this.seats = seats.clone();
+            this.startCells = startCells.clone();
+            this.eliminationRounds = new int[seats.length];
+            Arrays.fill(eliminationRounds, -1);
+        }
+
+        /**
+         * Ajoute un coup.
+         *
+         * @param direction L'indice de la direction dans MoveOrdering.ACTIONS.
+         */
+        public void addMove(int direction) {
+            if (moveCount >>> 2 == moves.length) {
+                moves = Arrays.copyOf(moves, moves.length * 2);
+            }
+            moves[moveCount >>> 2] |= (byte) (direction << ((moveCount & 3) << 1));
+            moveCount++;
+        }
+
+        /**
+         * Note l'élimination d'un joueur.
+         *
+         * @param player L'identifiant du joueur.
+         * @param round  Le tour de l'élimination, à partir de 0.
+         */
+        public void eliminate(int player, int round) {
+            if (eliminationRounds[player] < 0) {
+                eliminationRounds[player] = round;
+            }
+        }
+
+        /**
+         * Termine l'enregistrement.
+         *
+         * @param seed       La graine du tournoi.
+         * @param game       Le numéro de la partie.
+         * @param rounds     Le nombre de tours joués.
+         * @param winnerMask Les identifiants des joueurs gagnants.
+         * @return           L'enregistrement.
+         */
+        public GameRecord build(long seed, long game, int rounds, long winnerMask) {
+            int[] eliminated = eliminationRounds.clone();
+            for (int i = 0; i < eliminated.length; i++) {
+                if (eliminated[i] < 0) {
+                    eliminated[i] = rounds;
+                }
+            }
+            return new GameRecord(seed, game, rows, cols, seats, startCells,
+                    Arrays.copyOf(moves, (moveCount + 3) >>> 2), moveCount, rounds, eliminated, winnerMask);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package model.main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * La class GameRecordReader lit un fichier écrit par GameRecordWriter, partie après partie, du début à
+ * la fin. Le fichier est lu par blocs d'un mégaoctet et chaque partie est décodée directement dans le
+ * tampon : la lecture parcourt plusieurs millions de parties par seconde, et skip() saute une partie en
+ * ne lisant que sa longueur.
+ */
+public class GameRecordReader implements Closeable {
+
+    private final InputStream in;
+    private byte[] buffer = new byte[1 << 20];
+    private int position;
+    private int limit;
+    private long bufferOffset; // Position dans le fichier du début du tampon
+    private long completeLength; // Fin du dernier enregistrement complet lu
+    private boolean truncated;
+    private int cursor; // Position de décodage dans le tampon
+
+    /**
+     * Ouvre un fichier d'enregistrements.
+     *
+     * @param file Le fichier.
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas un fichier d'enregistrements.
+     */
+    public GameRecordReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    /**
+     * Lit des enregistrements depuis un flux, en-tête compris.
+     *
+     * @param in Le flux.
+     * @throws IOException si le flux ne commence pas par l'en-tête d'un fichier d'enregistrements.
+     */
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = in;
+        if (!fill(GameRecordWriter.HEADER_SIZE)) {
+            in.close();
+            throw new IOException("Fichier d'enregistrements trop court");
+        }
+        int magic = (buffer[0] & 0xFF) << 24 | (buffer[1] & 0xFF) << 16 | (buffer[2] & 0xFF) << 8 | buffer[3] & 0xFF;
+        if (magic != GameRecordWriter.MAGIC || buffer[4] != GameRecordWriter.VERSION) {
+            in.close();
+            throw new IOException("Ce fichier n'est pas un fichier d'enregistrements de parties");
+        }
+        position = GameRecordWriter.HEADER_SIZE;
+        completeLength = position;
+    }
+
+    /**
+     * Lit la partie suivante.
+     *
+     * @return La partie, ou null à la fin du fichier.
+     * @throws IOException si la lecture échoue.
+     */
+    public GameRecord read() throws IOException {
+        int bodyLength = nextLength();
+        if (bodyLength < 0) {
+            return null;
+        }
+        cursor = position;
+        long seed = 0;
+        for (int i = 0; i < 8; i++) {
+            seed = seed << 8 | buffer[cursor++] & 0xFF;
+        }
+        long game = varLong();
+        int rows = (int) varLong();
+        int cols = (int) varLong();
+        int numPlayers = buffer[cursor++] & 0xFF;
+        int[] seats = new int[numPlayers];
+        int[] startCells = new int[numPlayers];
+        for (int player = 0; player < numPlayers; player++) {
+            seats[player] = buffer[cursor++] & 0xFF;
+            startCells[player] = (int) varLong();
+        }
+        int moveCount = (int) varLong();
+        int moveBytes = (moveCount + 3) >>> 2;
+        byte[] moves = Arrays.copyOfRange(buffer, cursor, cursor + moveBytes);
+        cursor += moveBytes;
+        int rounds = (int) varLong();
+        int[] eliminationRounds = new int[numPlayers];
+        for (int player = 0; player < numPlayers; player++) {
+            eliminationRounds[player] = (int) varLong();
+        }
+        long winnerMask = varLong();
+        if (cursor != position + bodyLength) {
+            throw new IOException("Enregistrement mal formé à la position " + (bufferOffset + position));
+        }
+        consume(bodyLength);
+        return new GameRecord(seed, game, rows, cols, seats, startCells, moves, moveCount, rounds,
+                eliminationRounds, winnerMask);
+    }
+
+    /**
+     * Saute la partie suivante sans la décoder.
+     *
+     * @return true si une partie a été sautée, false à la fin du fichier.
+     * @throws IOException si la lecture échoue.
+     */
+    public boolean skip() throws IOException {
+        int bodyLength = nextLength();
+        if (bodyLength < 0) {
+            return false;
+        }
+        consume(bodyLength);
+        return true;
+    }
+
+    /**
+     * Vérifie si le fichier se termine par un enregistrement incomplet, laissé par une écriture
+     * interrompue. Cet enregistrement est ignoré par la lecture.
+     *
+     * @return true si la fin du fichier est incomplète.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Obtient la position dans le fichier de la fin de la dernière partie complète lue.
+     *
+     * @return La position, en octets.
+     */
+    public long getCompleteLength() {
+        return completeLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Lit la longueur de l'enregistrement suivant et s'assure qu'il est entièrement dans le tampon.
+     *
+     * @return La longueur du corps de l'enregistrement, ou -1 à la fin du fichier.
+     * @throws IOException si la lecture échoue.
+     */
+    private int nextLength() throws IOException {
+        if (!fill(1)) {
+            return -1;
+        }
+        fill(5);
+        long value = 0;
+        int shift = 0;
+        cursor = position;
+        while (true) {
+            if (cursor == limit || shift > 28) {
+                truncated = true;
+                return -1;
+            }
+            byte b = buffer[cursor++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+            shift += 7;
+        }
+        position = cursor;
+        if (!fill((int) value)) {
+            truncated = true;
+            return -1;
+        }
+        return (int) value;
+    }
+
+    private void consume(int bodyLength) {
+        position += bodyLength;
+        completeLength = bufferOffset + position;
+    }
+
+    private long varLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[cursor++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * S'assure qu'au moins count octets sont disponibles dans le tampon à partir de position.
+     *
+     * @param count Le nombre d'octets.
+     * @return      true si les octets sont disponibles, false si le fichier se termine avant.
+     * @throws IOException si la lecture échoue.
+     */
+    private boolean fill(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            bufferOffset += position;
+            limit -= position;
+            position = 0;
+        }
+        if (count > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(count, buffer.length * 2));
+        }
+        while (limit < count) {
+            int n = in.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                return false;
+            }
+            limit += n;
+        }
+        return true;
+    }
+}
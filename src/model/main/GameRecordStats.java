@@ -0,0 +1,58 @@
+package model.main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Relit un fichier de parties enregistrées par Tournament ou SelfPlay (option -record) et affiche les
+ * victoires de chaque siège, la longueur des parties et la vitesse de lecture.
+ */
+public class GameRecordStats {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Utilisation : GameRecordStats <fichier>");
+            return;
+        }
+        long games = 0;
+        long draws = 0;
+        long moves = 0;
+        long rounds = 0;
+        long[] wins = new long[64];
+        int numSeats = 0;
+        long start = System.nanoTime();
+        boolean truncated;
+        try (GameRecordReader reader = new GameRecordReader(Path.of(args[0]))) {
+            GameRecord record;
+            while ((record = reader.read()) != null) {
+                games++;
+                moves += record.getMoveCount();
+                rounds += record.getRounds();
+                if (record.getWinnerMask() == 0) {
+                    draws++;
+                }
+                for (int player = 0; player < record.getNumPlayers(); player++) {
+                    if (record.isWinner(player)) {
+                        wins[record.getSeat(player)]++;
+                    }
+                }
+                numSeats = Math.max(numSeats, record.getNumPlayers());
+            }
+            truncated = reader.isTruncated();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (games == 0) {
+            System.out.println("Aucune partie dans " + args[0]);
+            return;
+        }
+
+        System.out.println(games + " parties dans " + args[0] + (truncated ? " (dernière partie incomplète ignorée)" : ""));
+        for (int seat = 0; seat < numSeats; seat++) {
+            System.out.printf("Siège %d : %d victoires (%.1f %%)%n", seat + 1, wins[seat], 100.0 * wins[seat] / games);
+        }
+        System.out.printf("Parties nulles : %d (%.1f %%)%n", draws, 100.0 * draws / games);
+        System.out.printf("Tours par partie : %.1f, coups par partie : %.1f%n", (double) rounds / games,
+                (double) moves / games);
+        System.out.printf("Lecture : %.2f s, %.0f parties/s%n", seconds, games / seconds);
+    }
+}
@@ -0,0 +1,166 @@
+package model.main;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * La class GameRecordWriter ajoute des GameRecord à la fin d'un fichier. Le fichier commence par un
+ * en-tête (MAGIC, VERSION), suivi des enregistrements les uns après les autres, chacun précédé de sa
+ * longueur. Les entiers sont écrits en varint (7 bits par octet, bit de poids fort pour « suite ») :
+ *
+ *   graine (8 octets), numéro de partie, lignes, colonnes, nombre de joueurs (1 octet),
+ *   pour chaque joueur : siège (1 octet) et case de départ,
+ *   nombre de coups, coups (4 par octet),
+ *   nombre de tours, pour chaque joueur : tour d'élimination, masque des gagnants.
+ *
+ * Une partie de 4 joueurs sur une grille de 10 x 10 tient en une cinquantaine d'octets. Chaque
+ * enregistrement est écrit d'un bloc : si le programme s'arrête au milieu d'une écriture, le dernier
+ * enregistrement incomplet est retiré à la réouverture du fichier.
+ */
+public class GameRecordWriter implements Closeable {
+
+    static final int MAGIC = 0x54524752; // "TRGR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5;
+
+    private final OutputStream out;
+    private byte[] buffer = new byte[256];
+    private int length;
+    private long written;
+
+    /**
+     * Ouvre un fichier d'enregistrements pour y ajouter des parties. Le fichier est créé s'il n'existe
+     * pas ; s'il existe, les nouvelles parties sont ajoutées après les anciennes.
+     *
+     * @param file Le fichier.
+     * @throws IOException si le fichier ne peut pas être ouvert ou n'est pas un fichier d'enregistrements.
+     */
+    public GameRecordWriter(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put((byte) VERSION);
+                header.flip();
+                channel.write(header);
+            } else {
+                channel.truncate(completeLength(file));
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+    }
+
+    /**
+     * Cherche la fin du dernier enregistrement complet d'un fichier existant.
+     *
+     * @param file Le fichier.
+     * @return     La longueur du fichier sans l'éventuel enregistrement incomplet.
+     * @throws IOException si le fichier n'est pas un fichier d'enregistrements.
+     */
+    private static long completeLength(Path file) throws IOException {
+        try (GameRecordReader reader = new GameRecordReader(file)) {
+            while (reader.skip()) {
+                // Parcours des longueurs seulement
+            }
+            return reader.getCompleteLength();
+        }
+    }
+
+    /**
+     * Ajoute une partie. Peut être appelée depuis plusieurs threads : chaque enregistrement est écrit
+     * d'un seul bloc.
+     *
+     * @param record La partie.
+     * @throws IOException si l'écriture échoue.
+     */
+    public synchronized void write(GameRecord record) throws IOException {
+        int numPlayers = record.getNumPlayers();
+        length = 0;
+        putLong(record.getSeed());
+        putVarLong(record.getGame());
+        putVarLong(record.getRows());
+        putVarLong(record.getCols());
+        put(numPlayers);
+        for (int player = 0; player < numPlayers; player++) {
+            put(record.getSeat(player));
+            putVarLong(record.getStartCell(player));
+        }
+        int moveCount = record.getMoveCount();
+        putVarLong(moveCount);
+        int moveBytes = (moveCount + 3) >>> 2;
+        ensure(moveBytes);
+        System.arraycopy(record.packedMoves(), 0, buffer, length, moveBytes);
+        length += moveBytes;
+        putVarLong(record.getRounds());
+        for (int player = 0; player < numPlayers; player++) {
+            putVarLong(record.getEliminationRound(player));
+        }
+        putVarLong(record.getWinnerMask());
+
+        int bodyLength = length;
+        putVarLong(bodyLength);
+        out.write(buffer, bodyLength, length - bodyLength); // Longueur, puis corps de l'enregistrement
+        out.write(buffer, 0, bodyLength);
+        written++;
+    }
+
+    /**
+     * Obtient le nombre de parties écrites depuis l'ouverture du fichier.
+     *
+     * @return Le nombre de parties.
+     */
+    public synchronized long getWritten() {
+        return written;
+    }
+
+    /**
+     * Écrit sur le disque les parties encore en mémoire tampon.
+     *
+     * @throws IOException si l'écriture échoue.
+     */
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private void ensure(int count) {
+        if (length + count > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + count));
+        }
+    }
+
+    private void put(int value) {
+        ensure(1);
+        buffer[length++] = (byte) value;
+    }
+
+    private void putLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            put((int) (value >>> shift));
+        }
+    }
+
+    private void putVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            put((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        put((int) value);
+    }
+}
@@ -0,0 +1,356 @@
+package model.main;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La class GameResultWriter écrit une ligne par partie terminée, en CSV ou en JSON (une ligne JSON par
+ * partie), pour remplacer la lecture de l'affichage de Main par les scripts de script_bash : graine,
+ * numéro de la partie, taille de la grille, sièges (algorithme, profondeur, équipe), sièges gagnants
+ * (numérotés à partir de 1, comme dans l'affichage des tournois), nombre de tours et de coups, puis pour
+ * chaque coup cherché le siège, la durée de la recherche en microsecondes et le nombre de noeuds visités.
+ *
+ * Les lignes sont mises en forme par le thread de la partie puis écrites par un thread dédié : une
+ * écriture lente sur le disque ne ralentit pas les parties tant que le thread d'écriture a moins de
+ * QUEUE_CAPACITY lignes de retard. Au-delà, la file est pleine et write attend qu'une place se libère :
+ * la mémoire reste bornée et aucune ligne n'est perdue, au prix de parties ralenties au rythme du disque.
+ * Le fichier est vidé sur le disque dès que plus aucune ligne n'attend, et les nouvelles lignes sont
+ * ajoutées à la fin d'un fichier existant.
+ */
+public class GameResultWriter implements Closeable {
+
+    /**
+     * Le format des lignes.
+     */
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Choisit le format d'après l'extension du fichier : CSV pour « .csv », JSON sinon.
+         *
+         * @param file Le fichier.
+         * @return     Le format.
+         */
+        public static Format forFile(Path file) {
+            return file.getFileName().toString().toLowerCase().endsWith(".csv") ? CSV : JSONL;
+        }
+    }
+
+    private static final String CSV_HEADER = "seed,game,grid,seats,algorithms,depths,teams,winners,draw,rounds,moves,"
+            + "search_seats,search_us,search_nodes";
+    private static final Object END = new Object(); // Marque de fin de la file
+    private static final int QUEUE_CAPACITY = 4096; // Lignes en attente d'écriture au plus
+
+    private final Format format;
+    private final int gridSize;
+    private final List<SeatConfig> seats;
+    private final Writer out;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread thread;
+    private volatile IOException failure;
+    private boolean closed;
+
+    /**
+     * Ouvre un fichier de résultats. Le format est choisi d'après l'extension du fichier.
+     *
+     * @param file     Le fichier, créé s'il n'existe pas.
+     * @param gridSize La taille de la grille des parties.
+     * @param seats    Les sièges des parties.
+     * @throws IOException si le fichier ne peut pas être ouvert.
+     */
+    public GameResultWriter(Path file, int gridSize, List<SeatConfig> seats) throws IOException {
+        this(file, Format.forFile(file), gridSize, seats);
+    }
+
+    /**
+     * Ouvre un fichier de résultats.
+     *
+     * @param file     Le fichier, créé s'il n'existe pas.
+     * @param format   Le format des lignes.
+     * @param gridSize La taille de la grille des parties.
+     * @param seats    Les sièges des parties.
+     * @throws IOException si le fichier ne peut pas être ouvert.
+     */
+    public GameResultWriter(Path file, Format format, int gridSize, List<SeatConfig> seats) throws IOException {
+        this.format = format;
+        this.gridSize = gridSize;
+        this.seats = List.copyOf(seats);
+        boolean empty = !Files.exists(file) || Files.size(file) == 0;
+        this.out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND), StandardCharsets.UTF_8), 1 << 16);
+        if (format == Format.CSV && empty) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+        this.thread = new Thread(this::drain, "game-result-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Ajoute le résultat d'une partie. Peut être appelée depuis plusieurs threads ; la ligne est mise en
+     * forme tout de suite et écrite plus tard par le thread d'écriture. Attend si la file est pleine.
+     *
+     * @param result Le résultat de la partie.
+     * @throws IOException si une écriture précédente a échoué.
+     */
+    public void write(GameSimulation.Result result) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        enqueue(format == Format.CSV ? csv(result) : json(result));
+    }
+
+    /**
+     * Attend que les lignes déjà ajoutées soient écrites et envoyées au système.
+     *
+     * @throws IOException si une écriture a échoué.
+     */
+    public void flush() throws IOException {
+        CountDownLatch written = new CountDownLatch(1);
+        enqueue(written);
+        try {
+            while (!written.await(100, TimeUnit.MILLISECONDS)) {
+                if (!thread.isAlive()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Écriture des résultats interrompue", e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Écrit les lignes en attente puis ferme le fichier.
+     *
+     * @throws IOException si une écriture a échoué.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            enqueue(END);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Fermeture du fichier de résultats interrompue", e);
+        } finally {
+            out.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Met une ligne ou une marque dans la file, en attendant une place si elle est pleine. L'attente
+     * s'arrête si le thread d'écriture s'est arrêté sur une erreur : la file ne se viderait plus.
+     *
+     * @param item La ligne ou la marque.
+     * @throws IOException si le thread d'écriture s'est arrêté ou que l'attente est interrompue.
+     */
+    private void enqueue(Object item) throws IOException {
+        try {
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                if (!thread.isAlive()) {
+                    throw failure != null ? failure : new IOException("Thread d'écriture des résultats arrêté");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Écriture des résultats interrompue", e);
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture : écrit les lignes dans l'ordre d'arrivée et vide le tampon quand la
+     * file est vide ou qu'un appel à flush l'attend.
+     */
+    private void drain() {
+        try {
+            while (true) {
+                Object item = queue.take();
+                while (item instanceof String) {
+                    out.write((String) item);
+                    out.write('\n');
+                    item = queue.poll();
+                }
+                out.flush();
+                if (item instanceof CountDownLatch) {
+                    ((CountDownLatch) item).countDown();
+                } else if (item == END) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Met en forme le résultat d'une partie en une ligne CSV : les listes sont séparées par des
+     * points-virgules.
+     *
+     * @param result Le résultat de la partie.
+     * @return       La ligne.
+     */
+    private String csv(GameSimulation.Result result) {
+        StringBuilder line = new StringBuilder(256);
+        line.append(result.getSeed()).append(',').append(result.getGame()).append(',').append(gridSize).append(',');
+        StringBuilder specs = new StringBuilder();
+        StringBuilder algorithms = new StringBuilder();
+        StringBuilder depths = new StringBuilder();
+        StringBuilder teams = new StringBuilder();
+        for (int seat = 0; seat < seats.size(); seat++) {
+            String separator = seat > 0 ? ";" : "";
+            SeatConfig config = seats.get(seat);
+            specs.append(separator).append(config);
+            algorithms.append(separator).append(algorithmName(config));
+            depths.append(separator).append(depth(config));
+            teams.append(separator).append(config.getTeam() != null ? config.getTeam() : "");
+        }
+        csvField(line, specs.toString()).append(',');
+        line.append(algorithms).append(',').append(depths).append(',');
+        csvField(line, teams.toString()).append(',');
+        String separator = "";
+        for (int seat = 0; seat < result.getNumSeats(); seat++) {
+            if (result.isWinner(seat)) {
+                line.append(separator).append(seat + 1);
+                separator = ";";
+            }
+        }
+        line.append(',').append(result.isDraw()).append(',').append(result.getRounds()).append(',')
+                .append(result.getMoves()).append(',');
+        for (int i = 0; i < result.getDecisionCount(); i++) {
+            line.append(i > 0 ? ";" : "").append(result.getDecisionSeat(i) + 1);
+        }
+        line.append(',');
+        for (int i = 0; i < result.getDecisionCount(); i++) {
+            line.append(i > 0 ? ";" : "").append(result.getSearchNanos(i) / 1000);
+        }
+        line.append(',');
+        for (int i = 0; i < result.getDecisionCount(); i++) {
+            line.append(i > 0 ? ";" : "").append(result.getSearchNodes(i));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Met en forme le résultat d'une partie en une ligne JSON.
+     *
+     * @param result Le résultat de la partie.
+     * @return       La ligne.
+     */
+    private String json(GameSimulation.Result result) {
+        StringBuilder line = new StringBuilder(256);
+        line.append("{\"seed\":").append(result.getSeed()).append(",\"game\":").append(result.getGame())
+                .append(",\"grid\":").append(gridSize).append(",\"seats\":[");
+        for (int seat = 0; seat < seats.size(); seat++) {
+            jsonString(line.append(seat > 0 ? "," : ""), seats.get(seat).toString());
+        }
+        line.append("],\"algorithms\":[");
+        for (int seat = 0; seat < seats.size(); seat++) {
+            jsonString(line.append(seat > 0 ? "," : ""), algorithmName(seats.get(seat)));
+        }
+        line.append("],\"depths\":[");
+        for (int seat = 0; seat < seats.size(); seat++) {
+            line.append(seat > 0 ? "," : "").append(depth(seats.get(seat)));
+        }
+        line.append("],\"teams\":[");
+        for (int seat = 0; seat < seats.size(); seat++) {
+            String team = seats.get(seat).getTeam();
+            line.append(seat > 0 ? "," : "");
+            if (team != null) {
+                jsonString(line, team);
+            } else {
+                line.append("null");
+            }
+        }
+        line.append("],\"winners\":[");
+        String separator = "";
+        for (int seat = 0; seat < result.getNumSeats(); seat++) {
+            if (result.isWinner(seat)) {
+                line.append(separator).append(seat + 1);
+                separator = ",";
+            }
+        }
+        line.append("],\"draw\":").append(result.isDraw()).append(",\"rounds\":").append(result.getRounds())
+                .append(",\"moves\":").append(result.getMoves()).append(",\"search_seats\":[");
+        for (int i = 0; i < result.getDecisionCount(); i++) {
+            line.append(i > 0 ? "," : "").append(result.getDecisionSeat(i) + 1);
+        }
+        line.append("],\"search_us\":[");
+        for (int i = 0; i < result.getDecisionCount(); i++) {
+            line.append(i > 0 ? "," : "").append(result.getSearchNanos(i) / 1000);
+        }
+        line.append("],\"search_nodes\":[");
+        for (int i = 0; i < result.getDecisionCount(); i++) {
+            line.append(i > 0 ? "," : "").append(result.getSearchNodes(i));
+        }
+        return line.append("]}").toString();
+    }
+
+    private static String algorithmName(SeatConfig config) {
+        return config.getAlgorithm().name().toLowerCase();
+    }
+
+    private static int depth(SeatConfig config) {
+        return config.getAlgorithm() != SeatConfig.Algorithm.RANDOM ? config.getDepth() : 0;
+    }
+
+    /**
+     * Ajoute un champ CSV, entre guillemets s'il contient une virgule ou un guillemet.
+     *
+     * @param line  La ligne.
+     * @param value La valeur du champ.
+     * @return      La ligne.
+     */
+    private static StringBuilder csvField(StringBuilder line, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Ajoute une chaîne JSON entre guillemets, avec les caractères spéciaux échappés.
+     *
+     * @param line  La ligne.
+     * @param value La chaîne.
+     */
+    private static void jsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,503 @@
+package model.main;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import model.algorithmes.*;
+import model.evaluation.*;
+import model.jeu.*;
+
+/**
+ * La class GameSimulation joue une partie complète sans affichage, avec les règles de Main : à chaque
+ * tour, chaque joueur vivant choisit son coup sur l'état du début du tour, et un joueur sans coup
+ * applicable sur cet état est éliminé ; puis Action.applyActions applique les coups dans l'ordre des
+ * joueurs, en ignorant celui dont la case a été prise plus tôt dans le tour (le joueur reste en vie).
+ * Chaque partie crée ses joueurs et ses moteurs : plusieurs parties peuvent être jouées en même temps.
+ */
+public class GameSimulation {
+
+    private final int gridSize;
+    private final List<SeatConfig> seats;
+    private ExecutorService searchExecutor; // Pool où lancer les recherches, null pour chercher sur place
+    private LongAdder moveCounter; // Compteur des coups joués, partagé par toutes les parties, ou null
+    private GameListener listener = GameListener.NONE;
+    private boolean recording; // true pour enregistrer les coups de chaque partie (voir GameRecord)
+
+    /**
+     * Constructeur de la class GameSimulation.
+     *
+     * @param gridSize La taille de la grille.
+     * @param seats    Les sièges, un par joueur.
+     */
+    public GameSimulation(int gridSize, List<SeatConfig> seats) {
+        if (gridSize <= 0 || seats.isEmpty() || seats.size() > gridSize * gridSize) {
+            throw new IllegalArgumentException("La grille doit pouvoir accueillir tous les joueurs.");
+        }
+        this.gridSize = gridSize;
+        this.seats = List.copyOf(seats);
+    }
+
+    /**
+     * Modifie le pool où sont lancées les recherches des moteurs : le thread de la partie attend le coup
+     * sans occuper de coeur. À ne donner que si les parties tournent sur des threads virtuels.
+     *
+     * @param searchExecutor Le pool de recherche, ou null pour chercher dans le thread de la partie.
+     */
+    public void setSearchExecutor(ExecutorService searchExecutor) {
+        this.searchExecutor = searchExecutor;
+    }
+
+    /**
+     * Modifie le compteur incrémenté à chaque coup joué, pour suivre le débit pendant les parties.
+     *
+     * @param moveCounter Le compteur, ou null.
+     */
+    public void setMoveCounter(LongAdder moveCounter) {
+        this.moveCounter = moveCounter;
+    }
+
+    /**
+     * Modifie l'écouteur des événements des parties. Il est partagé par toutes les parties jouées avec
+     * cette simulation et doit donc supporter les appels concurrents.
+     *
+     * @param listener L'écouteur, ou GameListener.NONE.
+     */
+    public void setListener(GameListener listener) {
+        this.listener = listener != null ? listener : GameListener.NONE;
+    }
+
+    /**
+     * Active l'enregistrement des parties jouées avec play(RandomSource, long, int) : leur résultat
+     * contient alors l'enregistrement compact de la partie.
+     *
+     * @param recording true pour enregistrer les parties.
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Joue la partie numéro game d'un tournoi, avec le générateur source.forGame(game). Si
+     * l'enregistrement est activé, le résultat contient l'enregistrement de la partie.
+     *
+     * @param source   La source aléatoire du tournoi.
+     * @param game     Le numéro de la partie.
+     * @param rotation Le décalage entre sièges et joueurs.
+     * @return         Le résultat de la partie.
+     */
+    public Result play(RandomSource source, long game, int rotation) {
+        return play(source.forGame(game), rotation, recording, source.getSeed(), game);
+    }
+
+    /**
+     * Joue une partie. Les sièges tournent d'une partie à l'autre (le siège s prend le joueur
+     * (s + rotation) % n) pour que l'ordre de jeu n'avantage aucun siège sur l'ensemble d'un tournoi.
+     *
+     * @param random   Le générateur de la partie (voir RandomSource.forGame) : il tire les positions de
+     *                 départ, et chaque joueur en reçoit un générateur séparé pour ses coups aléatoires.
+     * @param rotation Le décalage entre sièges et joueurs.
+     * @return         Le résultat de la partie.
+     */
+    public Result play(SplittableRandom random, int rotation) {
+        return play(random, rotation, false, 0, 0);
+    }
+
+    private Result play(SplittableRandom random, int rotation, boolean record, long seed, long game) {
+        int numPlayers = seats.size();
+        Action action = new Action();
+        Voronoi voronoi = new Voronoi();
+
+        // Joueurs, siège de chaque joueur et moteurs
+        Player[] players = new Player[numPlayers];
+        int[] seatOf = new int[numPlayers];
+        LazySmpSearch<?>[] searches = new LazySmpSearch<?>[numPlayers];
+        SplittableRandom[] playerRandom = new SplittableRandom[numPlayers];
+        for (int seat = 0; seat < numPlayers; seat++) {
+            int id = (seat + rotation) % numPlayers;
+            players[id] = new Player("robot" + (id + 1), id, (char) ('1' + id));
+            seatOf[id] = seat;
+            searches[id] = seats.get(seat).createSearch(action);
+        }
+        for (int id = 0; id < numPlayers; id++) {
+            playerRandom[id] = random.split();
+        }
+        Map<Player, Set<Player>> teamPlayers = teams(players, seatOf);
+
+        // Positions de départ aléatoires
+        Player[][] grid = new Player[gridSize][gridSize];
+        Map<Player, Point> playerPosition = new HashMap<>();
+        for (Player player : players) {
+            int x = random.nextInt(gridSize);
+            int y = random.nextInt(gridSize);
+            while (grid[x][y] != null) {
+                x = random.nextInt(gridSize);
+                y = random.nextInt(gridSize);
+            }
+            grid[x][y] = player;
+            playerPosition.put(player, new Point(x, y));
+        }
+        StateGame state = new StateGame(grid, playerPosition, players[0]);
+        state.setTeamPlayers(teamPlayers);
+        listener.onGameStart(state);
+        GameRecord.Builder recorder = record ? newRecorder(players, seatOf, playerPosition) : null;
+
+        int rounds = 0;
+        int[] moves = new int[1]; // Coups appliqués, comptés par l'écouteur de l'objet Action
+        action.setListener(new GameListener() {
+            @Override
+            public void onMoveApplied(StateGame next, Player player, String move) {
+                moves[0]++;
+                if (moveCounter != null) {
+                    moveCounter.increment();
+                }
+                listener.onMoveApplied(next, player, move);
+            }
+        });
+        Decisions decisions = new Decisions();
+        while (!isOver(players, seatOf)) {
+            Map<Player, String> playerActions = new LinkedHashMap<>();
+            for (Player player : players) {
+                if (!player.getIsAlive()) {
+                    continue;
+                }
+                state.setCurrentPlayer(player);
+                LazySmpSearch<?> search = searches[player.getId()];
+                long startNanos = System.nanoTime();
+                String ch;
+                if (search != null) {
+                    long startNodes = search.getNodeCount();
+                    ch = search(search, state, voronoi, player, seats.get(seatOf[player.getId()]).getDepth());
+                    decisions.add(seatOf[player.getId()], System.nanoTime() - startNanos, search.getNodeCount() - startNodes);
+                } else {
+                    ch = action.getRandomAction(state, player, playerRandom[player.getId()]);
+                    decisions.add(seatOf[player.getId()], System.nanoTime() - startNanos, 0);
+                }
+                if (ch != null && action.isApplicableAction(state, ch, player)) {
+                    playerActions.put(player, ch);
+                    if (recorder != null) {
+                        recorder.addMove(MoveOrdering.actionIndex(ch));
+                    }
+                } else {
+                    player.setAlive(false);
+                    listener.onPlayerEliminated(state, player);
+                    if (recorder != null) {
+                        recorder.eliminate(player.getId(), rounds);
+                    }
+                }
+            }
+            state = action.applyActions(state, playerActions);
+            state.setTeamPlayers(teamPlayers);
+            rounds++;
+            listener.onTurnEnd(state, rounds);
+        }
+        listener.onGameEnd(state, soleSurvivor(players));
+        for (LazySmpSearch<?> search : searches) {
+            if (search != null) {
+                search.shutdown();
+            }
+        }
+
+        // Un siège gagne si son joueur ou l'un de ses coéquipiers a survécu
+        boolean[] winners = new boolean[numPlayers];
+        long winnerMask = 0;
+        for (Player player : players) {
+            for (Player teammate : teamPlayers.get(player)) {
+                winners[seatOf[player.getId()]] |= teammate.getIsAlive();
+            }
+            if (winners[seatOf[player.getId()]]) {
+                winnerMask |= 1L << player.getId();
+            }
+        }
+        GameRecord gameRecord = recorder != null ? recorder.build(seed, game, rounds, winnerMask) : null;
+        return new Result(seed, game, winners, rounds, moves[0], decisions, gameRecord);
+    }
+
+    /**
+     * Prépare l'enregistrement d'une partie à partir des positions de départ.
+     *
+     * @param players        Les joueurs, indexés par identifiant.
+     * @param seatOf         Le siège de chaque joueur.
+     * @param playerPosition La position de départ de chaque joueur.
+     * @return               L'enregistrement en cours.
+     */
+    private GameRecord.Builder newRecorder(Player[] players, int[] seatOf, Map<Player, Point> playerPosition) {
+        int[] startCells = new int[players.length];
+        for (Player player : players) {
+            Point position = playerPosition.get(player);
+            startCells[player.getId()] = position.x * gridSize + position.y;
+        }
+        return new GameRecord.Builder(gridSize, gridSize, seatOf, startCells);
+    }
+
+    /**
+     * Cherche le coup d'un siège, sur place ou dans le pool de recherche.
+     *
+     * @param search  La recherche du siège.
+     * @param state   L'état du jeu.
+     * @param voronoi L'objet Voronoi de la partie.
+     * @param player  Le joueur qui cherche son coup.
+     * @param depth   La profondeur de recherche.
+     * @return        Le coup, ou null si le joueur ne peut plus bouger.
+     */
+    private String search(LazySmpSearch<?> search, StateGame state, Voronoi voronoi, Player player, int depth) {
+        if (searchExecutor == null) {
+            return search.getBestActionForPlayer(state, voronoi, player, depth);
+        }
+        Future<String> future = searchExecutor.submit(() -> search.getBestActionForPlayer(state, voronoi, player, depth));
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partie interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de la recherche d'un coup", e.getCause());
+        }
+    }
+
+    /**
+     * Construit les équipes de la partie : les joueurs dont les sièges ont la même équipe sont
+     * coéquipiers, un siège sans équipe joue seul. Chaque joueur fait partie de sa propre équipe.
+     *
+     * @param players Les joueurs, indexés par identifiant.
+     * @param seatOf  Le siège de chaque joueur.
+     * @return        L'équipe de chaque joueur, triée par identifiant.
+     */
+    private Map<Player, Set<Player>> teams(Player[] players, int[] seatOf) {
+        Map<Player, Set<Player>> teamPlayers = new TreeMap<>(Comparator.comparingInt(Player::getId));
+        for (Player player : players) {
+            Set<Player> team = new HashSet<>();
+            String name = seats.get(seatOf[player.getId()]).getTeam();
+            for (Player other : players) {
+                if (other == player || name != null && name.equals(seats.get(seatOf[other.getId()]).getTeam())) {
+                    team.add(other);
+                }
+            }
+            teamPlayers.put(player, team);
+        }
+        return teamPlayers;
+    }
+
+    /**
+     * Cherche le seul joueur encore en vie.
+     *
+     * @param players Les joueurs.
+     * @return        Le joueur, ou null si aucun joueur ou plusieurs coéquipiers ont survécu.
+     */
+    private static Player soleSurvivor(Player[] players) {
+        Player survivor = null;
+        for (Player player : players) {
+            if (player.getIsAlive()) {
+                if (survivor != null) {
+                    return null;
+                }
+                survivor = player;
+            }
+        }
+        return survivor;
+    }
+
+    /**
+     * Vérifie si la partie est finie : au plus une équipe a encore des joueurs vivants.
+     *
+     * @param players Les joueurs.
+     * @param seatOf  Le siège de chaque joueur.
+     * @return        true si la partie est finie, sinon false.
+     */
+    private boolean isOver(Player[] players, int[] seatOf) {
+        String aliveTeam = null;
+        int aliveSolo = 0;
+        for (Player player : players) {
+            if (player.getIsAlive()) {
+                String team = seats.get(seatOf[player.getId()]).getTeam();
+                if (team == null) {
+                    aliveSolo++;
+                } else if (aliveTeam == null) {
+                    aliveTeam = team;
+                } else if (!aliveTeam.equals(team)) {
+                    return false;
+                }
+            }
+        }
+        return aliveSolo + (aliveTeam != null ? 1 : 0) <= 1;
+    }
+
+    /**
+     * Les décisions d'une partie : pour chaque coup cherché, le siège qui l'a cherché, la durée de la
+     * recherche et le nombre de noeuds visités (0 pour un joueur aléatoire).
+     */
+    private static final class Decisions {
+
+        private int[] seats = new int[64];
+        private long[] nanos = new long[64];
+        private long[] nodes = new long[64];
+        private int count;
+
+        private void add(int seat, long searchNanos, long searchNodes) {
+            if (count == seats.length) {
+                seats = Arrays.copyOf(seats, count * 2);
+                nanos = Arrays.copyOf(nanos, count * 2);
+                nodes = Arrays.copyOf(nodes, count * 2);
+            }
+            seats[count] = seat;
+            nanos[count] = searchNanos;
+            nodes[count] = searchNodes;
+            count++;
+        }
+    }
+
+    /**
+     * Le résultat d'une partie.
+     */
+    public static final class Result {
+
+        private final long seed;
+        private final long game;
+        private final boolean[] winners;
+        private final int rounds;
+        private final int moves;
+        private final Decisions decisions;
+        private final GameRecord record;
+
+        private Result(long seed, long game, boolean[] winners, int rounds, int moves, Decisions decisions,
+                GameRecord record) {
+            this.seed = seed;
+            this.game = game;
+            this.winners = winners;
+            this.rounds = rounds;
+            this.moves = moves;
+            this.decisions = decisions;
+            this.record = record;
+        }
+
+        /**
+         * Obtient la graine du tournoi de la partie.
+         *
+         * @return La graine, ou 0 si la partie n'a pas été jouée avec play(RandomSource, long, int).
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Obtient le numéro de la partie dans le tournoi.
+         *
+         * @return Le numéro de la partie.
+         */
+        public long getGame() {
+            return game;
+        }
+
+        /**
+         * Obtient le nombre de sièges de la partie.
+         *
+         * @return Le nombre de sièges.
+         */
+        public int getNumSeats() {
+            return winners.length;
+        }
+
+        /**
+         * Vérifie si un siège a gagné la partie, seul ou avec son équipe.
+         *
+         * @param seat Le siège.
+         * @return     true si le joueur du siège, ou l'un de ses coéquipiers, a survécu.
+         */
+        public boolean isWinner(int seat) {
+            return winners[seat];
+        }
+
+        /**
+         * Vérifie si la partie est nulle : tous les joueurs sont éliminés au même tour.
+         *
+         * @return true si aucun joueur n'a survécu.
+         */
+        public boolean isDraw() {
+            for (boolean winner : winners) {
+                if (winner) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Obtient le nombre de tours joués.
+         *
+         * @return Le nombre de tours.
+         */
+        public int getRounds() {
+            return rounds;
+        }
+
+        /**
+         * Obtient le nombre de coups joués par tous les joueurs.
+         *
+         * @return Le nombre de coups.
+         */
+        public int getMoves() {
+            return moves;
+        }
+
+        /**
+         * Obtient le nombre de coups cherchés, y compris ceux refusés ensuite parce qu'un autre joueur
+         * a pris la case le même tour.
+         *
+         * @return Le nombre de décisions.
+         */
+        public int getDecisionCount() {
+            return decisions.count;
+        }
+
+        /**
+         * Obtient le siège qui a cherché un coup.
+         *
+         * @param decision L'indice de la décision, dans l'ordre de la partie.
+         * @return         Le siège.
+         */
+        public int getDecisionSeat(int decision) {
+            return decisions.seats[decision];
+        }
+
+        /**
+         * Obtient la durée de la recherche d'un coup.
+         *
+         * @param decision L'indice de la décision, dans l'ordre de la partie.
+         * @return         La durée en nanosecondes.
+         */
+        public long getSearchNanos(int decision) {
+            return decisions.nanos[decision];
+        }
+
+        /**
+         * Obtient le nombre de noeuds visités par la recherche d'un coup.
+         *
+         * @param decision L'indice de la décision, dans l'ordre de la partie.
+         * @return         Le nombre de noeuds, 0 pour un joueur aléatoire.
+         */
+        public long getSearchNodes(int decision) {
+            return decisions.nodes[decision];
+        }
+
+        /**
+         * Obtient l'enregistrement de la partie.
+         *
+         * @return L'enregistrement, ou null si l'enregistrement n'était pas activé.
+         */
+        public GameRecord getRecord() {
+            return record;
+        }
+    }
+}
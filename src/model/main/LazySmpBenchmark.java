@@ -0,0 +1,120 @@
+package model.main;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import model.algorithmes.*;
+import model.evaluation.*;
+import model.jeu.*;
+
+/**
+ * Mesure le passage à l'échelle de la recherche Lazy SMP : pour 1, 2, 4... threads, les mêmes positions
+ * sont cherchées à la même profondeur avec MaxN, et le programme affiche le temps, le nombre de noeuds
+ * par seconde et l'accélération par rapport à un seul thread.
+ */
+public class LazySmpBenchmark {
+
+    private static final int POSITIONS = 8; // Nombre de positions cherchées par mesure
+    private static final long SEED = 42; // Graine des positions, identique pour toutes les mesures
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Utilisation : LazySmpBenchmark <taille_grille> <profondeur_recherche> <nombre_joueurs>"
+                    + " <threads_max> [<taille_table_mo>]");
+            return;
+        }
+        int gridSize = Integer.parseInt(args[0]);
+        int depth = Integer.parseInt(args[1]);
+        int numPlayers = Integer.parseInt(args[2]);
+        int maxThreads = Integer.parseInt(args[3]);
+        long tableMegabytes = args.length > 4 ? Long.parseLong(args[4]) : 256;
+
+        if (gridSize <= 0 || depth <= 0 || numPlayers <= 0 || maxThreads <= 0) {
+            System.out.println("Tous les paramètres doivent être supérieurs à zéro.");
+            return;
+        }
+        if (numPlayers > TranspositionTable.MAX_PLAYERS) {
+            System.out.println("La table de transposition ne stocke que " + TranspositionTable.MAX_PLAYERS
+                    + " joueurs au plus : les threads ne partageront rien.");
+        }
+
+        List<StateGame> positions = positions(gridSize, numPlayers);
+        TranspositionTable table = new OffHeapTranspositionTable(tableMegabytes, true);
+        Voronoi voronoi = new Voronoi();
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+
+        // Préchauffage : la première mesure ne doit pas payer la compilation à la volée
+        LazySmpSearch<MaxNAlgorithme> warmup = new LazySmpSearch<>(
+                () -> new MaxNAlgorithme(new VoronoiStateEvaluation(), new Action()), 1, table);
+        for (StateGame position : positions) {
+            warmup.getBestActionForPlayer(position, voronoi, position.getCurrentPlayer(), depth);
+        }
+        warmup.shutdown();
+
+        System.out.println("threads\ttemps (ms)\tnoeuds\tnoeuds/s\taccélération\tefficacité noeuds/s");
+        double baseMillis = 0;
+        double baseNodesPerSecond = 0;
+        for (int threads : threadCounts) {
+            table.clear();
+            LazySmpSearch<MaxNAlgorithme> search = new LazySmpSearch<>(
+                    () -> new MaxNAlgorithme(new VoronoiStateEvaluation(), new Action()), threads, table);
+
+            long start = System.nanoTime();
+            for (StateGame position : positions) {
+                search.getBestActionForPlayer(position, voronoi, position.getCurrentPlayer(), depth);
+            }
+            double millis = (System.nanoTime() - start) / 1_000_000.0;
+            long nodes = search.getNodeCount();
+            double nodesPerSecond = nodes / (millis / 1000.0);
+            search.shutdown();
+
+            if (threads == 1) {
+                baseMillis = millis;
+                baseNodesPerSecond = nodesPerSecond;
+            }
+            System.out.printf("%d\t%.1f\t%d\t%.0f\t%.2f\t%.2f%n", threads, millis, nodes, nodesPerSecond,
+                    baseMillis / millis, nodesPerSecond / (baseNodesPerSecond * threads));
+        }
+    }
+
+    /**
+     * Tire les positions de départ, avec une graine fixe pour que toutes les mesures cherchent les mêmes.
+     *
+     * @param gridSize   La taille de la grille.
+     * @param numPlayers Le nombre de joueurs.
+     * @return           Les positions.
+     */
+    private static List<StateGame> positions(int gridSize, int numPlayers) {
+        Random random = new Random(SEED);
+        Player[] players = new Player[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            players[i] = new Player("robot" + (i + 1), i, (char) ('1' + i));
+        }
+
+        List<StateGame> positions = new ArrayList<>();
+        for (int p = 0; p < POSITIONS; p++) {
+            Player[][] grid = new Player[gridSize][gridSize];
+            Map<Player, Point> playerPosition = new HashMap<>();
+            for (Player player : players) {
+                int x = random.nextInt(gridSize);
+                int y = random.nextInt(gridSize);
+                while (grid[x][y] != null) {
+                    x = random.nextInt(gridSize);
+                    y = random.nextInt(gridSize);
+                }
+                grid[x][y] = player;
+                playerPosition.put(player, new Point(x, y));
+            }
+            positions.add(new StateGame(grid, playerPosition, players[0]));
+        }
+        return positions;
+    }
+}
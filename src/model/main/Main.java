@@ -3,12 +3,17 @@ package model.main;
 import java.awt.Point;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 import model.algorithmes.*;
 import model.evaluation.*;
 import model.jeu.*;
+import vue.ConsoleGameListener;
 
 public class Main {
+
+	/** Propriété système qui n'affiche que le résultat de la partie. */
+	public static final String QUIET_PROPERTY = "tron.quiet";
+
 	public static void main(String[] args) {
 		
 		if (args.length < 3) {
@@ -24,6 +29,18 @@ public class Main {
             System.out.println("La taille de la grille, la profondeur de recherche et le nombre de joueurs doivent être supérieurs à zéro.");
             return;
         }
+        long moveMillis = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        if (args.length > 3 && moveMillis <= 0) {
+            System.out.println("Le temps par coup doit être supérieur à zéro.");
+            return;
+        }
+
+        // Temps de réponse cible par coup (optionnel) : la profondeur devient alors la profondeur maximale
+        DepthController depthController = null;
+        if (args.length > 3) {
+            depthController = new DepthController(moveMillis, 1, depth);
+            depthController.setLog(true);
+        }
 
 		//tableau pour stocker les joueurs
         Player[] players = new Player[numPlayers];
@@ -47,8 +64,18 @@ public class Main {
 			}
 		}
 		
+		// Hasard de la partie : la même graine (-Dtron.seed=<graine>) rejoue la même partie
+        RandomSource randomSource = RandomSource.fromSystemProperty();
+        SplittableRandom random = randomSource.forGame(0);
+        SplittableRandom[] playerRandom = new SplittableRandom[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            playerRandom[i] = random.split();
+        }
+        if (!Boolean.getBoolean(QUIET_PROPERTY)) {
+            System.out.println("Graine : " + randomSource.getSeed());
+        }
+
 		// Positionnement aléatoire des joueurs sur la grille
-        Random random = new Random();
         Map<Player, Point> playerPosition = new HashMap<>();
         for (Player player : players) {
             int x = random.nextInt(gridSize);
@@ -62,37 +89,63 @@ public class Main {
         }
 
 
-		//creation et affichage de l'etat initiale 
+		//creation de l'etat initiale 
 		StateGame initialState = new StateGame(grid, playerPosition,currentPlayer);
-		initialState.showGrid();
 
+		// Affichage de la partie dans la console ; avec -Dtron.quiet=true, seul le gagnant est affiché
+		GameListener listener = new ConsoleGameListener(!Boolean.getBoolean(QUIET_PROPERTY));
+		listener.onGameStart(initialState);
 
 		Action action = new Action();
+		action.setListener(listener);
 		Voronoi voronoi = new Voronoi();
 		//PlayersScores scores = new PlayersScores();
 		StateEvaluation voronoiEvaluation = new VoronoiStateEvaluation();
 		//BasicStateEvaluation basicStateEvaluation = new BasicStateEvaluation(scores, ponderation);
-		MaxNAlgorithme maxn = new MaxNAlgorithme(voronoiEvaluation, action);
 		//ParanoidAlgorithm paranoidAlgorithm = new ParanoidAlgorithm(voronoiEvaluation, action);
 		//SOSAlgorithm sos = new SOSAlgorithm(voronoiEvaluation, action);
 
+		// Bibliothèque d'ouvertures (optionnelle) construite par OpeningBookBuilder : -Dtron.book=<fichier>
+		OpeningBook openingBook = OpeningBook.fromSystemProperty();
+		// Table de fin de partie (optionnelle) construite par TablebaseBuilder : -Dtron.tablebase=<fichier>
+		EndgameTablebase tablebase = EndgameTablebase.fromSystemProperty();
+		boolean symmetry = Boolean.getBoolean(OffHeapTranspositionTable.SYMMETRY_PROPERTY);
+		// Recherche parallèle Lazy SMP (optionnelle) : -Dtron.search.threads=<threads>. Les threads auxiliaires
+		// sont configurés comme le thread principal et partagent la table de transposition hors du tas
+		// (-Dtron.tt.mb=<taille> [-Dtron.tt.pretouch=true]), créée d'office s'il y a plusieurs threads
+		int searchThreads = LazySmpSearch.threadsFromSystemProperty();
+		LazySmpSearch<MaxNAlgorithme> maxnSearch = new LazySmpSearch<>(() -> {
+			MaxNAlgorithme engine = new MaxNAlgorithme(voronoiEvaluation, action);
+			engine.setSymmetryCanonicalisation(symmetry);
+			engine.setOpeningBook(openingBook);
+			engine.setEndgameTablebase(tablebase);
+			return engine;
+		}, searchThreads, LazySmpSearch.tableFor(searchThreads, OffHeapTranspositionTable.fromSystemProperties()));
+		MaxNAlgorithme maxn = maxnSearch.getMainEngine();
+
 
 
 		//boucle principal qui permet de lancer le jeu
+		int turn = 0;
 		while (!maxn.isTerminal(initialState)) {
 			String ch = null;
 			Map<Player, String> playerActions = new HashMap<>();
 
 			for (Player player : players) {
+				boolean wasAlive = player.getIsAlive();
 				//on a choisi de faire jouer le joueur robot1 avec maxN
 				//et les autres joueur aléatoirement pour voir les performances de maxN
 				if (player.getIsAlive()) {
 					if (player.getId() == 0 || player.getId() == 1){
 						initialState.setCurrentPlayer(player);
-						ch = maxn.getBestActionForPlayer(initialState,voronoi ,currentPlayer, depth);
+						if (depthController != null) {
+							ch = depthController.getBestAction(maxnSearch, initialState, voronoi, currentPlayer);
+						} else {
+							ch = maxnSearch.getBestActionForPlayer(initialState,voronoi ,currentPlayer, depth);
+						}
 					}else {
 						initialState.setCurrentPlayer(player);
-						ch = action.getRandomAction(initialState, currentPlayer);
+						ch = action.getRandomAction(initialState, currentPlayer, playerRandom[player.getId()]);
 						//ch = paranoidAlgorithm.getBestActionForPlayer(initialState,voronoi ,currentPlayer, depth);
 					}
 				}
@@ -104,20 +157,20 @@ public class Main {
 				} else {
 					// Si aucune action n'est disponible ou si l'action n'est pas applicable, on passe au joueur suivant
 					player.setAlive(false);
+					if (wasAlive) {
+						listener.onPlayerEliminated(initialState, player);
+					}
 					currentPlayer = maxn.nextPlayer(initialState, player);
 				}
 			}
 		
 			//on appliques l'action de chaque joueur et on affiche la grille du jeu
             initialState = action.applyActions(initialState, playerActions);
-            initialState.showGrid();
+            listener.onTurnEnd(initialState, ++turn);
 		}
+		maxnSearch.shutdown();
 		
 		//affichage du joueur gagnant
-		if (currentPlayer != null) {
-			System.out.println("GameOver\nLe joueur gagnant est :" + currentPlayer);
-		}else{
-			System.out.println("Partie null");
-		}
+		listener.onGameEnd(initialState, currentPlayer);
 	}
 }
\ No newline at end of file
@@ -5,12 +5,13 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.TreeMap;
 import model.algorithmes.*;
 import model.evaluation.*;
 import model.jeu.*;
+import vue.ConsoleGameListener;
 
 public class MainSos {
     public static void main(String[] args) {
@@ -27,6 +28,22 @@ public class MainSos {
         int numPlayersPerTeam = Integer.parseInt(args[2]);
         int numPlayers = numTeams * numPlayersPerTeam;
 
+        long moveMillis = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        if (gridSize <= 0 || depth <= 0 || numPlayersPerTeam <= 0 || (args.length > 3 && moveMillis <= 0)) {
+            System.out.println("La taille de la grille, la profondeur de recherche, le nombre de joueurs par équipe et le temps par coup doivent être supérieurs à zéro.");
+            return;
+        }
+
+        // Temps de réponse cible par coup (optionnel) : la profondeur devient alors la profondeur maximale
+        DepthController sosDepth = null;
+        DepthController maxnDepth = null;
+        if (args.length > 3) {
+            sosDepth = new DepthController(moveMillis, 1, depth);
+            maxnDepth = new DepthController(moveMillis, 1, depth);
+            sosDepth.setLog(true);
+            maxnDepth.setLog(true);
+        }
+
         // Création des joueurs
         Player[] players = new Player[numPlayers];
         for (int i = 0; i < numPlayers; i++) {
@@ -70,8 +87,12 @@ public class MainSos {
             }
         }
 
-        // Attribution aléatoire des positions initiales des joueurs sur la grille
-        Random random = new Random();
+        // Attribution aléatoire des positions initiales des joueurs sur la grille, rejouable avec -Dtron.seed=<graine>
+        RandomSource randomSource = RandomSource.fromSystemProperty();
+        SplittableRandom random = randomSource.forGame(0);
+        if (!Boolean.getBoolean(Main.QUIET_PROPERTY)) {
+            System.out.println("Graine : " + randomSource.getSeed());
+        }
 
         Map<Player, Point> playerPosition = new HashMap<>();
 
@@ -96,35 +117,70 @@ public class MainSos {
         // Initialisation de l'état initial du jeu
         Player currentPlayer = players[0];
         StateGame initialState = new StateGame(grid, playerPosition, currentPlayer);
-        initialState.showGrid();
         initialState.setTeamPlayers(teamPlayers);
 
+        // Affichage de la partie dans la console ; avec -Dtron.quiet=true, seule l'équipe gagnante est affichée
+        GameListener listener = new ConsoleGameListener(!Boolean.getBoolean(Main.QUIET_PROPERTY));
+        listener.onGameStart(initialState);
+
         // Initialisation des algorithmes de jeu
         Action action = new Action();
+        action.setListener(listener);
         Voronoi voronoi = new Voronoi();
         StateEvaluation voronoiEvaluation = new VoronoiStateEvaluation();
-        MaxNAlgorithme maxn = new MaxNAlgorithme(voronoiEvaluation, action);
         //ParanoidAlgorithm paranoidAlgorithm = new ParanoidAlgorithm(voronoiEvaluation, action);
-        SOSAlgorithm sos = new SOSAlgorithm(voronoiEvaluation, action);
+
+        // Recherche parallèle Lazy SMP (optionnelle) : -Dtron.search.threads=<threads> par algorithme
+        int searchThreads = LazySmpSearch.threadsFromSystemProperty();
+        // Table de transposition hors du tas (optionnelle, créée d'office s'il y a plusieurs threads),
+        // partagée : les clés sont salées par algorithme
+        TranspositionTable transpositionTable = LazySmpSearch.tableFor(searchThreads,
+                OffHeapTranspositionTable.fromSystemProperties());
+        boolean symmetry = Boolean.getBoolean(OffHeapTranspositionTable.SYMMETRY_PROPERTY);
+        // Bibliothèque d'ouvertures (optionnelle), calculée avec MaxN : seul MaxN la consulte
+        OpeningBook openingBook = OpeningBook.fromSystemProperty();
+        // Table de fin de partie (optionnelle), en lecture seule et partagée par les deux algorithmes
+        EndgameTablebase tablebase = EndgameTablebase.fromSystemProperty();
+
+        // Les threads auxiliaires sont configurés comme le thread principal de chaque algorithme
+        LazySmpSearch<MaxNAlgorithme> maxnSearch = new LazySmpSearch<>(() -> {
+            MaxNAlgorithme engine = new MaxNAlgorithme(voronoiEvaluation, action);
+            engine.setSymmetryCanonicalisation(symmetry);
+            engine.setOpeningBook(openingBook);
+            engine.setEndgameTablebase(tablebase);
+            return engine;
+        }, searchThreads, transpositionTable);
+        LazySmpSearch<SOSAlgorithm> sosSearch = new LazySmpSearch<>(() -> {
+            SOSAlgorithm engine = new SOSAlgorithm(voronoiEvaluation, action);
+            engine.setTeamVoronoi(true);
+            engine.setSymmetryCanonicalisation(symmetry);
+            engine.setEndgameTablebase(tablebase);
+            return engine;
+        }, searchThreads, transpositionTable);
+        SOSAlgorithm sos = sosSearch.getMainEngine();
 
         // Boucle principale du jeu
+        int turn = 0;
         while (!sos.isTerminalSos(initialState)) {
             String ch = null;
             Map<Player, String> playerActions = new HashMap<>();
 
             for (Player player : players) {
+                boolean wasAlive = player.getIsAlive();
                 // Choix de l'algorithme pour chaque joueur
                 if (player.getIsAlive()) {
                     if (equipes.get("equipe1").contains(player)) {
                         initialState.setCurrentPlayer(player);
                         initialState.setTeamPlayers(teamPlayers);
-                        ch = sos.getBestActionForPlayer(initialState, voronoi, currentPlayer, depth);
+                        ch = sosDepth != null ? sosDepth.getBestAction(sosSearch, initialState, voronoi, currentPlayer)
+                                : sosSearch.getBestActionForPlayer(initialState, voronoi, currentPlayer, depth);
                     } else {
                         initialState.setCurrentPlayer(player);
                         initialState.setTeamPlayers(teamPlayers);
                         //ch = action.getRandomAction(initialState, currentPlayer);
                         //ch = paranoidAlgorithm.getBestActionForPlayer(initialState, voronoi, currentPlayer, depth);
-                        ch = maxn.getBestActionForPlayer(initialState, voronoi, currentPlayer, depth);
+                        ch = maxnDepth != null ? maxnDepth.getBestAction(maxnSearch, initialState, voronoi, currentPlayer)
+                                : maxnSearch.getBestActionForPlayer(initialState, voronoi, currentPlayer, depth);
                     }
                 }
                 // Stockage des actions des joueurs
@@ -134,14 +190,19 @@ public class MainSos {
                 } else {
                     // Si aucune action n'est disponible ou si l'action n'est pas applicable, le joueur est éliminé
                     player.setAlive(false);
+                    if (wasAlive) {
+                        listener.onPlayerEliminated(initialState, player);
+                    }
                     currentPlayer = sos.nextPlayer(initialState, player);
                 }
             }
             // Application des actions et affichage de la grille après chaque tour
             initialState = action.applyActions(initialState, playerActions);
             initialState.setTeamPlayers(teamPlayers);
-            initialState.showGrid();
+            listener.onTurnEnd(initialState, ++turn);
         }
+        maxnSearch.shutdown();
+        sosSearch.shutdown();
 
         // Affichage de l'équipe gagnante
         if (currentPlayer != null) {
@@ -0,0 +1,145 @@
+package model.main;
+
+import java.awt.Point;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import model.algorithmes.*;
+import model.evaluation.*;
+import model.jeu.*;
+
+/**
+ * Construit hors ligne une bibliothèque d'ouvertures pour une taille de grille et un nombre de joueurs :
+ * des parties sont jouées en parallèle depuis des départs aléatoires (graine fixe), chaque joueur cherchant
+ * son coup à la profondeur demandée pendant les premiers tours. Chaque position rencontrée est enregistrée
+ * avec le coup trouvé, sous sa clé canonique, puis le tout est écrit trié dans le fichier de sortie.
+ */
+public class OpeningBookBuilder {
+
+    private static final long SEED = 2024; // Graine des départs, la même bibliothèque est reconstruite à l'identique
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 6) {
+            System.out.println("Utilisation : OpeningBookBuilder <taille_grille> <nombre_joueurs> <profondeur_recherche>"
+                    + " <nombre_parties> <nombre_tours> <fichier> [<threads>]");
+            return;
+        }
+        int gridSize = Integer.parseInt(args[0]);
+        int numPlayers = Integer.parseInt(args[1]);
+        int depth = Integer.parseInt(args[2]);
+        int games = Integer.parseInt(args[3]);
+        int rounds = Integer.parseInt(args[4]);
+        Path file = Path.of(args[5]);
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+
+        if (gridSize <= 0 || numPlayers <= 0 || depth <= 0 || games <= 0 || rounds <= 0 || threads <= 0) {
+            System.out.println("Tous les paramètres doivent être supérieurs à zéro.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Map<Long, Integer>>> results = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            long seed = SEED + game;
+            results.add(executor.submit(() -> playOpening(gridSize, numPlayers, depth, rounds, seed)));
+        }
+
+        // Fusion dans l'ordre des parties : une position déjà vue garde le coup de la première partie
+        Map<Long, Integer> book = new HashMap<>();
+        try {
+            for (Future<Map<Long, Integer>> result : results) {
+                for (Map.Entry<Long, Integer> entry : result.get().entrySet()) {
+                    book.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec du calcul d'une ouverture", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        // Écriture dans un fichier temporaire puis remplacement, pour ne jamais laisser de fichier partiel
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            OpeningBook.write(out, gridSize, gridSize, numPlayers, depth, book);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        System.out.println(book.size() + " positions écrites dans " + file + " en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Joue les premiers tours d'une partie et retourne le coup trouvé pour chaque position rencontrée.
+     *
+     * @param gridSize   La taille de la grille.
+     * @param numPlayers Le nombre de joueurs.
+     * @param depth      La profondeur de recherche.
+     * @param rounds     Le nombre de tours joués.
+     * @param seed       La graine du départ aléatoire.
+     * @return           Les coups, dans le repère canonique, par clé canonique de position.
+     */
+    private static Map<Long, Integer> playOpening(int gridSize, int numPlayers, int depth, int rounds, long seed) {
+        Random random = new Random(seed);
+        Player[] players = new Player[numPlayers];
+        Player[][] grid = new Player[gridSize][gridSize];
+        Map<Player, Point> playerPosition = new HashMap<>();
+        for (int i = 0; i < numPlayers; i++) {
+            players[i] = new Player("robot" + (i + 1), i, (char) ('1' + i));
+            int x = random.nextInt(gridSize);
+            int y = random.nextInt(gridSize);
+            while (grid[x][y] != null) {
+                x = random.nextInt(gridSize);
+                y = random.nextInt(gridSize);
+            }
+            grid[x][y] = players[i];
+            playerPosition.put(players[i], new Point(x, y));
+        }
+        StateGame state = new StateGame(grid, playerPosition, players[0]);
+
+        Action action = new Action();
+        Voronoi voronoi = new Voronoi();
+        MaxNAlgorithme maxn = new MaxNAlgorithme(new VoronoiStateEvaluation(), action);
+        Map<Long, Integer> positions = new LinkedHashMap<>();
+        int[] transform = new int[1];
+
+        for (int round = 0; round < rounds && !maxn.isTerminal(state); round++) {
+            // Comme dans Main : tous les joueurs choisissent leur coup sur l'état du début du tour
+            Map<Player, String> playerActions = new LinkedHashMap<>();
+            for (Player player : players) {
+                if (!player.getIsAlive()) {
+                    continue;
+                }
+                String best = maxn.getBestActionForPlayer(state, voronoi, player, depth);
+                if (best == null) {
+                    continue;
+                }
+                long key = OpeningBook.positionKey(state, player, transform);
+                positions.putIfAbsent(key, BoardSymmetry.mapDirection(transform[0], MoveOrdering.actionIndex(best)));
+                playerActions.put(player, best);
+            }
+            for (Map.Entry<Player, String> entry : playerActions.entrySet()) {
+                if (action.isApplicableAction(state, entry.getValue(), entry.getKey())) {
+                    state = action.applyAction(state, entry.getValue(), entry.getKey());
+                } else {
+                    entry.getKey().setAlive(false);
+                }
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,138 @@
+package model.main;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import model.algorithmes.*;
+import model.evaluation.*;
+import model.jeu.*;
+
+/**
+ * Mesure ce que l'élagage des coups dominés de SoundPruningAction fait gagner : les mêmes positions de
+ * milieu de partie sont cherchées à la même profondeur avec MaxN, une fois avec Action et une fois avec
+ * SoundPruningAction, et le programme affiche le nombre de noeuds visités, le temps, la part des coups
+ * écartés et le nombre de positions où le coup choisi change.
+ */
+public class PruningBenchmark {
+
+    private static final int POSITIONS = 16; // Nombre de positions cherchées
+    private static final long SEED = 42; // Graine des positions, identique pour les deux mesures
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Utilisation : PruningBenchmark <taille_grille> <profondeur_recherche> <nombre_joueurs>"
+                    + " [<coups_par_joueur>]");
+            return;
+        }
+        int gridSize = Integer.parseInt(args[0]);
+        int depth = Integer.parseInt(args[1]);
+        int numPlayers = Integer.parseInt(args[2]);
+        int movesPerPlayer = args.length > 3 ? Integer.parseInt(args[3]) : gridSize * gridSize / (3 * numPlayers);
+
+        if (gridSize <= 0 || depth <= 0 || numPlayers <= 0 || movesPerPlayer < 0) {
+            System.out.println("Tous les paramètres doivent être supérieurs à zéro.");
+            return;
+        }
+
+        List<StateGame> positions = positions(gridSize, numPlayers, movesPerPlayer);
+        Voronoi voronoi = new Voronoi();
+        // Préchauffage : la première mesure ne doit pas payer la compilation à la volée
+        MaxNAlgorithme warmupPlain = engine(new Action());
+        MaxNAlgorithme warmupPruned = engine(new SoundPruningAction());
+        for (StateGame position : positions) {
+            warmupPlain.getBestActionForPlayer(position, voronoi, position.getCurrentPlayer(), depth);
+            warmupPruned.getBestActionForPlayer(position, voronoi, position.getCurrentPlayer(), depth);
+        }
+
+        // Moteurs neufs : leurs tables de transposition ne contiennent rien du préchauffage
+        SoundPruningAction pruning = new SoundPruningAction();
+        MaxNAlgorithme plain = engine(new Action());
+        MaxNAlgorithme pruned = engine(pruning);
+        long plainNanos = 0;
+        long prunedNanos = 0;
+        int changed = 0;
+        for (StateGame position : positions) {
+            long start = System.nanoTime();
+            String plainMove = plain.getBestActionForPlayer(position, voronoi, position.getCurrentPlayer(), depth);
+            plainNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            String prunedMove = pruned.getBestActionForPlayer(position, voronoi, position.getCurrentPlayer(), depth);
+            prunedNanos += System.nanoTime() - start;
+            if (plainMove != null && !plainMove.equals(prunedMove)) {
+                changed++;
+            }
+        }
+
+        long plainNodes = plain.getNodeCount();
+        long prunedNodes = pruned.getNodeCount();
+        System.out.println("générateur\tnoeuds\ttemps (ms)");
+        System.out.printf("Action\t%d\t%.1f%n", plainNodes, plainNanos / 1e6);
+        System.out.printf("SoundPruningAction\t%d\t%.1f%n", prunedNodes, prunedNanos / 1e6);
+        System.out.printf("Noeuds économisés : %.1f %%, coups écartés : %d sur %d générés%n",
+                plainNodes > 0 ? 100.0 * (plainNodes - prunedNodes) / plainNodes : 0.0, pruning.getPrunedMoves(),
+                pruning.getGeneratedMoves());
+        System.out.println("Coup choisi différent dans " + changed + " positions sur " + positions.size());
+    }
+
+    /**
+     * Crée le moteur mesuré, sans résolution des fins de partie : un joueur isolé serait résolu sans
+     * recherche avec les deux générateurs.
+     *
+     * @param action Le générateur de coups.
+     * @return       Le moteur.
+     */
+    private static MaxNAlgorithme engine(Action action) {
+        MaxNAlgorithme engine = new MaxNAlgorithme(new VoronoiStateEvaluation(), action);
+        engine.setEndgameSolver(null);
+        return engine;
+    }
+
+    /**
+     * Tire les positions : chaque joueur part d'une case au hasard puis joue des coups au hasard, pour
+     * obtenir des grilles déjà découpées en régions. Les joueurs bloqués ne jouent plus.
+     *
+     * @param gridSize       La taille de la grille.
+     * @param numPlayers     Le nombre de joueurs.
+     * @param movesPerPlayer Le nombre de coups joués par chaque joueur.
+     * @return               Les positions.
+     */
+    private static List<StateGame> positions(int gridSize, int numPlayers, int movesPerPlayer) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Action action = new Action();
+        List<StateGame> positions = new ArrayList<>();
+        for (int p = 0; p < POSITIONS; p++) {
+            // Des joueurs neufs par position : la recherche marque morts les joueurs sans coup
+            Player[] players = new Player[numPlayers];
+            for (int i = 0; i < numPlayers; i++) {
+                players[i] = new Player("robot" + (i + 1), i, (char) ('1' + i));
+            }
+            Player[][] grid = new Player[gridSize][gridSize];
+            Map<Player, Point> playerPosition = new HashMap<>();
+            for (Player player : players) {
+                int x = random.nextInt(gridSize);
+                int y = random.nextInt(gridSize);
+                while (grid[x][y] != null) {
+                    x = random.nextInt(gridSize);
+                    y = random.nextInt(gridSize);
+                }
+                grid[x][y] = player;
+                playerPosition.put(player, new Point(x, y));
+            }
+            StateGame state = new StateGame(grid, playerPosition, players[0]);
+            for (int move = 0; move < movesPerPlayer; move++) {
+                for (Player player : players) {
+                    String direction = action.getRandomAction(state, player, random);
+                    if (direction != null) {
+                        state = action.applyAction(state, direction, player);
+                    }
+                }
+            }
+            state.setCurrentPlayer(players[0]);
+            positions.add(state);
+        }
+        return positions;
+    }
+}
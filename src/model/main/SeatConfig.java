@@ -0,0 +1,191 @@
+package model.main;
+
+import model.algorithmes.*;
+import model.evaluation.*;
+import model.jeu.*;
+
+/**
+ * La class SeatConfig décrit un siège d'un tournoi : l'algorithme qui y joue, sa profondeur de recherche,
+ * son nombre de threads de recherche Lazy SMP et, en option, son équipe. Un siège s'écrit
+ * algorithme[:profondeur][/threads][@équipe], par exemple "maxn:3", "paranoid:4", "maxn:5/4", "sos:3@a"
+ * ou "random" ; les sièges de même équipe jouent ensemble.
+ */
+public final class SeatConfig {
+
+    /** Les algorithmes qui peuvent occuper un siège. */
+    public enum Algorithm { MAXN, PARANOID, SOS, RANDOM }
+
+    private static final int DEFAULT_DEPTH = 3;
+    private static final long TABLE_MEGABYTES = 16; // Table partagée par les threads d'un siège, pour une partie
+
+    private final Algorithm algorithm;
+    private final int depth;
+    private final int threads;
+    private final String team;
+
+    /**
+     * Constructeur de la class SeatConfig.
+     *
+     * @param algorithm L'algorithme du siège.
+     * @param depth     La profondeur de recherche (ignorée pour RANDOM).
+     * @param team      Le nom de l'équipe, ou null si le siège joue seul.
+     */
+    public SeatConfig(Algorithm algorithm, int depth, String team) {
+        this(algorithm, depth, 1, team);
+    }
+
+    /**
+     * Constructeur de la class SeatConfig avec une recherche parallèle.
+     *
+     * @param algorithm L'algorithme du siège.
+     * @param depth     La profondeur de recherche (ignorée pour RANDOM).
+     * @param threads   Le nombre de threads de recherche Lazy SMP (ignoré pour RANDOM).
+     * @param team      Le nom de l'équipe, ou null si le siège joue seul.
+     */
+    public SeatConfig(Algorithm algorithm, int depth, int threads, String team) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("La profondeur de recherche doit être supérieure à zéro.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Le nombre de threads de recherche doit être supérieur à zéro.");
+        }
+        this.algorithm = algorithm;
+        this.depth = depth;
+        this.threads = threads;
+        this.team = team;
+    }
+
+    /**
+     * Lit un siège écrit sous la forme algorithme[:profondeur][/threads][@équipe].
+     *
+     * @param spec La description du siège.
+     * @return     Le siège.
+     * @throws IllegalArgumentException si la description n'est pas reconnue.
+     */
+    public static SeatConfig parse(String spec) {
+        String rest = spec.trim();
+        String team = null;
+        int at = rest.indexOf('@');
+        if (at >= 0) {
+            team = rest.substring(at + 1);
+            rest = rest.substring(0, at);
+            if (team.isEmpty()) {
+                throw new IllegalArgumentException("Équipe vide dans le siège : " + spec);
+            }
+        }
+        int threads = 1;
+        int slash = rest.indexOf('/');
+        if (slash >= 0) {
+            try {
+                threads = Integer.parseInt(rest.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Nombre de threads invalide dans le siège : " + spec);
+            }
+            rest = rest.substring(0, slash);
+        }
+        int depth = DEFAULT_DEPTH;
+        int colon = rest.indexOf(':');
+        if (colon >= 0) {
+            try {
+                depth = Integer.parseInt(rest.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Profondeur invalide dans le siège : " + spec);
+            }
+            rest = rest.substring(0, colon);
+        }
+        Algorithm algorithm;
+        try {
+            algorithm = Algorithm.valueOf(rest.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Algorithme inconnu dans le siège : " + spec
+                    + " (maxn, paranoid, sos ou random)");
+        }
+        return new SeatConfig(algorithm, depth, threads, team);
+    }
+
+    /**
+     * Crée un moteur de recherche neuf pour ce siège : un moteur garde des tampons et un historique de
+     * coups, il n'est donc jamais partagé entre deux parties jouées en même temps.
+     *
+     * @param action L'objet Action de la partie.
+     * @return       Le moteur, ou null pour un siège qui joue au hasard.
+     */
+    public AbstractAlgorithmeSearch createEngine(Action action) {
+        StateEvaluation evaluation = new VoronoiStateEvaluation();
+        switch (algorithm) {
+            case MAXN:
+                return new MaxNAlgorithme(evaluation, action);
+            case PARANOID:
+                return new ParanoidAlgorithm(evaluation, action);
+            case SOS:
+                return new SOSAlgorithm(evaluation, action);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Crée la recherche de ce siège pour une partie : le moteur de createEngine, entouré de ses threads
+     * auxiliaires Lazy SMP s'il en a. Les auxiliaires sont créés par createEngine, donc configurés comme
+     * le moteur principal, et partagent une table de transposition neuve pour la partie. La recherche doit
+     * être arrêtée (shutdown) à la fin de la partie.
+     *
+     * @param action L'objet Action de la partie.
+     * @return       La recherche, ou null pour un siège qui joue au hasard.
+     */
+    public LazySmpSearch<AbstractAlgorithmeSearch> createSearch(Action action) {
+        if (algorithm == Algorithm.RANDOM) {
+            return null;
+        }
+        TranspositionTable table = threads > 1 ? new OffHeapTranspositionTable(TABLE_MEGABYTES, false) : null;
+        return new LazySmpSearch<>(() -> createEngine(action), threads, table);
+    }
+
+    /**
+     * Obtient l'algorithme du siège.
+     *
+     * @return L'algorithme.
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Obtient la profondeur de recherche du siège.
+     *
+     * @return La profondeur.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Obtient le nombre de threads de recherche du siège.
+     *
+     * @return Le nombre de threads, 1 sans recherche parallèle.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Obtient l'équipe du siège.
+     *
+     * @return Le nom de l'équipe, ou null si le siège joue seul.
+     */
+    public String getTeam() {
+        return team;
+    }
+
+    @Override
+    public String toString() {
+        String name = algorithm.name().toLowerCase();
+        if (algorithm != Algorithm.RANDOM) {
+            name += ":" + depth;
+            if (threads > 1) {
+                name += "/" + threads;
+            }
+        }
+        return team != null ? name + "@" + team : name;
+    }
+}
@@ -0,0 +1,112 @@
+package model.main;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import model.jeu.*;
+
+/**
+ * Joue en masse des parties de faible profondeur avec SelfPlayExecutor et affiche le débit pendant les
+ * parties, puis les victoires de chaque siège. Avec -record, chaque partie est ajoutée à un fichier
+ * GameRecordWriter dès sa fin : l'ordre des parties dans le fichier dépend alors des threads. De même,
+ * -results écrit une ligne CSV ou JSON par partie avec un GameResultWriter.
+ */
+public class SelfPlay {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> positional = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        Long seed = Long.getLong(RandomSource.SEED_PROPERTY);
+        int inFlight = -1;
+        String recordFile = null;
+        String resultsFile = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-inflight") && i + 1 < args.length) {
+                inFlight = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-record") && i + 1 < args.length) {
+                recordFile = args[++i];
+            } else if (args[i].equals("-results") && i + 1 < args.length) {
+                resultsFile = args[++i];
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.size() < 3) {
+            System.out.println("Utilisation : SelfPlay <nombre_parties> <taille_grille> <siège> <siège>..."
+                    + " [-threads N] [-seed S] [-inflight M] [-record fichier] [-results fichier.csv|fichier.jsonl]");
+            return;
+        }
+        int games = Integer.parseInt(positional.get(0));
+        int gridSize = Integer.parseInt(positional.get(1));
+        List<SeatConfig> seats = new ArrayList<>();
+        try {
+            for (String spec : positional.subList(2, positional.size())) {
+                seats.add(SeatConfig.parse(spec));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        // Par défaut : beaucoup de parties en cours sur des threads virtuels, quelques-unes par coeur sinon
+        if (inFlight <= 0) {
+            inFlight = SelfPlayExecutor.virtualThreadsAvailable() ? 10_000 : 2 * threads;
+        }
+        if (games <= 0 || gridSize <= 0 || threads <= 0) {
+            System.out.println("Le nombre de parties, la taille de la grille et le nombre de threads doivent être supérieurs à zéro.");
+            return;
+        }
+
+        System.out.println((SelfPlayExecutor.virtualThreadsAvailable() ? "Threads virtuels" : "Threads classiques")
+                + ", " + threads + " threads de recherche, " + inFlight + " parties en cours au plus");
+        long gamesSeed = seed != null ? seed : RandomSource.fromSystemProperty().getSeed();
+        System.out.println("Graine : " + gamesSeed);
+        SelfPlayExecutor executor = new SelfPlayExecutor(gridSize, seats, threads, inFlight);
+        GameRecordWriter recordWriter = recordFile != null ? new GameRecordWriter(Path.of(recordFile)) : null;
+        executor.setRecording(recordWriter != null);
+        GameResultWriter resultWriter = resultsFile != null
+                ? new GameResultWriter(Path.of(resultsFile), gridSize, seats) : null;
+        AtomicLongArray wins = new AtomicLongArray(seats.size());
+        long start = System.nanoTime();
+        try {
+            executor.run(games, gamesSeed, result -> {
+                for (int seat = 0; seat < seats.size(); seat++) {
+                    if (result.isWinner(seat)) {
+                        wins.incrementAndGet(seat);
+                    }
+                }
+                try {
+                    if (recordWriter != null) {
+                        recordWriter.write(result.getRecord());
+                    }
+                    if (resultWriter != null) {
+                        resultWriter.write(result);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } finally {
+            if (recordWriter != null) {
+                recordWriter.close();
+            }
+            if (resultWriter != null) {
+                resultWriter.close();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        for (int seat = 0; seat < seats.size(); seat++) {
+            System.out.printf("Siège %d (%s) : %d victoires (%.1f %%)%n", seat + 1, seats.get(seat), wins.get(seat),
+                    100.0 * wins.get(seat) / games);
+        }
+        System.out.printf("%d parties, %d coups en %.1f s : %.1f parties/s, %.0f coups/s%n", executor.getGamesPlayed(),
+                executor.getMovesPlayed(), seconds, executor.getGamesPlayed() / seconds, executor.getMovesPlayed() / seconds);
+    }
+}
@@ -0,0 +1,216 @@
+package model.main;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import model.jeu.*;
+
+/**
+ * La class SelfPlayExecutor joue un très grand nombre de parties en même temps, pour produire des données
+ * d'entraînement. Quand la JVM propose les threads virtuels (Java 21 et plus), chaque partie a son thread
+ * virtuel et ses recherches sont lancées dans un pool borné au nombre de coeurs : une partie qui attend
+ * son coup ne coûte qu'une pile de quelques kilooctets. Sinon, les parties sont jouées directement dans
+ * le pool borné. Dans les deux cas, un sémaphore limite le nombre de parties en cours : la boucle de
+ * lancement attend qu'une partie se termine avant d'en commencer une autre, et la mémoire reste stable.
+ */
+public class SelfPlayExecutor {
+
+    private final GameSimulation simulation;
+    private final int numSeats;
+    private final int cpuThreads;
+    private final int maxInFlight;
+    private final LongAdder games = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private long reportMillis = 1000;
+
+    /**
+     * Constructeur de la class SelfPlayExecutor.
+     *
+     * @param gridSize    La taille de la grille.
+     * @param seats       Les sièges, un par joueur.
+     * @param cpuThreads  Le nombre de threads qui cherchent les coups.
+     * @param maxInFlight Le nombre maximal de parties en cours.
+     */
+    public SelfPlayExecutor(int gridSize, List<SeatConfig> seats, int cpuThreads, int maxInFlight) {
+        if (cpuThreads <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("Le nombre de threads et de parties en cours doit être positif.");
+        }
+        this.simulation = new GameSimulation(gridSize, seats);
+        this.simulation.setMoveCounter(moves);
+        this.numSeats = seats.size();
+        this.cpuThreads = cpuThreads;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Vérifie si la JVM propose les threads virtuels.
+     *
+     * @return true si les parties peuvent être jouées sur des threads virtuels.
+     */
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Crée un exécuteur qui lance chaque tâche sur un nouveau thread virtuel. La méthode est cherchée par
+     * réflexion pour que le projet compile et tourne aussi sur Java 17.
+     *
+     * @return L'exécuteur, ou null si la JVM ne propose pas les threads virtuels.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Modifie l'intervalle entre deux affichages du débit.
+     *
+     * @param reportMillis L'intervalle en millisecondes, 0 pour ne rien afficher.
+     */
+    public void setReportMillis(long reportMillis) {
+        this.reportMillis = reportMillis;
+    }
+
+    /**
+     * Active l'enregistrement des parties : le résultat transmis à run contient alors l'enregistrement
+     * de chaque partie (voir GameRecordWriter).
+     *
+     * @param recording true pour enregistrer les parties.
+     */
+    public void setRecording(boolean recording) {
+        simulation.setRecording(recording);
+    }
+
+    /**
+     * Joue des parties et transmet chaque résultat dès la fin de sa partie.
+     *
+     * @param count    Le nombre de parties.
+     * @param seed     La graine des parties : la partie g joue avec RandomSource(seed).forGame(g).
+     * @param onResult Reçoit le résultat de chaque partie, depuis le thread de la partie : il doit
+     *                 supporter les appels concurrents.
+     * @throws InterruptedException si le lancement est interrompu.
+     */
+    public void run(int count, long seed, Consumer<GameSimulation.Result> onResult) throws InterruptedException {
+        ExecutorService searchPool = Executors.newFixedThreadPool(cpuThreads, daemonThreads("self-play-search"));
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        ExecutorService gameExecutor = virtualThreads != null ? virtualThreads : searchPool;
+        simulation.setSearchExecutor(virtualThreads != null ? searchPool : null);
+
+        ScheduledExecutorService reporter = null;
+        if (reportMillis > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(daemonThreads("self-play-report"));
+            reporter.scheduleAtFixedRate(new Reporter(), reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+        }
+
+        RandomSource randomSource = new RandomSource(seed);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            for (int game = 0; game < count && failure.get() == null; game++) {
+                inFlight.acquire(); // Contre-pression : on attend qu'une partie se termine
+                long gameNumber = game;
+                int rotation = game % numSeats;
+                gameExecutor.execute(() -> {
+                    try {
+                        GameSimulation.Result result = simulation.play(randomSource, gameNumber, rotation);
+                        games.increment();
+                        onResult.accept(result);
+                    } catch (Throwable e) {
+                        // Les Error aussi (pile ou mémoire épuisée) : run doit échouer, pas rendre moins de parties
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            // Attente de la fin de toutes les parties en cours
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        } finally {
+            if (virtualThreads != null) {
+                virtualThreads.shutdown();
+            }
+            searchPool.shutdown();
+            if (reporter != null) {
+                reporter.shutdown();
+            }
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Échec d'une partie", failure.get());
+        }
+    }
+
+    /**
+     * Obtient le nombre de parties terminées.
+     *
+     * @return Le nombre de parties.
+     */
+    public long getGamesPlayed() {
+        return games.sum();
+    }
+
+    /**
+     * Obtient le nombre de coups joués.
+     *
+     * @return Le nombre de coups.
+     */
+    public long getMovesPlayed() {
+        return moves.sum();
+    }
+
+    /**
+     * Crée des threads démons nommés, qui n'empêchent pas la JVM de s'arrêter.
+     *
+     * @param name Le préfixe du nom des threads.
+     * @return     La fabrique de threads.
+     */
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Affiche le débit depuis le dernier affichage.
+     */
+    private final class Reporter implements Runnable {
+
+        private long lastNanos = System.nanoTime();
+        private long lastGames;
+        private long lastMoves;
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            long totalGames = games.sum();
+            long totalMoves = moves.sum();
+            double seconds = (now - lastNanos) / 1e9;
+            System.out.printf("parties : %d (%.1f/s), coups : %d (%.0f/s)%n", totalGames,
+                    (totalGames - lastGames) / seconds, totalMoves, (totalMoves - lastMoves) / seconds);
+            lastNanos = now;
+            lastGames = totalGames;
+            lastMoves = totalMoves;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package model.main;
+
+/**
+ * La class SequentialTest décide, partie après partie, si un siège est meilleur qu'un autre, pour arrêter
+ * un tournoi dès que le résultat est acquis au lieu de jouer toujours le même nombre de parties. Seules
+ * les parties décisives comptent : celles où exactement un des deux sièges gagne. Sur ces parties, p est
+ * la probabilité que le premier siège gagne.
+ *
+ * Deux tests sont proposés :
+ *  - SPRT (test séquentiel du rapport de vraisemblance de Wald) entre H0 : p = 0,5 - delta et
+ *    H1 : p = 0,5 + delta, avec les risques d'erreur alpha et beta. Le rapport de vraisemblance vaut
+ *    (victoires - défaites) * ln(p1 / p0) et le test s'arrête quand il sort de [ln(beta / (1 - alpha)),
+ *    ln((1 - beta) / alpha)]. Si les deux sièges sont de même force, le test peut ne jamais conclure :
+ *    le nombre de parties du tournoi reste un maximum.
+ *  - Intervalle de confiance de Wilson : le test s'arrête quand l'intervalle ne contient plus 0,5 (un
+ *    siège est meilleur) ou quand sa demi-largeur passe sous une marge (les sièges sont équivalents).
+ *    L'intervalle est recalculé à chaque partie : pour garder un risque d'erreur raisonnable, prendre
+ *    z plus grand que pour un test unique (3 plutôt que 1,96) ; aucune décision avant MIN_TRIALS parties
+ *    décisives.
+ */
+public final class SequentialTest {
+
+    /**
+     * La décision du test après une partie.
+     */
+    public enum Decision { CONTINUE, FIRST_BETTER, SECOND_BETTER, EQUIVALENT }
+
+    static final int MIN_TRIALS = 10;
+
+    private final boolean sprt;
+    private final double logRatio; // ln(p1 / p0) pour le SPRT
+    private final double lowerBound;
+    private final double upperBound;
+    private final double z;
+    private final double margin;
+    private final String parameters; // Type et paramètres du test, voir getParameters
+    private int wins;
+    private int losses;
+    private Decision decision = Decision.CONTINUE;
+
+    private SequentialTest(boolean sprt, double logRatio, double lowerBound, double upperBound, double z,
+            double margin, String parameters) {
+        this.sprt = sprt;
+        this.logRatio = logRatio;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.z = z;
+        this.margin = margin;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Crée un SPRT.
+     *
+     * @param delta L'écart à 0,5 des deux hypothèses, par exemple 0,1 pour 60 % contre 40 %.
+     * @param alpha Le risque de déclarer le premier siège meilleur à tort.
+     * @param beta  Le risque de déclarer le second siège meilleur à tort.
+     * @return      Le test.
+     */
+    public static SequentialTest sprt(double delta, double alpha, double beta) {
+        if (delta <= 0 || delta >= 0.5 || alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("Paramètres du SPRT invalides : 0 < delta < 0,5, 0 < alpha, beta < 1.");
+        }
+        double logRatio = Math.log((0.5 + delta) / (0.5 - delta));
+        return new SequentialTest(true, logRatio, Math.log(beta / (1 - alpha)), Math.log((1 - beta) / alpha), 0, 0,
+                "sprt delta=" + delta + " alpha=" + alpha + " beta=" + beta);
+    }
+
+    /**
+     * Crée un test par intervalle de confiance de Wilson.
+     *
+     * @param z      Le quantile de la loi normale de l'intervalle, par exemple 3.
+     * @param margin La demi-largeur sous laquelle les sièges sont jugés équivalents, par exemple 0,05.
+     * @return       Le test.
+     */
+    public static SequentialTest confidenceInterval(double z, double margin) {
+        if (z <= 0 || margin <= 0) {
+            throw new IllegalArgumentException("Paramètres de l'intervalle de confiance invalides : z et marge positifs.");
+        }
+        return new SequentialTest(false, 0, 0, 0, z, margin, "ci z=" + z + " margin=" + margin);
+    }
+
+    /**
+     * Compte une partie décisive et met à jour la décision.
+     *
+     * @param firstWon true si le premier siège a gagné la partie, false si c'est le second.
+     * @return         La décision, qui ne change plus une fois prise.
+     */
+    public Decision add(boolean firstWon) {
+        if (decision != Decision.CONTINUE) {
+            return decision;
+        }
+        if (firstWon) {
+            wins++;
+        } else {
+            losses++;
+        }
+        return decide();
+    }
+
+    /**
+     * Reprend un test interrompu (voir TournamentCheckpoint) : la décision ne dépend que des compteurs,
+     * elle est recalculée telle qu'elle était après la dernière partie comptée.
+     *
+     * @param wins   Le nombre de parties décisives gagnées par le premier siège.
+     * @param losses Le nombre de parties décisives gagnées par le second siège.
+     * @return       La décision.
+     */
+    Decision restore(int wins, int losses) {
+        this.wins = wins;
+        this.losses = losses;
+        this.decision = Decision.CONTINUE;
+        return decide();
+    }
+
+    private Decision decide() {
+        if (sprt) {
+            double llr = getLogLikelihoodRatio();
+            if (llr >= upperBound) {
+                decision = Decision.FIRST_BETTER;
+            } else if (llr <= lowerBound) {
+                decision = Decision.SECOND_BETTER;
+            }
+        } else if (wins + losses >= MIN_TRIALS) {
+            double[] interval = wilsonInterval();
+            if (interval[0] > 0.5) {
+                decision = Decision.FIRST_BETTER;
+            } else if (interval[1] < 0.5) {
+                decision = Decision.SECOND_BETTER;
+            } else if ((interval[1] - interval[0]) / 2 < margin) {
+                decision = Decision.EQUIVALENT;
+            }
+        }
+        return decision;
+    }
+
+    /**
+     * Obtient le type et les paramètres du test, par exemple "sprt delta=0.1 alpha=0.05 beta=0.05" : deux
+     * tests qui ont la même description prennent les mêmes décisions.
+     *
+     * @return La description du test.
+     */
+    public String getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Obtient la décision courante.
+     *
+     * @return La décision.
+     */
+    public Decision getDecision() {
+        return decision;
+    }
+
+    /**
+     * Obtient le nombre de parties décisives gagnées par le premier siège.
+     *
+     * @return Le nombre de victoires.
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Obtient le nombre de parties décisives gagnées par le second siège.
+     *
+     * @return Le nombre de défaites du premier siège.
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Obtient le logarithme du rapport de vraisemblance du SPRT.
+     *
+     * @return ln(L(H1) / L(H0)).
+     */
+    public double getLogLikelihoodRatio() {
+        return (wins - losses) * logRatio;
+    }
+
+    /**
+     * Calcule l'intervalle de confiance de Wilson de p.
+     *
+     * @return Les bornes inférieure et supérieure.
+     */
+    private double[] wilsonInterval() {
+        double n = wins + losses;
+        double p = wins / n;
+        double z2 = z * z;
+        double center = (p + z2 / (2 * n)) / (1 + z2 / n);
+        double halfWidth = z * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n)) / (1 + z2 / n);
+        return new double[] { center - halfWidth, center + halfWidth };
+    }
+
+    @Override
+    public String toString() {
+        String state = wins + " victoires contre " + losses;
+        if (sprt) {
+            return String.format("SPRT : %s, LLR = %.2f dans [%.2f, %.2f]", state, getLogLikelihoodRatio(),
+                    lowerBound, upperBound);
+        }
+        if (wins + losses == 0) {
+            return "Intervalle de confiance : aucune partie décisive";
+        }
+        double[] interval = wilsonInterval();
+        return String.format("Intervalle de confiance : %s, p dans [%.3f, %.3f]", state, interval[0], interval[1]);
+    }
+}
@@ -0,0 +1,51 @@
+package model.main;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
+import model.algorithmes.*;
+
+/**
+ * Construit hors ligne la table de fin de partie d'une fenêtre de lignes x colonnes cases, en calculant
+ * chaque couche de l'analyse rétrograde sur tous les threads demandés.
+ */
+public class TablebaseBuilder {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.out.println("Utilisation : TablebaseBuilder <lignes> <colonnes> <fichier> [<threads>]");
+            return;
+        }
+        int rows = Integer.parseInt(args[0]);
+        int cols = Integer.parseInt(args[1]);
+        Path file = Path.of(args[2]);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        if (rows <= 0 || cols <= 0 || threads <= 0) {
+            System.out.println("Tous les paramètres doivent être supérieurs à zéro.");
+            return;
+        }
+        if (rows * cols < 2 || rows * cols > EndgameTablebase.MAX_CELLS) {
+            System.out.println("La fenêtre doit compter entre 2 et " + EndgameTablebase.MAX_CELLS + " cases.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        // Écriture dans un fichier temporaire puis remplacement, pour ne jamais laisser de fichier partiel
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            EndgameTablebase.write(out, rows, cols, pool);
+        } finally {
+            pool.shutdown();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        System.out.println("Table " + rows + "x" + cols + " écrite dans " + file + " (" + Files.size(file)
+                + " octets) en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
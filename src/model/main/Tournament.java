@@ -0,0 +1,321 @@
+package model.main;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import model.jeu.*;
+
+/**
+ * Joue un tournoi de nombreuses parties dans une seule JVM, en parallèle sur tous les coeurs, et affiche
+ * les victoires de chaque siège : remplace les scripts de script_bash qui lançaient une JVM par partie.
+ * Chaque partie a son générateur, qui ne dépend que de la graine du tournoi et du numéro de la partie :
+ * le tournoi se rejoue donc à l'identique avec la même graine, quel que soit le nombre de threads.
+ * Avec -record, chaque partie est ajoutée, dans l'ordre des parties, à un fichier GameRecordWriter ;
+ * avec -results, une ligne CSV ou JSON par partie est écrite par un GameResultWriter.
+ *
+ * Avec -sprt ou -ci, le tournoi compare deux sièges (les deux premiers, ou ceux de -compare) avec un
+ * SequentialTest et s'arrête dès que le résultat est acquis : le nombre de parties devient un maximum.
+ * Les parties sont lancées par fenêtre glissante et dépouillées dans l'ordre : l'arrêt a lieu après la
+ * même partie quel que soit le nombre de threads, et les parties déjà lancées au-delà sont abandonnées.
+ *
+ * Avec -checkpoint, l'état du tournoi (TournamentCheckpoint) est enregistré régulièrement et à la fin ;
+ * relancer la même commande reprend le tournoi à la première partie non comptée.
+ */
+public class Tournament {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> positional = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        Long seed = Long.getLong(RandomSource.SEED_PROPERTY);
+        String recordFile = null;
+        String resultsFile = null;
+        Double sprtDelta = null;
+        Double ciZ = null;
+        double alpha = 0.05;
+        double beta = 0.05;
+        double margin = 0.05;
+        String compare = "1,2";
+        String checkpointFile = null;
+        int checkpointSeconds = 30;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-record") && i + 1 < args.length) {
+                recordFile = args[++i];
+            } else if (args[i].equals("-results") && i + 1 < args.length) {
+                resultsFile = args[++i];
+            } else if (args[i].equals("-sprt") && i + 1 < args.length) {
+                sprtDelta = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-alpha") && i + 1 < args.length) {
+                alpha = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-beta") && i + 1 < args.length) {
+                beta = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-ci") && i + 1 < args.length) {
+                ciZ = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-margin") && i + 1 < args.length) {
+                margin = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-compare") && i + 1 < args.length) {
+                compare = args[++i];
+            } else if (args[i].equals("-checkpoint") && i + 1 < args.length) {
+                checkpointFile = args[++i];
+            } else if (args[i].equals("-checkpoint-seconds") && i + 1 < args.length) {
+                checkpointSeconds = Integer.parseInt(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.size() < 3) {
+            System.out.println("Utilisation : Tournament <nombre_parties> <taille_grille> <siège> <siège>... [-threads N] [-seed S] [-record fichier] [-results fichier.csv|fichier.jsonl]");
+            System.out.println("Arrêt séquentiel : [-sprt delta [-alpha a] [-beta b] | -ci z [-margin m]] [-compare siège,siège]");
+            System.out.println("Reprise après un arrêt : [-checkpoint fichier [-checkpoint-seconds S]]");
+            System.out.println("Un siège s'écrit algorithme[:profondeur][@équipe], par exemple maxn:3, paranoid:4, sos:3@a ou random.");
+            return;
+        }
+        int games = Integer.parseInt(positional.get(0));
+        int gridSize = Integer.parseInt(positional.get(1));
+        List<SeatConfig> seats = new ArrayList<>();
+        SequentialTest test = null;
+        int first = 0;
+        int second = 1;
+        try {
+            for (String spec : positional.subList(2, positional.size())) {
+                seats.add(SeatConfig.parse(spec));
+            }
+            if (sprtDelta != null || ciZ != null) {
+                test = sprtDelta != null ? SequentialTest.sprt(sprtDelta, alpha, beta)
+                        : SequentialTest.confidenceInterval(ciZ, margin);
+                String[] pair = compare.split(",");
+                first = Integer.parseInt(pair[0].trim()) - 1;
+                second = pair.length == 2 ? Integer.parseInt(pair[1].trim()) - 1 : -1;
+                if (first < 0 || second < 0 || first >= seats.size() || second >= seats.size() || first == second) {
+                    throw new IllegalArgumentException("-compare attend deux sièges différents, par exemple 1,2.");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        if (games <= 0 || gridSize <= 0 || threads <= 0) {
+            System.out.println("Le nombre de parties, la taille de la grille et le nombre de threads doivent être supérieurs à zéro.");
+            return;
+        }
+
+        int numSeats = seats.size();
+        TournamentCheckpoint state = new TournamentCheckpoint();
+        // Le test et ses paramètres en font partie : reprendre avec un autre test fausserait sa décision
+        state.configuration = gridSize + " " + seats
+                + (test != null ? " " + test.getParameters() + " " + (first + 1) + "," + (second + 1) : "");
+        state.wins = new int[numSeats];
+        if (checkpointFile != null) {
+            TournamentCheckpoint saved = TournamentCheckpoint.read(Path.of(checkpointFile));
+            if (saved != null) {
+                if (!saved.configuration.equals(state.configuration) || seed != null && seed != saved.seed) {
+                    System.out.println(checkpointFile + " enregistre un autre tournoi (" + saved.configuration + ", graine "
+                            + saved.seed + ") : changer de fichier ou le supprimer.");
+                    return;
+                }
+                state = saved;
+                seed = saved.seed;
+                // Les parties écrites après l'enregistrement de l'état seront rejouées : on les retire
+                try {
+                    if (recordFile != null) {
+                        TournamentCheckpoint.truncate(Path.of(recordFile), saved.recordLength);
+                    }
+                    if (resultsFile != null) {
+                        TournamentCheckpoint.truncate(Path.of(resultsFile), saved.resultsLength);
+                    }
+                } catch (IOException e) {
+                    System.out.println(e.getMessage());
+                    return;
+                }
+                if (test != null) {
+                    test.restore(saved.testWins, saved.testLosses);
+                }
+                System.out.println("Reprise de " + checkpointFile + " : " + saved.nextGame + " parties déjà jouées");
+            }
+        }
+
+        RandomSource randomSource = seed != null ? new RandomSource(seed) : RandomSource.fromSystemProperty();
+        state.seed = randomSource.getSeed();
+        System.out.println("Graine : " + randomSource.getSeed());
+        GameSimulation simulation = new GameSimulation(gridSize, seats);
+        GameRecordWriter recordWriter = recordFile != null ? new GameRecordWriter(Path.of(recordFile)) : null;
+        simulation.setRecording(recordWriter != null);
+        GameResultWriter resultWriter = resultsFile != null
+                ? new GameResultWriter(Path.of(resultsFile), gridSize, seats) : null;
+        long start = System.nanoTime();
+        long lastCheckpoint = start;
+        int firstGame = state.nextGame;
+        boolean decided = test != null && test.getDecision() != SequentialTest.Decision.CONTINUE;
+        int toPlay = decided ? 0 : Math.max(0, games - firstGame);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Sans arrêt séquentiel toutes les parties sont lancées d'emblée, sinon quelques-unes par thread
+        int window = test != null ? 2 * threads : toPlay;
+        List<Future<GameSimulation.Result>> results = new ArrayList<>(toPlay);
+        for (int i = 0; i < Math.min(window, toPlay); i++) {
+            results.add(submit(executor, simulation, randomSource, firstGame + i, numSeats));
+        }
+
+        long sessionMoves = 0;
+        try {
+            for (int i = 0; i < toPlay; i++) {
+                int game = firstGame + i;
+                GameSimulation.Result result = results.get(i).get();
+                results.set(i, null);
+                if (i + window < toPlay) {
+                    results.add(submit(executor, simulation, randomSource, game + window, numSeats));
+                }
+                state.nextGame = game + 1;
+                for (int seat = 0; seat < numSeats; seat++) {
+                    if (result.isWinner(seat)) {
+                        state.wins[seat]++;
+                    }
+                }
+                if (result.isDraw()) {
+                    state.draws++;
+                }
+                state.rounds += result.getRounds();
+                state.moves += result.getMoves();
+                sessionMoves += result.getMoves();
+                if (recordWriter != null) {
+                    recordWriter.write(result.getRecord());
+                }
+                if (resultWriter != null) {
+                    resultWriter.write(result);
+                }
+                if ((game + 1) % Math.max(1, games / 10) == 0) {
+                    System.out.println((game + 1) + "/" + games + " parties jouées");
+                }
+                if (test != null && result.isWinner(first) != result.isWinner(second)
+                        && test.add(result.isWinner(first)) != SequentialTest.Decision.CONTINUE) {
+                    break;
+                }
+                if (checkpointFile != null && System.nanoTime() - lastCheckpoint >= checkpointSeconds * 1_000_000_000L) {
+                    saveCheckpoint(state, test, checkpointFile, recordWriter, recordFile, resultWriter, resultsFile);
+                    lastCheckpoint = System.nanoTime();
+                }
+            }
+            if (checkpointFile != null) {
+                saveCheckpoint(state, test, checkpointFile, recordWriter, recordFile, resultWriter, resultsFile);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'une partie du tournoi", e.getCause());
+        } finally {
+            executor.shutdownNow(); // Abandonne les parties lancées au-delà de l'arrêt
+            if (recordWriter != null) {
+                recordWriter.close();
+            }
+            if (resultWriter != null) {
+                resultWriter.close();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int played = state.nextGame;
+        int[] wins = state.wins;
+        int draws = state.draws;
+        long rounds = state.rounds;
+        if (played == 0) {
+            System.out.println("Aucune partie jouée.");
+            return;
+        }
+
+        System.out.println("Résultats du tournoi (" + played + " parties, grille " + gridSize + "x" + gridSize
+                + ", " + threads + " threads) :");
+        for (int seat = 0; seat < numSeats; seat++) {
+            System.out.printf("Siège %d (%s) : %d victoires (%.1f %%)%n", seat + 1, seats.get(seat), wins[seat],
+                    100.0 * wins[seat] / played);
+        }
+        System.out.printf("Parties nulles : %d (%.1f %%)%n", draws, 100.0 * draws / played);
+        System.out.printf("Tours par partie : %.1f, durée : %.1f s, %.1f parties/s, %.0f coups/s%n",
+                (double) rounds / played, seconds, (played - firstGame) / seconds, sessionMoves / seconds);
+        if (test != null) {
+            System.out.println(test);
+            System.out.println(conclusion(test.getDecision(), first, second, played, games));
+        }
+        if (recordFile != null) {
+            System.out.println("Parties enregistrées dans " + recordFile);
+        }
+        if (resultsFile != null) {
+            System.out.println("Résultats écrits dans " + resultsFile);
+        }
+    }
+
+    /**
+     * Enregistre l'état du tournoi, après avoir fait écrire et mettre sur disque les parties déjà
+     * comptées dans les fichiers -record et -results pour que leur longueur corresponde à l'état.
+     *
+     * @param state          L'état du tournoi.
+     * @param test           Le test séquentiel, ou null.
+     * @param checkpointFile Le fichier de l'état.
+     * @param recordWriter   Le fichier -record ouvert, ou null.
+     * @param recordFile     Le chemin du fichier -record, ou null.
+     * @param resultWriter   Le fichier -results ouvert, ou null.
+     * @param resultsFile    Le chemin du fichier -results, ou null.
+     * @throws IOException si l'écriture échoue.
+     */
+    private static void saveCheckpoint(TournamentCheckpoint state, SequentialTest test, String checkpointFile,
+            GameRecordWriter recordWriter, String recordFile, GameResultWriter resultWriter, String resultsFile)
+            throws IOException {
+        if (recordWriter != null) {
+            recordWriter.flush();
+            TournamentCheckpoint.sync(Path.of(recordFile));
+            state.recordLength = Files.size(Path.of(recordFile));
+        }
+        if (resultWriter != null) {
+            resultWriter.flush();
+            TournamentCheckpoint.sync(Path.of(resultsFile));
+            state.resultsLength = Files.size(Path.of(resultsFile));
+        }
+        if (test != null) {
+            state.testWins = test.getWins();
+            state.testLosses = test.getLosses();
+        }
+        state.write(Path.of(checkpointFile));
+    }
+
+    /**
+     * Lance une partie du tournoi.
+     *
+     * @param executor     Le pool des parties.
+     * @param simulation   La simulation.
+     * @param randomSource La source aléatoire du tournoi.
+     * @param game         Le numéro de la partie.
+     * @param numSeats     Le nombre de sièges.
+     * @return             Le résultat à venir de la partie.
+     */
+    private static Future<GameSimulation.Result> submit(ExecutorService executor, GameSimulation simulation,
+            RandomSource randomSource, int game, int numSeats) {
+        return executor.submit(() -> simulation.play(randomSource, game, game % numSeats));
+    }
+
+    /**
+     * Rédige la conclusion du test séquentiel.
+     *
+     * @param decision La décision du test.
+     * @param first    Le premier siège comparé.
+     * @param second   Le second siège comparé.
+     * @param played   Le nombre de parties jouées.
+     * @param games    Le nombre maximal de parties.
+     * @return         La conclusion.
+     */
+    private static String conclusion(SequentialTest.Decision decision, int first, int second, int played, int games) {
+        switch (decision) {
+            case FIRST_BETTER:
+                return "Arrêt après " + played + " parties : le siège " + (first + 1) + " est meilleur que le siège " + (second + 1) + ".";
+            case SECOND_BETTER:
+                return "Arrêt après " + played + " parties : le siège " + (second + 1) + " est meilleur que le siège " + (first + 1) + ".";
+            case EQUIVALENT:
+                return "Arrêt après " + played + " parties : les sièges " + (first + 1) + " et " + (second + 1) + " sont équivalents.";
+            default:
+                return "Aucune conclusion après " + games + " parties : augmenter le nombre de parties.";
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package model.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * L'état d'un tournoi en cours, enregistré régulièrement par Tournament pour reprendre après un arrêt.
+ * Les parties sont dépouillées dans l'ordre et chacune a son générateur RandomSource(graine).forGame(n) :
+ * la graine et le numéro de la prochaine partie suffisent à reprendre la suite aléatoire exactement où
+ * elle en était, sans rejouer les parties déjà comptées. Le fichier contient aussi les totaux, l'état du
+ * test séquentiel, et la longueur des fichiers -record et -results au moment de l'enregistrement, pour
+ * en retirer à la reprise les parties écrites après.
+ *
+ * Le fichier est écrit à côté sous un nom temporaire puis renommé : un arrêt pendant l'écriture laisse
+ * l'ancien état intact. Les fichiers -record et -results sont mis sur disque avant l'état, pour qu'après
+ * un redémarrage de la machine ils ne soient jamais plus courts que les longueurs enregistrées.
+ */
+final class TournamentCheckpoint {
+
+    private static final int MAGIC = 0x54524350; // "TRCP"
+    private static final int VERSION = 1;
+
+    String configuration; // Grille, sièges et test séquentiel : une reprise doit jouer le même tournoi
+    long seed;
+    int nextGame; // Les parties 0 à nextGame - 1 sont comptées
+    int[] wins;
+    int draws;
+    long rounds;
+    long moves;
+    int testWins;
+    int testLosses;
+    long recordLength = -1; // Longueur du fichier -record, -1 sans fichier
+    long resultsLength = -1; // Longueur du fichier -results, -1 sans fichier
+
+    /**
+     * Lit un état enregistré.
+     *
+     * @param file Le fichier.
+     * @return     L'état, ou null si le fichier n'existe pas.
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas un état de tournoi.
+     */
+    static TournamentCheckpoint read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " n'est pas un état de tournoi");
+            }
+            TournamentCheckpoint checkpoint = new TournamentCheckpoint();
+            checkpoint.configuration = in.readUTF();
+            checkpoint.seed = in.readLong();
+            checkpoint.nextGame = in.readInt();
+            checkpoint.wins = new int[in.readInt()];
+            for (int seat = 0; seat < checkpoint.wins.length; seat++) {
+                checkpoint.wins[seat] = in.readInt();
+            }
+            checkpoint.draws = in.readInt();
+            checkpoint.rounds = in.readLong();
+            checkpoint.moves = in.readLong();
+            checkpoint.testWins = in.readInt();
+            checkpoint.testLosses = in.readInt();
+            checkpoint.recordLength = in.readLong();
+            checkpoint.resultsLength = in.readLong();
+            return checkpoint;
+        }
+    }
+
+    /**
+     * Enregistre l'état : écriture dans un fichier temporaire, mise sur disque, puis renommage atomique.
+     *
+     * @param file Le fichier.
+     * @throws IOException si l'écriture échoue.
+     */
+    void write(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(configuration);
+            out.writeLong(seed);
+            out.writeInt(nextGame);
+            out.writeInt(wins.length);
+            for (int win : wins) {
+                out.writeInt(win);
+            }
+            out.writeInt(draws);
+            out.writeLong(rounds);
+            out.writeLong(moves);
+            out.writeInt(testWins);
+            out.writeInt(testLosses);
+            out.writeLong(recordLength);
+            out.writeLong(resultsLength);
+        }
+        sync(temporary);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Met sur disque le contenu d'un fichier déjà écrit, par exemple un fichier de sortie avant
+     * d'enregistrer sa longueur dans l'état.
+     *
+     * @param file Le fichier.
+     * @throws IOException si la mise sur disque échoue.
+     */
+    static void sync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Ramène un fichier de sortie à la longueur qu'il avait lors de l'enregistrement de l'état.
+     *
+     * @param file   Le fichier.
+     * @param length La longueur enregistrée, -1 si le fichier n'était pas utilisé.
+     * @throws IOException si le fichier ne peut pas être tronqué, ou s'il est plus court que la longueur
+     *                     enregistrée : des parties comptées dans l'état y manquent.
+     */
+    static void truncate(Path file, long length) throws IOException {
+        if (length < 0) {
+            return;
+        }
+        long size = Files.exists(file) ? Files.size(file) : 0;
+        if (size < length) {
+            throw new IOException(file + " fait " + size + " octets au lieu de " + length
+                    + " : des parties comptées y manquent, la reprise est impossible");
+        }
+        if (size > length) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package model.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import model.jeu.*;
+
+/**
+ * Coordonne un tournoi joué par des TournamentWorker, dans d'autres JVM de la même machine ou d'autres
+ * machines. Le coordinateur découpe le tournoi en lots de parties consécutives et les distribue aux
+ * travailleurs qui se connectent ; chaque travailleur renvoie le résultat de chaque partie dès qu'elle
+ * est finie, et le coordinateur les additionne au fur et à mesure. Si un travailleur se déconnecte ou
+ * reste muet plus longtemps que le délai, les parties de son lot qui manquent sont remises en file pour
+ * un autre travailleur. Comme une partie ne dépend que de la graine et de son numéro, le résultat est le
+ * même que celui de Tournament avec la même graine, quel que soit le nombre de travailleurs.
+ *
+ * Protocole (DataOutputStream, dans les deux sens sur la même connexion) :
+ *  - coordinateur : MAGIC, VERSION, taille de la grille, graine, nombre de sièges, puis chaque siège
+ *    en texte (SeatConfig.parse) ;
+ *  - coordinateur : BATCH, première partie, nombre de parties, ou END pour libérer le travailleur ;
+ *  - travailleur : GAME, numéro de la partie, masque des sièges gagnants, tours, coups, pour chaque
+ *    partie du lot, ou FAILED, numéro de la partie, message d'erreur pour une partie qui a échoué, puis
+ *    DONE à la fin du lot.
+ *
+ * Une partie qui a échoué est remise en file comme une partie perdue ; après MAX_FAILURES échecs de la
+ * même partie, l'erreur ne vient pas du travailleur : le tournoi est arrêté et les travailleurs libérés.
+ */
+public class TournamentCoordinator {
+
+    static final int MAGIC = 0x54524E54; // "TRNT"
+    static final int VERSION = 2;
+    static final byte BATCH = 'B';
+    static final byte END = 'E';
+    static final byte GAME = 'G';
+    static final byte DONE = 'D';
+    static final byte FAILED = 'F';
+    static final int MAX_FAILURES = 3; // Échecs d'une même partie avant d'arrêter le tournoi
+
+    private final int games;
+    private final int gridSize;
+    private final List<SeatConfig> seats;
+    private final long seed;
+    private final int timeoutMillis;
+    private final BlockingDeque<int[]> pending = new LinkedBlockingDeque<>(); // Lots à distribuer
+    private final CountDownLatch remaining;
+
+    // Résultats additionnés, protégés par this
+    private final BitSet done;
+    private final int[] wins;
+    private int draws;
+    private long rounds;
+    private long moves;
+    private int workers;
+    private int retries;
+    private final Map<Integer, Integer> failures = new HashMap<>(); // Échecs par partie
+    private volatile String abortReason; // Non null si le tournoi est arrêté
+
+    /**
+     * Constructeur de la class TournamentCoordinator.
+     *
+     * @param games         Le nombre de parties.
+     * @param gridSize      La taille de la grille.
+     * @param seats         Les sièges.
+     * @param seed          La graine du tournoi.
+     * @param batchSize     Le nombre de parties par lot.
+     * @param timeoutMillis Le délai sans nouvelles d'un travailleur avant de reprendre son lot.
+     */
+    public TournamentCoordinator(int games, int gridSize, List<SeatConfig> seats, long seed, int batchSize,
+            int timeoutMillis) {
+        this.games = games;
+        this.gridSize = gridSize;
+        this.seats = List.copyOf(seats);
+        this.seed = seed;
+        this.timeoutMillis = timeoutMillis;
+        this.remaining = new CountDownLatch(games);
+        this.done = new BitSet(games);
+        this.wins = new int[seats.size()];
+        for (int start = 0; start < games; start += batchSize) {
+            pending.add(new int[] { start, Math.min(batchSize, games - start) });
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> positional = new ArrayList<>();
+        int port = 7070;
+        int batchSize = 20;
+        int timeoutSeconds = 600;
+        Long seed = Long.getLong(RandomSource.SEED_PROPERTY);
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-batch") && i + 1 < args.length) {
+                batchSize = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-timeout") && i + 1 < args.length) {
+                timeoutSeconds = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.size() < 3) {
+            System.out.println("Utilisation : TournamentCoordinator <nombre_parties> <taille_grille> <siège> <siège>..."
+                    + " [-port P] [-batch B] [-timeout secondes] [-seed S]");
+            System.out.println("Puis sur chaque machine : TournamentWorker <hôte> <port> [-threads N]");
+            return;
+        }
+        int games = Integer.parseInt(positional.get(0));
+        int gridSize = Integer.parseInt(positional.get(1));
+        List<SeatConfig> seats = new ArrayList<>();
+        try {
+            for (String spec : positional.subList(2, positional.size())) {
+                seats.add(SeatConfig.parse(spec));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        if (games <= 0 || gridSize <= 0 || batchSize <= 0 || timeoutSeconds <= 0) {
+            System.out.println("Le nombre de parties, la taille de la grille, la taille des lots et le délai doivent être supérieurs à zéro.");
+            return;
+        }
+
+        long gamesSeed = seed != null ? seed : RandomSource.fromSystemProperty().getSeed();
+        System.out.println("Graine : " + gamesSeed);
+        TournamentCoordinator coordinator = new TournamentCoordinator(games, gridSize, seats, gamesSeed, batchSize,
+                timeoutSeconds * 1000);
+        long start = System.nanoTime();
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("En attente des travailleurs sur le port " + server.getLocalPort());
+            coordinator.run(server);
+        }
+        if (coordinator.getAbortReason() != null) {
+            System.out.println("Tournoi arrêté : " + coordinator.getAbortReason());
+            return;
+        }
+        coordinator.printResults((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Accepte les travailleurs et attend que toutes les parties soient jouées ou que le tournoi soit
+     * arrêté (voir getAbortReason), en affichant la progression.
+     *
+     * @param server La socket d'écoute, fermée par l'appelant.
+     * @throws InterruptedException si l'attente est interrompue.
+     */
+    public void run(ServerSocket server) throws InterruptedException {
+        Thread acceptor = new Thread(() -> accept(server), "coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        long lastCount = -1;
+        while (!remaining.await(2, TimeUnit.SECONDS)) {
+            long count = games - remaining.getCount();
+            if (count != lastCount) {
+                synchronized (this) {
+                    System.out.println(count + "/" + games + " parties jouées, " + workers + " travailleurs");
+                }
+                lastCount = count;
+            }
+        }
+        // Laisse aux travailleurs connectés le temps de recevoir END
+        long deadline = System.currentTimeMillis() + 2000;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (this) {
+                if (workers == 0) {
+                    return;
+                }
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Accepte les connexions des travailleurs, chacune servie par son propre thread.
+     *
+     * @param server La socket d'écoute.
+     */
+    private void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> serve(socket), "coordinator-" + socket.getRemoteSocketAddress());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.out.println("Connexion refusée : " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Sert un travailleur : lui envoie la configuration, puis des lots jusqu'à la fin du tournoi. En
+     * cas d'erreur ou de délai dépassé, les parties manquantes du lot en cours sont remises en file.
+     *
+     * @param socket La connexion du travailleur.
+     */
+    private void serve(Socket socket) {
+        int[] batch = null;
+        BitSet received = new BitSet();
+        synchronized (this) {
+            workers++;
+        }
+        try (Socket connection = socket) {
+            connection.setSoTimeout(timeoutMillis);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(gridSize);
+            out.writeLong(seed);
+            out.writeInt(seats.size());
+            for (SeatConfig seat : seats) {
+                out.writeUTF(seat.toString());
+            }
+            out.flush();
+
+            while (true) {
+                batch = abortReason == null ? pending.poll(200, TimeUnit.MILLISECONDS) : null;
+                if (batch == null) {
+                    if (remaining.getCount() == 0) {
+                        out.writeByte(END);
+                        out.flush();
+                        return;
+                    }
+                    continue;
+                }
+                received.clear();
+                out.writeByte(BATCH);
+                out.writeInt(batch[0]);
+                out.writeInt(batch[1]);
+                out.flush();
+                byte type;
+                while ((type = in.readByte()) == GAME || type == FAILED) {
+                    int game = in.readInt();
+                    if (game < batch[0] || game >= batch[0] + batch[1]) {
+                        throw new IOException("Partie " + game + " hors du lot");
+                    }
+                    if (type == FAILED) {
+                        fail(game, in.readUTF());
+                        continue;
+                    }
+                    long winnerMask = in.readLong();
+                    int gameRounds = in.readInt();
+                    int gameMoves = in.readInt();
+                    received.set(game - batch[0]);
+                    merge(game, winnerMask, gameRounds, gameMoves);
+                }
+                if (type != DONE) {
+                    throw new IOException("Lot incomplet");
+                }
+                if (received.cardinality() != batch[1]) {
+                    requeueMissing(batch, received); // Parties qui ont échoué : le travailleur reste servi
+                }
+                batch = null;
+            }
+        } catch (IOException e) {
+            if (batch != null) {
+                requeueMissing(batch, received);
+            }
+            System.out.println("Travailleur " + socket.getRemoteSocketAddress() + " perdu : "
+                    + (e instanceof EOFException ? "connexion fermée" : e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                workers--;
+            }
+        }
+    }
+
+    /**
+     * Remet en file les parties d'un lot dont le résultat n'a pas été reçu, en tête de file pour qu'elles
+     * soient reprises avant les lots suivants.
+     *
+     * @param batch    Le lot : première partie et nombre de parties.
+     * @param received Les parties du lot déjà reçues.
+     */
+    private void requeueMissing(int[] batch, BitSet received) {
+        int index = received.nextClearBit(0);
+        while (index < batch[1]) {
+            int end = Math.min(received.nextSetBit(index) >= 0 ? received.nextSetBit(index) : batch[1], batch[1]);
+            pending.addFirst(new int[] { batch[0] + index, end - index });
+            synchronized (this) {
+                retries++;
+            }
+            index = received.nextClearBit(end);
+        }
+    }
+
+    /**
+     * Compte l'échec d'une partie et arrête le tournoi si elle a échoué MAX_FAILURES fois : toutes les
+     * parties sont alors considérées comme terminées pour libérer run et les travailleurs.
+     *
+     * @param game    Le numéro de la partie.
+     * @param message Le message d'erreur du travailleur.
+     */
+    private synchronized void fail(int game, String message) {
+        int count = failures.merge(game, 1, Integer::sum);
+        System.out.println("Échec de la partie " + game + " (" + count + "/" + MAX_FAILURES + ") : " + message);
+        if (count >= MAX_FAILURES && abortReason == null) {
+            abortReason = "la partie " + game + " a échoué " + count + " fois : " + message;
+            pending.clear();
+            while (remaining.getCount() > 0) {
+                remaining.countDown();
+            }
+        }
+    }
+
+    /**
+     * Obtient la raison de l'arrêt du tournoi.
+     *
+     * @return La raison, ou null si le tournoi n'a pas été arrêté.
+     */
+    public String getAbortReason() {
+        return abortReason;
+    }
+
+    /**
+     * Ajoute le résultat d'une partie, une seule fois même si la partie a été jouée deux fois.
+     *
+     * @param game       Le numéro de la partie.
+     * @param winnerMask Les sièges gagnants.
+     * @param gameRounds Le nombre de tours.
+     * @param gameMoves  Le nombre de coups.
+     */
+    private synchronized void merge(int game, long winnerMask, int gameRounds, int gameMoves) {
+        if (done.get(game)) {
+            return;
+        }
+        done.set(game);
+        for (int seat = 0; seat < wins.length; seat++) {
+            if ((winnerMask >>> seat & 1) != 0) {
+                wins[seat]++;
+            }
+        }
+        if (winnerMask == 0) {
+            draws++;
+        }
+        rounds += gameRounds;
+        moves += gameMoves;
+        remaining.countDown();
+    }
+
+    /**
+     * Affiche les résultats du tournoi, dans la même forme que Tournament.
+     *
+     * @param seconds La durée du tournoi.
+     */
+    public synchronized void printResults(double seconds) {
+        System.out.println("Résultats du tournoi (" + games + " parties, grille " + gridSize + "x" + gridSize
+                + ", " + retries + " lots repris) :");
+        for (int seat = 0; seat < wins.length; seat++) {
+            System.out.printf("Siège %d (%s) : %d victoires (%.1f %%)%n", seat + 1, seats.get(seat), wins[seat],
+                    100.0 * wins[seat] / games);
+        }
+        System.out.printf("Parties nulles : %d (%.1f %%)%n", draws, 100.0 * draws / games);
+        System.out.printf("Tours par partie : %.1f, durée : %.1f s, %.1f parties/s, %.0f coups/s%n",
+                (double) rounds / games, seconds, games / seconds, moves / seconds);
+    }
+}
@@ -0,0 +1,138 @@
+package model.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import model.jeu.*;
+
+/**
+ * Joue les lots de parties distribués par un TournamentCoordinator : se connecte au coordinateur, reçoit
+ * la configuration du tournoi, puis joue chaque lot en parallèle sur ses coeurs et renvoie le résultat de
+ * chaque partie dans l'ordre des parties, dès qu'il est connu. Plusieurs travailleurs peuvent tourner sur
+ * la même machine que le coordinateur ou sur d'autres machines.
+ */
+public class TournamentWorker {
+
+    private static final int CONNECT_ATTEMPTS = 30; // Une tentative par seconde si le coordinateur n'est pas prêt
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> positional = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.size() < 2 || threads <= 0) {
+            System.out.println("Utilisation : TournamentWorker <hôte> <port> [-threads N]");
+            return;
+        }
+        String host = positional.get(0);
+        int port = Integer.parseInt(positional.get(1));
+
+        try (Socket socket = connect(host, port)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readInt() != TournamentCoordinator.MAGIC || in.readInt() != TournamentCoordinator.VERSION) {
+                System.out.println("Le serveur n'est pas un coordinateur de tournoi compatible.");
+                return;
+            }
+            int gridSize = in.readInt();
+            RandomSource randomSource = new RandomSource(in.readLong());
+            List<SeatConfig> seats = new ArrayList<>();
+            int numSeats = in.readInt();
+            for (int seat = 0; seat < numSeats; seat++) {
+                seats.add(SeatConfig.parse(in.readUTF()));
+            }
+            System.out.println("Connecté à " + host + ":" + port + ", grille " + gridSize + "x" + gridSize + ", sièges "
+                    + seats + ", " + threads + " threads");
+
+            GameSimulation simulation = new GameSimulation(gridSize, seats);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long played = 0;
+            try {
+                while (in.readByte() == TournamentCoordinator.BATCH) {
+                    int first = in.readInt();
+                    int count = in.readInt();
+                    List<Future<GameSimulation.Result>> results = new ArrayList<>(count);
+                    for (int game = first; game < first + count; game++) {
+                        long gameNumber = game;
+                        int rotation = game % numSeats;
+                        results.add(executor.submit(() -> simulation.play(randomSource, gameNumber, rotation)));
+                    }
+                    for (int i = 0; i < count; i++) {
+                        GameSimulation.Result result;
+                        try {
+                            result = results.get(i).get();
+                        } catch (ExecutionException e) {
+                            // Le travailleur reste disponible : le coordinateur décide de rejouer la partie ou d'arrêter
+                            System.out.println("Échec de la partie " + (first + i) + " : " + e.getCause());
+                            out.writeByte(TournamentCoordinator.FAILED);
+                            out.writeInt(first + i);
+                            out.writeUTF(String.valueOf(e.getCause()));
+                            out.flush();
+                            continue;
+                        }
+                        long winnerMask = 0;
+                        for (int seat = 0; seat < numSeats; seat++) {
+                            if (result.isWinner(seat)) {
+                                winnerMask |= 1L << seat;
+                            }
+                        }
+                        out.writeByte(TournamentCoordinator.GAME);
+                        out.writeInt(first + i);
+                        out.writeLong(winnerMask);
+                        out.writeInt(result.getRounds());
+                        out.writeInt(result.getMoves());
+                        out.flush(); // Chaque résultat part tout de suite : il prouve aussi que le travailleur est vivant
+                    }
+                    out.writeByte(TournamentCoordinator.DONE);
+                    out.flush();
+                    played += count;
+                }
+            } catch (EOFException e) {
+                System.out.println("Le coordinateur a fermé la connexion.");
+            } finally {
+                executor.shutdownNow();
+            }
+            System.out.println(played + " parties jouées");
+        }
+    }
+
+    /**
+     * Se connecte au coordinateur, en réessayant pendant qu'il démarre.
+     *
+     * @param host L'hôte du coordinateur.
+     * @param port Le port du coordinateur.
+     * @return     La connexion.
+     * @throws IOException si le coordinateur reste injoignable.
+     * @throws InterruptedException si l'attente est interrompue.
+     */
+    private static Socket connect(String host, int port) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Socket socket = new Socket(host, port);
+                socket.setTcpNoDelay(true);
+                return socket;
+            } catch (ConnectException e) {
+                if (attempt == CONNECT_ATTEMPTS) {
+                    throw e;
+                }
+                Thread.sleep(1000);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package vue;
+
+import model.jeu.*;
+
+/**
+ * La class ConsoleGameListener affiche une partie dans la console, comme le faisaient Main et MainSos :
+ * la grille au début de la partie et à la fin de chaque tour, chaque coup joué et le gagnant. En mode
+ * ANSI, la grille reste en place et seules les cases modifiées sont redessinées ; les coups ne sont
+ * alors pas affichés, le numéro du tour l'est sous la grille.
+ */
+public class ConsoleGameListener implements GameListener {
+
+    /** Propriété système qui active l'affichage ANSI. */
+    public static final String ANSI_PROPERTY = "tron.ansi";
+
+    private final boolean showTurns;
+    private final boolean ansi;
+    private final ConsoleRenderer renderer;
+
+    /**
+     * Constructeur de la class ConsoleGameListener qui affiche toute la partie.
+     */
+    public ConsoleGameListener() {
+        this(true);
+    }
+
+    /**
+     * Constructeur de la class ConsoleGameListener, en mode ANSI si la propriété tron.ansi est vraie.
+     *
+     * @param showTurns true pour afficher les coups et la grille à chaque tour, false pour n'afficher que
+     *                  le résultat de la partie.
+     */
+    public ConsoleGameListener(boolean showTurns) {
+        this(showTurns, Boolean.getBoolean(ANSI_PROPERTY));
+    }
+
+    /**
+     * Constructeur de la class ConsoleGameListener.
+     *
+     * @param showTurns true pour afficher la grille à chaque tour, false pour n'afficher que le résultat.
+     * @param ansi      true pour redessiner la grille en place avec des séquences ANSI.
+     */
+    public ConsoleGameListener(boolean showTurns, boolean ansi) {
+        this.showTurns = showTurns;
+        this.ansi = ansi;
+        this.renderer = new ConsoleRenderer(System.out, ansi);
+    }
+
+    @Override
+    public void onGameStart(StateGame state) {
+        if (showTurns) {
+            renderer.reset();
+            renderer.render(state);
+        }
+    }
+
+    @Override
+    public void onMoveApplied(StateGame state, Player player, String action) {
+        if (showTurns && !ansi) {
+            System.out.println("joueur : " + player + " action : " + action);
+        }
+    }
+
+    @Override
+    public void onInvalidMove(StateGame state, Player player, String action) {
+        switch (action) {
+            case "up":
+            case "down":
+            case "left":
+            case "right":
+                System.out.println("Action non applicable. Position invalide.");
+                break;
+            default:
+                System.out.println("Action non reconnue.");
+        }
+    }
+
+    @Override
+    public void onTurnEnd(StateGame state, int turn) {
+        if (showTurns) {
+            renderer.render(state, ansi ? "tour " + turn : null);
+        }
+    }
+
+    @Override
+    public void onGameEnd(StateGame state, Player winner) {
+        if (winner != null) {
+            System.out.println("GameOver\nLe joueur gagnant est :" + winner);
+        } else {
+            System.out.println("Partie null");
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package vue;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import model.jeu.*;
+
+/**
+ * La class ConsoleRenderer affiche la grille dans la console. Chaque image est construite dans un tampon
+ * de caractères réutilisé d'un tour à l'autre, puis écrite en un seul appel. En mode ANSI, seule la
+ * première image est écrite en entier : les suivantes ne font que déplacer le curseur sur les cases qui
+ * ont changé depuis le tour précédent, quelques cases par tour même sur une grille de 100 x 100.
+ */
+public class ConsoleRenderer {
+
+    private static final char ESC = 27;
+    private static final int CELL_WIDTH = 3; // Une case s'affiche " X "
+
+    private final PrintWriter writer;
+    private final boolean ansi;
+
+    private char[] buffer = new char[0];
+    private int length;
+    private char[] previous; // Symboles affichés au tour précédent, null avant la première image en mode ANSI
+    private int rows;
+    private int cols;
+
+    /**
+     * Constructeur de la class ConsoleRenderer.
+     *
+     * @param out  Le flux où écrire.
+     * @param ansi true pour ne redessiner que les cases modifiées avec des séquences ANSI, false pour
+     *             écrire chaque image en entier à la suite des précédentes.
+     */
+    public ConsoleRenderer(OutputStream out, boolean ansi) {
+        this.writer = new PrintWriter(new OutputStreamWriter(out, Charset.defaultCharset()), false);
+        this.ansi = ansi;
+    }
+
+    /**
+     * Affiche la grille d'un état.
+     *
+     * @param state L'état du jeu.
+     */
+    public void render(StateGame state) {
+        render(state, null);
+    }
+
+    /**
+     * Affiche la grille d'un état, suivie d'une ligne d'information.
+     *
+     * @param state  L'état du jeu.
+     * @param footer La ligne affichée sous la grille, ou null.
+     */
+    public void render(StateGame state, String footer) {
+        Player[][] grid = state.getGrid();
+        length = 0;
+        if (!ansi || previous == null || rows != grid.length || cols != grid[0].length) {
+            fullFrame(grid);
+        } else {
+            diffFrame(grid);
+        }
+        if (ansi) {
+            moveCursor(rows + 1, 1);
+        }
+        if (footer != null) {
+            append(footer);
+            if (ansi) {
+                append(ESC).append('[').append('K'); // Efface la fin de la ligne précédente
+            }
+            append('\n');
+        }
+        writer.write(buffer, 0, length);
+        writer.flush();
+    }
+
+    /**
+     * Oublie l'image affichée : la prochaine image sera écrite en entier.
+     */
+    public void reset() {
+        previous = null;
+    }
+
+    /**
+     * Écrit toute la grille, précédée en mode ANSI de l'effacement de l'écran.
+     *
+     * @param grid La grille.
+     */
+    private void fullFrame(Player[][] grid) {
+        rows = grid.length;
+        cols = grid[0].length;
+        if (previous == null || previous.length != rows * cols) {
+            previous = new char[rows * cols];
+        }
+        if (ansi) {
+            append(ESC).append('[').append('H').append(ESC).append('[').append('2').append('J');
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                char symbol = symbol(grid[row][col]);
+                previous[row * cols + col] = symbol;
+                append(' ').append(symbol).append(' ');
+            }
+            append('\n');
+        }
+    }
+
+    /**
+     * Écrit seulement les cases qui ont changé depuis l'image précédente.
+     *
+     * @param grid La grille.
+     */
+    private void diffFrame(Player[][] grid) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                char symbol = symbol(grid[row][col]);
+                if (previous[row * cols + col] != symbol) {
+                    previous[row * cols + col] = symbol;
+                    moveCursor(row + 1, col * CELL_WIDTH + 2);
+                    append(symbol);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ajoute la séquence ANSI qui place le curseur (lignes et colonnes comptées à partir de 1).
+     *
+     * @param row La ligne.
+     * @param col La colonne.
+     */
+    private void moveCursor(int row, int col) {
+        append(ESC).append('[');
+        appendInt(row);
+        append(';');
+        appendInt(col);
+        append('H');
+    }
+
+    private static char symbol(Player player) {
+        return player != null ? player.getSymbole() : '.';
+    }
+
+    private ConsoleRenderer append(char c) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(256, buffer.length * 2));
+        }
+        buffer[length++] = c;
+        return this;
+    }
+
+    private void append(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            append(s.charAt(i));
+        }
+    }
+
+    private void appendInt(int value) {
+        if (value >= 10) {
+            appendInt(value / 10);
+        }
+        append((char) ('0' + value % 10));
+    }
+}
@@ -6,7 +6,7 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
@@ -14,6 +14,7 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import model.algorithmes.*;
 import model.evaluation.*;
@@ -27,6 +28,9 @@ public class GameInterface extends JFrame {
     private final int gridSizelength;
     private final int gridSizeWidth;
     private final int cellSize = 40;
+    // Temps de réponse cible par coup et profondeur maximale des algorithmes
+    private static final long TARGET_MILLIS_PER_MOVE = 150;
+    private static final int MAX_DEPTH = 6;
     private JButton startButton;
     private JButton resetButton;
     private JButton stopButton;
@@ -36,9 +40,26 @@ public class GameInterface extends JFrame {
     private JPanel boardPanel;
     private StateGame stateGame;
     // Variables de contrôle
-    boolean stop = false;
+    volatile boolean stop = false; // Lu par le thread de jeu, modifié par le thread de l'interface
     int reset = 0;
-    boolean replace = true;
+    volatile boolean replace = true;
+    // Jeton d'interruption des recherches en cours (bouton "Stop" ou "Restart")
+    private final SearchCancellation cancellation = new SearchCancellation();
+    // Threads de recherche Lazy SMP de chaque algorithme (-Dtron.search.threads=<threads>)
+    private final int searchThreads = LazySmpSearch.threadsFromSystemProperty();
+    // Table de transposition hors du tas, créée une fois pour toutes les parties (-Dtron.tt.mb=<taille>),
+    // et d'office si plusieurs threads cherchent
+    private final TranspositionTable transpositionTable = LazySmpSearch.tableFor(searchThreads,
+            OffHeapTranspositionTable.fromSystemProperties());
+    // Bibliothèque d'ouvertures projetée en mémoire, ouverte une fois (-Dtron.book=<fichier>)
+    private final OpeningBook openingBook = OpeningBook.fromSystemProperty();
+    // Hasard des positions de départ : avec -Dtron.seed=<graine>, la suite des parties se rejoue à l'identique
+    private final RandomSource randomSource = RandomSource.fromSystemProperty();
+    private long gameNumber = 0;
+    // Table de fin de partie projetée en mémoire, ouverte une fois (-Dtron.tablebase=<fichier>)
+    private final EndgameTablebase tablebase = EndgameTablebase.fromSystemProperty();
+    private volatile boolean abortGame = false;
+    private Thread gameThread;
     // Étiquette pour afficher le gagnant
     private JLabel winnerLabel;
 
@@ -109,11 +130,13 @@ public class GameInterface extends JFrame {
      * @param e Événement de clic sur le bouton "Start"
      */
     private void startGameAction(ActionEvent e) {
-        Thread gameThread = new Thread(() -> {
-            startGame(stateGame);
-        });
         if (reset == 0) {
             replace = false;
+            abortGame = false;
+            cancellation.reset();
+            gameThread = new Thread(() -> {
+                startGame(stateGame);
+            });
             gameThread.start();
             reset++;
         }
@@ -131,6 +154,29 @@ public class GameInterface extends JFrame {
                 aliveCount++;
             }
         }
+        if (aliveCount > 1 && gameThread != null && gameThread.isAlive()) {
+            // Partie en cours : on interrompt la recherche, puis on réinitialise une fois le thread de jeu
+            // terminé, sans bloquer le thread de l'interface pendant l'attente
+            abortGame = true;
+            cancellation.cancel();
+            resetButton.setEnabled(false);
+            Thread finishedGame = gameThread;
+            Thread waiter = new Thread(() -> {
+                try {
+                    finishedGame.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                SwingUtilities.invokeLater(() -> {
+                    resetGame();
+                    reset = 0;
+                    resetButton.setEnabled(true);
+                });
+            });
+            waiter.setDaemon(true);
+            waiter.start();
+            return;
+        }
         if (aliveCount <= 1) {
             resetGame();
             reset = 0;
@@ -144,6 +190,12 @@ public class GameInterface extends JFrame {
      */
     private void togglePlayAction(ActionEvent e) {
         stop = !stop;
+        if (stop) {
+            // Interrompt les recherches en cours, le tour sera rejoué à la reprise
+            cancellation.cancel();
+        } else {
+            cancellation.reset();
+        }
         stopButton.setText(stop ? "Play" : "Stop");
     }
 
@@ -392,7 +444,7 @@ public class GameInterface extends JFrame {
         Player[][] grid = new Player[gridSize][gridSize];
         Map<Player, Point> playerPosition = new HashMap<>();
 
-        Random random = new Random();
+        SplittableRandom random = randomSource.forGame(gameNumber++);
 
         for (int i = 0; i < numPlayers; i++) {
             String playerName = "Player " + (i + 1);
@@ -429,10 +481,34 @@ public class GameInterface extends JFrame {
         Action action = new Action();
         Voronoi voronoi = new Voronoi();
         StateEvaluation voronoiEvaluation = new VoronoiStateEvaluation();
-        MaxNAlgorithme maxn = new MaxNAlgorithme(voronoiEvaluation, action);
-        ParanoidAlgorithm paranoidAlgorithm = new ParanoidAlgorithm(voronoiEvaluation, action);
-
-        while (!maxn.isTerminal(currentState)) {
+        boolean symmetry = Boolean.getBoolean(OffHeapTranspositionTable.SYMMETRY_PROPERTY);
+
+        // Les threads auxiliaires sont configurés comme le thread principal de chaque algorithme
+        LazySmpSearch<MaxNAlgorithme> maxnSearch = new LazySmpSearch<>(() -> {
+            MaxNAlgorithme engine = new MaxNAlgorithme(voronoiEvaluation, action);
+            engine.setSymmetryCanonicalisation(symmetry);
+            engine.setOpeningBook(openingBook);
+            engine.setEndgameTablebase(tablebase);
+            return engine;
+        }, searchThreads, transpositionTable);
+        LazySmpSearch<ParanoidAlgorithm> paranoidSearch = new LazySmpSearch<>(() -> {
+            ParanoidAlgorithm engine = new ParanoidAlgorithm(voronoiEvaluation, action);
+            engine.setSymmetryCanonicalisation(symmetry);
+            engine.setEndgameTablebase(tablebase);
+            return engine;
+        }, searchThreads, transpositionTable);
+        MaxNAlgorithme maxn = maxnSearch.getMainEngine();
+        ParanoidAlgorithm paranoidAlgorithm = paranoidSearch.getMainEngine();
+
+        // Profondeur de recherche des algorithmes choisie à chaque tour selon un temps cible par coup
+        DepthController maxnDepth = new DepthController(TARGET_MILLIS_PER_MOVE, 1, MAX_DEPTH);
+        DepthController paranoidDepth = new DepthController(TARGET_MILLIS_PER_MOVE, 1, MAX_DEPTH);
+        maxnDepth.setLog(true);
+        paranoidDepth.setLog(true);
+        maxn.setCancellation(cancellation);
+        paranoidAlgorithm.setCancellation(cancellation);
+
+        while (!maxn.isTerminal(currentState) && !abortGame) {
             if (stop) {
                 try {
                     Thread.sleep(400);
@@ -442,10 +518,9 @@ public class GameInterface extends JFrame {
                 continue;
             }
 
-            // Profondeur de recherche des algorithmes
-            int depth = 3;
             String ch = null;
             Map<Player, String> playerActions = new HashMap<>();
+            boolean turnAborted = false;
 
             // Sélection des actions pour chaque joueur
             for (Player player : currentState.getPlayerPosition().keySet()) {
@@ -453,15 +528,23 @@ public class GameInterface extends JFrame {
                     // Utilisation de l'algorithme MaxN pour le premier joueur et Paranoid pour les
                     // autres
                     if (player.getId() == 0) {
-                        ch = maxn.getBestActionForPlayer(currentState, voronoi, player, depth);
+                        ch = maxnDepth.getBestAction(maxnSearch, currentState, voronoi, player);
+                        turnAborted |= maxn.wasLastSearchAborted();
                     } else {
-                        ch = paranoidAlgorithm.getBestActionForPlayer(currentState, voronoi, player, depth);
+                        ch = paranoidDepth.getBestAction(paranoidSearch, currentState, voronoi, player);
+                        turnAborted |= paranoidAlgorithm.wasLastSearchAborted();
                     }
                     playerActions.put(player, ch);
 
                 }
             }
 
+            // Recherche interrompue par "Stop" ou "Restart" : le tour n'est pas appliqué, même si "Play" a
+            // déjà remis le jeton à zéro : chaque recherche garde la trace de son interruption
+            if (turnAborted || abortGame) {
+                continue;
+            }
+
             // Application des actions et mise à jour de l'affichage
             currentState = action.applyActions(currentState, playerActions);
             if (boardPanel != null) { // Vérifier si boardPanel n'est pas nul
@@ -477,6 +560,9 @@ public class GameInterface extends JFrame {
             }
         }
 
+        maxnSearch.shutdown();
+        paranoidSearch.shutdown();
+
         // Détermination du gagnant et mise à jour de l'étiquette du gagnant
         Player winner = determineWinner();
         if (winner != null) {